@@ -126,6 +126,9 @@ INSERT INTO `wallets` (`wallet_id`, `name`, `balance`, `user_id`, `deleted`) VAL
 	(11, 'Default Wallet', 20.00, 4, 0);
 /*!40000 ALTER TABLE `wallets` ENABLE KEYS */;
 
+INSERT INTO `wallet_snapshots` (`wallet_id`, `balance`, `last_entry_id`)
+SELECT `wallet_id`, `balance`, 0 FROM `wallets`;
+
 /*!40101 SET SQL_MODE=IFNULL(@OLD_SQL_MODE, '') */;
 /*!40014 SET FOREIGN_KEY_CHECKS=IFNULL(@OLD_FOREIGN_KEY_CHECKS, 1) */;
 /*!40101 SET CHARACTER_SET_CLIENT=@OLD_CHARACTER_SET_CLIENT */;
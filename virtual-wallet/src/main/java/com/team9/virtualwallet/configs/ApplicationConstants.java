@@ -3,10 +3,35 @@ package com.team9.virtualwallet.configs;
 public class ApplicationConstants {
 
     public static final String CURRENT_USER_SESSION_KEY = "currentUser";
+    public static final String CURRENT_USER_SNAPSHOT_SESSION_KEY = "currentUserSnapshot";
+    public static final String CURRENT_USER_REQUEST_KEY = "currentUserOfRequest";
     public static final String DEFAULT_PHOTO_URL = "https://pbs.twimg.com/media/DcbzSCwXUAAHuhr.jpg";
     public static final int MAX_ALLOWED_REFERRALS = 5;
     public static final int FREE_BONUS_AMOUNT = 20;
     public static final int LARGE_TRANSACTION_AMOUNT = 10000;
     public static final int PANEL_TRANSACTIONS_COUNT = 5;
+    public static final int TRANSFER_MAX_ATTEMPTS = 3;
+    public static final long TRANSFER_RETRY_BACKOFF_MILLIS = 50;
+    public static final int WALLET_UPDATE_MAX_ATTEMPTS = 5;
+    public static final long WALLET_UPDATE_BACKOFF_MILLIS = 20;
+    public static final int LEDGER_SNAPSHOT_SETTLE_MINUTES = 5;
+    public static final int MAX_PAYOUT_ITEMS = 5000;
+    public static final int PAYOUT_CHUNK_SIZE = 100;
+    public static final int EXPORT_FETCH_SIZE = 500;
+    public static final int STATEMENT_BATCH_SIZE = 100;
+    public static final String NEXT_PAGE_TOKEN_HEADER = "X-Next-Page-Token";
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+    public static final String ROLE_CACHE_REGION = "roles";
+    public static final String CATEGORY_CACHE_REGION = "categories";
+    public static final String CARD_CACHE_REGION = "cards";
+    public static final String WALLET_CACHE_REGION = "wallets";
+    public static final String USER_CATEGORIES_QUERY_REGION = "user-categories";
+    public static final String USER_CARDS_QUERY_REGION = "user-cards";
+    public static final String USER_WALLETS_QUERY_REGION = "user-wallets";
+    public static final String EMAIL_EXECUTOR = "email-outbox";
+    public static final String SETTLEMENT_EXECUTOR = "card-settlement";
+    public static final String REPORTING_EXECUTOR = "reporting";
 
 }
@@ -0,0 +1,44 @@
+package com.team9.virtualwallet.configs;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import static com.team9.virtualwallet.configs.ApplicationConstants.*;
+
+@Configuration
+public class ExecutorConfig {
+
+    private final Environment env;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public ExecutorConfig(Environment env, MeterRegistry meterRegistry) {
+        this.env = env;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean(EMAIL_EXECUTOR)
+    public MonitoredTaskExecutor emailExecutor() {
+        return boundedExecutor(EMAIL_EXECUTOR, 2, 10);
+    }
+
+    @Bean(SETTLEMENT_EXECUTOR)
+    public MonitoredTaskExecutor settlementExecutor() {
+        return boundedExecutor(SETTLEMENT_EXECUTOR, 4, 100);
+    }
+
+    @Bean(REPORTING_EXECUTOR)
+    public MonitoredTaskExecutor reportingExecutor() {
+        return boundedExecutor(REPORTING_EXECUTOR, 2, 20);
+    }
+
+    private MonitoredTaskExecutor boundedExecutor(String name, int defaultWorkers, int defaultQueueCapacity) {
+        int workers = env.getProperty(String.format("executors.%s.workers", name), Integer.class, defaultWorkers);
+        int queueCapacity = env.getProperty(String.format("executors.%s.queue-capacity", name), Integer.class, defaultQueueCapacity);
+        int awaitTerminationSeconds = env.getProperty(String.format("executors.%s.await-termination-seconds", name), Integer.class, 30);
+        return new MonitoredTaskExecutor(name, workers, queueCapacity, awaitTerminationSeconds, meterRegistry);
+    }
+}
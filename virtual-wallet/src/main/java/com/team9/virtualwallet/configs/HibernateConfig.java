@@ -1,27 +1,61 @@
 package com.team9.virtualwallet.configs;
 
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.core.env.Environment;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.hibernate5.HibernateTransactionManager;
 import org.springframework.orm.hibernate5.LocalSessionFactoryBean;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
 
+import javax.cache.CacheManager;
 import javax.sql.DataSource;
 import java.util.Properties;
 
+import static com.team9.virtualwallet.configs.ApplicationConstants.TRANSFER_MAX_ATTEMPTS;
+import static com.team9.virtualwallet.configs.ApplicationConstants.TRANSFER_RETRY_BACKOFF_MILLIS;
+
 @Configuration
+@EnableTransactionManagement
 @PropertySource("classpath:application.properties")
 public class HibernateConfig {
 
-    private final String dbUrl, dbUsername, dbPassword;
+    private static final String POOL_NAME = "virtual-wallet-pool";
+
+    private final String dbUrl, dbUsername, dbPassword, dbDriverClassName, dbDialect;
+    private final boolean generateStatistics, statementCacheEnabled, rewriteBatchedStatements, cursorFetchEnabled;
+    private final int poolMinimumIdle, poolMaximumSize, batchSize, statementCacheSize, statementCacheSqlLimit;
+    private final long poolIdleTimeout, poolMaxLifetime, poolConnectionTimeout, poolLeakDetectionThreshold;
+    private final MeterRegistry meterRegistry;
+    private final CacheManager cacheManager;
 
     @Autowired
-    public HibernateConfig(Environment env) {
+    public HibernateConfig(Environment env, MeterRegistry meterRegistry, CacheManager cacheManager) {
         dbUrl = env.getProperty("database.url");
         dbUsername = env.getProperty("database.username");
         dbPassword = env.getProperty("database.password");
+        dbDriverClassName = env.getProperty("database.driver-class-name", "com.mysql.cj.jdbc.Driver");
+        dbDialect = env.getProperty("database.dialect", "org.hibernate.dialect.MySQLDialect");
+        generateStatistics = env.getProperty("database.generate-statistics", Boolean.class, false);
+        poolMinimumIdle = env.getProperty("database.pool.minimum-idle", Integer.class, 5);
+        poolMaximumSize = env.getProperty("database.pool.maximum-size", Integer.class, 20);
+        poolIdleTimeout = env.getProperty("database.pool.idle-timeout", Long.class, 600000L);
+        poolMaxLifetime = env.getProperty("database.pool.max-lifetime", Long.class, 1800000L);
+        poolConnectionTimeout = env.getProperty("database.pool.connection-timeout", Long.class, 30000L);
+        poolLeakDetectionThreshold = env.getProperty("database.pool.leak-detection-threshold", Long.class, 0L);
+        batchSize = env.getProperty("database.batch-size", Integer.class, 25);
+        rewriteBatchedStatements = env.getProperty("database.rewrite-batched-statements", Boolean.class, false);
+        statementCacheEnabled = env.getProperty("database.statement-cache.enabled", Boolean.class, false);
+        statementCacheSize = env.getProperty("database.statement-cache.size", Integer.class, 250);
+        statementCacheSqlLimit = env.getProperty("database.statement-cache.sql-limit", Integer.class, 2048);
+        cursorFetchEnabled = env.getProperty("database.cursor-fetch", Boolean.class, false);
+        this.meterRegistry = meterRegistry;
+        this.cacheManager = cacheManager;
     }
 
     @Bean
@@ -33,20 +67,64 @@ public class HibernateConfig {
         return sessionFactory;
     }
 
+    // The request's session outlives each transaction, but its connection goes back to the pool when one completes.
+    @Bean
+    public HibernateTransactionManager transactionManager(SessionFactory sessionFactory) {
+        return new HibernateTransactionManager(sessionFactory);
+    }
+
     @Bean
+    public RetryingTransactionTemplate transactionTemplate(HibernateTransactionManager transactionManager) {
+        return new RetryingTransactionTemplate(transactionManager, TRANSFER_MAX_ATTEMPTS, TRANSFER_RETRY_BACKOFF_MILLIS);
+    }
+
+    @Bean(destroyMethod = "close")
     public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName("com.mysql.cj.jdbc.Driver");
-        dataSource.setUrl(dbUrl);
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(POOL_NAME);
+        dataSource.setDriverClassName(dbDriverClassName);
+        dataSource.setJdbcUrl(dbUrl);
         dataSource.setUsername(dbUsername);
         dataSource.setPassword(dbPassword);
 
+        dataSource.setMinimumIdle(poolMinimumIdle);
+        dataSource.setMaximumPoolSize(poolMaximumSize);
+        dataSource.setIdleTimeout(poolIdleTimeout);
+        dataSource.setMaxLifetime(poolMaxLifetime);
+        dataSource.setConnectionTimeout(poolConnectionTimeout);
+        dataSource.setLeakDetectionThreshold(poolLeakDetectionThreshold);
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        if (rewriteBatchedStatements) {
+            dataSource.addDataSourceProperty("rewriteBatchedStatements", "true");
+        }
+        if (statementCacheEnabled) {
+            dataSource.addDataSourceProperty("useServerPrepStmts", "true");
+            dataSource.addDataSourceProperty("cachePrepStmts", "true");
+            dataSource.addDataSourceProperty("prepStmtCacheSize", String.valueOf(statementCacheSize));
+            dataSource.addDataSourceProperty("prepStmtCacheSqlLimit", String.valueOf(statementCacheSqlLimit));
+        }
+        // Lets queries with a fetch size (e.g. history exports) read rows in batches instead of buffering the whole result.
+        if (cursorFetchEnabled) {
+            dataSource.addDataSourceProperty("useCursorFetch", "true");
+        }
+
         return dataSource;
     }
 
     private Properties hibernateProperties() {
         Properties hibernateProperties = new Properties();
-        hibernateProperties.setProperty("hibernate.dialect", "org.hibernate.dialect.MySQLDialect");
+        hibernateProperties.setProperty("hibernate.dialect", dbDialect);
+        hibernateProperties.setProperty("hibernate.generate_statistics", String.valueOf(generateStatistics));
+        hibernateProperties.setProperty("hibernate.jdbc.batch_size", String.valueOf(batchSize));
+        hibernateProperties.setProperty("hibernate.jdbc.batch_versioned_data", "true");
+        hibernateProperties.setProperty("hibernate.order_inserts", "true");
+        hibernateProperties.setProperty("hibernate.order_updates", "true");
+        hibernateProperties.setProperty("hibernate.cache.use_second_level_cache", "true");
+        hibernateProperties.setProperty("hibernate.cache.use_query_cache", "true");
+        hibernateProperties.setProperty("hibernate.cache.region.factory_class", "jcache");
+        hibernateProperties.setProperty("hibernate.javax.cache.missing_cache_strategy", "fail");
+        hibernateProperties.put("hibernate.javax.cache.cache_manager", cacheManager);
 
         return hibernateProperties;
     }
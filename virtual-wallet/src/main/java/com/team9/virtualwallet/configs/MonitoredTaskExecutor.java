@@ -0,0 +1,65 @@
+package com.team9.virtualwallet.configs;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.*;
+
+public class MonitoredTaskExecutor extends ThreadPoolTaskExecutor {
+
+    public static final String TASK_WAIT_METRIC = "executor.task.wait";
+    public static final String TASK_DURATION_METRIC = "executor.task.duration";
+    public static final String REJECTED_METRIC = "executor.rejected";
+
+    private static final long serialVersionUID = 1L;
+
+    private final String name;
+    private final transient MeterRegistry meterRegistry;
+
+    public MonitoredTaskExecutor(String name, int workers, int queueCapacity, int awaitTerminationSeconds,
+                                 MeterRegistry meterRegistry) {
+        this.name = name;
+        this.meterRegistry = meterRegistry;
+        setBeanName(name);
+        setThreadNamePrefix(name + "-");
+        setCorePoolSize(workers);
+        setMaxPoolSize(workers);
+        setQueueCapacity(queueCapacity);
+        setWaitForTasksToCompleteOnShutdown(true);
+        setAwaitTerminationSeconds(awaitTerminationSeconds);
+
+        Timer wait = Timer.builder(TASK_WAIT_METRIC).tag("name", name).register(meterRegistry);
+        Timer duration = Timer.builder(TASK_DURATION_METRIC).tag("name", name).register(meterRegistry);
+        setTaskDecorator(task -> {
+            long queuedAt = System.nanoTime();
+            return () -> {
+                wait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                duration.record(task);
+            };
+        });
+
+        Counter rejected = Counter.builder(REJECTED_METRIC).tag("name", name).register(meterRegistry);
+        setRejectedExecutionHandler((task, executor) -> {
+            rejected.increment();
+            throw new RejectedExecutionException(String.format("Executor %s is saturated.", name));
+        });
+    }
+
+    // How many more tasks can be handed over right now without being rejected.
+    public int remainingCapacity() {
+        ThreadPoolExecutor executor = getThreadPoolExecutor();
+        return executor.getMaximumPoolSize() - executor.getActiveCount() + executor.getQueue().remainingCapacity();
+    }
+
+    @Override
+    protected ExecutorService initializeExecutor(ThreadFactory threadFactory,
+                                                 RejectedExecutionHandler rejectedExecutionHandler) {
+        ExecutorService executor = super.initializeExecutor(threadFactory, rejectedExecutionHandler);
+        new ExecutorServiceMetrics(executor, name, Tags.empty()).bindTo(meterRegistry);
+        return executor;
+    }
+}
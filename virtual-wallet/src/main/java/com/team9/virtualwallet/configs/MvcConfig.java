@@ -1,6 +1,10 @@
 package com.team9.virtualwallet.configs;
 
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.hibernate5.support.OpenSessionInViewInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -10,6 +14,21 @@ import java.nio.file.Paths;
 @Configuration
 public class MvcConfig implements WebMvcConfigurer {
 
+    private final SessionFactory sessionFactory;
+
+    @Autowired
+    public MvcConfig(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // One session per request, so every lookup made while handling it shares an identity map.
+        OpenSessionInViewInterceptor openSessionInView = new OpenSessionInViewInterceptor();
+        openSessionInView.setSessionFactory(sessionFactory);
+        registry.addWebRequestInterceptor(openSessionInView);
+    }
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         Path imageUploadDir = Paths.get("./images/users");
@@ -1,6 +1,7 @@
 package com.team9.virtualwallet.configs;
 
 import com.team9.virtualwallet.exceptions.*;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -25,11 +26,17 @@ public class RestResponseEntityExceptionHandler extends ResponseEntityExceptionH
         response.sendError(HttpStatus.NOT_FOUND.value());
     }
 
-    @ExceptionHandler(value = {IllegalArgumentException.class, DuplicateEntityException.class, CardExpiredException.class})
+    @ExceptionHandler(value = {IllegalArgumentException.class, DuplicateEntityException.class, CardExpiredException.class,
+            CardGatewayRejectedException.class, OptimisticLockingFailureException.class})
     public void conflict(HttpServletResponse response) throws IOException {
         response.sendError(HttpStatus.CONFLICT.value());
     }
 
+    @ExceptionHandler(value = {SettlementBacklogFullException.class, CardGatewayUnavailableException.class})
+    public void unavailable(HttpServletResponse response) throws IOException {
+        response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+    }
+
     public static void checkFields(BindingResult result) {
         if (result.hasErrors()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, Objects.requireNonNull(result.getFieldError()).getDefaultMessage());
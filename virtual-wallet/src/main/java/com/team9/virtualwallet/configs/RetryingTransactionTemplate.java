@@ -0,0 +1,60 @@
+package com.team9.virtualwallet.configs;
+
+import org.hibernate.PessimisticLockException;
+import org.hibernate.StaleStateException;
+import org.hibernate.exception.LockAcquisitionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLTransactionRollbackException;
+
+import static com.team9.virtualwallet.services.utils.Helpers.backOff;
+
+public class RetryingTransactionTemplate extends TransactionTemplate {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+
+    public RetryingTransactionTemplate(PlatformTransactionManager transactionManager, int maxAttempts, long retryBackoffMillis) {
+        super(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+    }
+
+    @Override
+    public <T> T execute(TransactionCallback<T> action) throws TransactionException {
+        // Only the outermost boundary can retry; a joined transaction is already marked for rollback.
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return super.execute(action);
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return super.execute(action);
+            } catch (RuntimeException e) {
+                if (!isLockConflict(e) || attempt >= maxAttempts) {
+                    throw e;
+                }
+            }
+            backOff(retryBackoffMillis, attempt);
+        }
+    }
+
+    private static boolean isLockConflict(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof LockAcquisitionException
+                    || cause instanceof PessimisticLockException
+                    || cause instanceof javax.persistence.PessimisticLockException
+                    || cause instanceof SQLTransactionRollbackException
+                    || cause instanceof StaleStateException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,87 @@
+package com.team9.virtualwallet.configs;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+import static com.team9.virtualwallet.configs.ApplicationConstants.*;
+import static org.hibernate.cache.spi.RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+import static org.hibernate.cache.spi.RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+@Configuration
+public class SecondLevelCacheConfig {
+
+    private static final URI CACHE_MANAGER_URI = URI.create("virtual-wallet-hibernate");
+
+    private static final List<String> REGIONS = List.of(
+            ROLE_CACHE_REGION,
+            CATEGORY_CACHE_REGION,
+            CARD_CACHE_REGION,
+            WALLET_CACHE_REGION,
+            USER_CATEGORIES_QUERY_REGION,
+            USER_CARDS_QUERY_REGION,
+            USER_WALLETS_QUERY_REGION,
+            DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+
+    private final Environment env;
+    private final MeterRegistry meterRegistry;
+    private final long defaultTtlSeconds, defaultMaximumSize;
+
+    @Autowired
+    public SecondLevelCacheConfig(Environment env, MeterRegistry meterRegistry) {
+        this.env = env;
+        this.meterRegistry = meterRegistry;
+        defaultTtlSeconds = env.getProperty("database.cache.ttl-seconds", Long.class, 300L);
+        defaultMaximumSize = env.getProperty("database.cache.maximum-size", Long.class, 10000L);
+    }
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(CACHE_MANAGER_URI, getClass().getClassLoader());
+
+        for (String region : REGIONS) {
+            JCacheMetrics.monitor(meterRegistry, getOrCreate(cacheManager, region, regionConfiguration(region)));
+        }
+        // Query results are only discarded when they are older than this region's entries, so it must never expire.
+        getOrCreate(cacheManager, DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, configuration());
+
+        return cacheManager;
+    }
+
+    private CaffeineConfiguration<Object, Object> regionConfiguration(String region) {
+        long ttlSeconds = env.getProperty(String.format("database.cache.%s.ttl-seconds", region), Long.class, defaultTtlSeconds);
+        long maximumSize = env.getProperty(String.format("database.cache.%s.maximum-size", region), Long.class, defaultMaximumSize);
+
+        CaffeineConfiguration<Object, Object> configuration = configuration();
+        configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+
+    private static CaffeineConfiguration<Object, Object> configuration() {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        return configuration;
+    }
+
+    private static Cache<Object, Object> getOrCreate(CacheManager cacheManager, String region,
+                                                     CaffeineConfiguration<Object, Object> configuration) {
+        Cache<Object, Object> cache = cacheManager.getCache(region);
+        return cache != null ? cache : cacheManager.createCache(region, configuration);
+    }
+}
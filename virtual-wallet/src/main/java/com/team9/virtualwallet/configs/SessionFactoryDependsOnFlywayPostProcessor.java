@@ -0,0 +1,15 @@
+package com.team9.virtualwallet.configs;
+
+import org.hibernate.SessionFactory;
+import org.springframework.boot.autoconfigure.AbstractDependsOnBeanFactoryPostProcessor;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.orm.hibernate5.LocalSessionFactoryBean;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SessionFactoryDependsOnFlywayPostProcessor extends AbstractDependsOnBeanFactoryPostProcessor {
+
+    public SessionFactoryDependsOnFlywayPostProcessor() {
+        super(SessionFactory.class, LocalSessionFactoryBean.class, FlywayMigrationInitializer.class);
+    }
+}
@@ -3,15 +3,22 @@ package com.team9.virtualwallet.controllers;
 import com.team9.virtualwallet.exceptions.AuthenticationFailureException;
 import com.team9.virtualwallet.exceptions.EntityNotFoundException;
 import com.team9.virtualwallet.exceptions.UnauthorizedOperationException;
+import com.team9.virtualwallet.models.SessionUser;
 import com.team9.virtualwallet.models.User;
+import com.team9.virtualwallet.services.cache.AuthenticatedUserCache;
 import com.team9.virtualwallet.services.contracts.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import javax.servlet.http.HttpSession;
+import java.util.Optional;
 
+import static com.team9.virtualwallet.configs.ApplicationConstants.CURRENT_USER_REQUEST_KEY;
 import static com.team9.virtualwallet.configs.ApplicationConstants.CURRENT_USER_SESSION_KEY;
+import static com.team9.virtualwallet.configs.ApplicationConstants.CURRENT_USER_SNAPSHOT_SESSION_KEY;
 
 @Component
 public class AuthenticationHelper {
@@ -21,10 +28,12 @@ public class AuthenticationHelper {
     public static final String AUTHENTICATION_FAILURE_MESSAGE = "Wrong username or password.";
 
     private final UserService userService;
+    private final AuthenticatedUserCache authenticatedUserCache;
 
     @Autowired
-    public AuthenticationHelper(UserService userService) {
+    public AuthenticationHelper(UserService userService, AuthenticatedUserCache authenticatedUserCache) {
         this.userService = userService;
+        this.authenticatedUserCache = authenticatedUserCache;
     }
 
     public User tryGetUser(HttpHeaders headers) {
@@ -34,6 +43,11 @@ public class AuthenticationHelper {
 
         String username = headers.getFirst(AUTHORIZATION_HEADER_USERNAME);
         String password = headers.getFirst(AUTHORIZATION_HEADER_PASSWORD);
+        Optional<SessionUser> cachedUser = authenticatedUserCache.get(username, password);
+        if (cachedUser.isPresent()) {
+            return userService.getReference(cachedUser.get().getUserId());
+        }
+
         User user = userService.getByUsername(username);
 
         if (!user.getPassword().equals(password)) {
@@ -44,20 +58,34 @@ public class AuthenticationHelper {
             throw new UnauthorizedOperationException("You have deleted your account!");
         }
 
+        authenticatedUserCache.put(username, password, user);
         return user;
     }
 
     public User tryGetUser(HttpSession session) {
-        if (session.getAttribute(CURRENT_USER_SESSION_KEY) == null) {
+        String currentUser = (String) session.getAttribute(CURRENT_USER_SESSION_KEY);
+        if (currentUser == null) {
             throw new AuthenticationFailureException("No user logged in!");
         }
 
-        try {
-            String currentUser = (String) session.getAttribute("currentUser");
-            return userService.getByUsername(currentUser);
-        } catch (EntityNotFoundException e) {
-            throw new AuthenticationFailureException("No such user.");
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            User requestUser = (User) request.getAttribute(CURRENT_USER_REQUEST_KEY, RequestAttributes.SCOPE_REQUEST);
+            if (requestUser != null && requestUser.getUsername().equals(currentUser)) {
+                return requestUser;
+            }
         }
+
+        User user = loadSnapshot(session, currentUser);
+        if (request != null) {
+            request.setAttribute(CURRENT_USER_REQUEST_KEY, user, RequestAttributes.SCOPE_REQUEST);
+        }
+        return user;
+    }
+
+    public void clearSession(HttpSession session) {
+        session.removeAttribute(CURRENT_USER_SESSION_KEY);
+        session.removeAttribute(CURRENT_USER_SNAPSHOT_SESSION_KEY);
     }
 
     public User verifyAuthentication(String username, String password) {
@@ -72,4 +100,21 @@ public class AuthenticationHelper {
 
         }
     }
+
+    private User loadSnapshot(HttpSession session, String username) {
+        SessionUser sessionUser = (SessionUser) session.getAttribute(CURRENT_USER_SNAPSHOT_SESSION_KEY);
+        if (sessionUser != null && sessionUser.getUsername().equals(username)) {
+            // Whatever the page reads comes from the current row, so there is no version to compare.
+            return userService.getReference(sessionUser.getUserId());
+        }
+
+        try {
+            User user = userService.getByUsername(username);
+            session.setAttribute(CURRENT_USER_SNAPSHOT_SESSION_KEY, SessionUser.of(user));
+            return user;
+        } catch (EntityNotFoundException e) {
+            session.removeAttribute(CURRENT_USER_SNAPSHOT_SESSION_KEY);
+            throw new AuthenticationFailureException("No such user.");
+        }
+    }
 }
@@ -68,7 +68,7 @@ public class AuthenticationController {
 
     @GetMapping("/logout")
     public String handleLogout(HttpSession session) {
-        session.removeAttribute(CURRENT_USER_SESSION_KEY);
+        authenticationHelper.clearSession(session);
         return "redirect:/";
     }
 
@@ -21,8 +21,6 @@ import org.springframework.web.multipart.MultipartFile;
 import javax.servlet.http.HttpSession;
 import javax.validation.Valid;
 
-import static com.team9.virtualwallet.configs.ApplicationConstants.CURRENT_USER_SESSION_KEY;
-
 @Controller
 public class ProfileMvcController extends BaseAuthenticationController {
 
@@ -160,7 +158,7 @@ public class ProfileMvcController extends BaseAuthenticationController {
             User user = authenticationHelper.tryGetUser(session);
 
             service.delete(user);
-            session.removeAttribute(CURRENT_USER_SESSION_KEY);
+            authenticationHelper.clearSession(session);
             return "redirect:/";
         } catch (AuthenticationFailureException e) {
             return LOGIN_REDIRECT_CONSTANT;
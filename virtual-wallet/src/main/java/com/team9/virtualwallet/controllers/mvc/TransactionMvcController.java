@@ -11,6 +11,7 @@ import com.team9.virtualwallet.models.User;
 import com.team9.virtualwallet.models.dtos.ExternalTransactionDto;
 import com.team9.virtualwallet.models.dtos.MoveToWalletTransactionDto;
 import com.team9.virtualwallet.models.dtos.TransactionDto;
+import com.team9.virtualwallet.models.dtos.TransactionHistoryDto;
 import com.team9.virtualwallet.models.enums.Direction;
 import com.team9.virtualwallet.models.enums.Sort;
 import com.team9.virtualwallet.services.contracts.*;
@@ -31,7 +32,6 @@ import java.util.List;
 import java.util.Optional;
 
 import static com.team9.virtualwallet.configs.ApplicationConstants.LARGE_TRANSACTION_AMOUNT;
-import static com.team9.virtualwallet.utils.DummyHelper.validateDummy;
 
 @Controller
 @RequestMapping("/panel/transactions")
@@ -81,11 +81,11 @@ public class TransactionMvcController extends BaseAuthenticationController {
                                        @RequestParam(name = "counterparty", required = false) Optional<String> counterparty) {
         try {
             User user = authenticationHelper.tryGetUser(session);
-            Pages<Transaction> transactions;
+            Pages<TransactionHistoryDto> transactions;
             if (direction.isEmpty() && startDate.isEmpty() && endDate.isEmpty() && counterparty.isEmpty()) {
-                transactions = service.getAll(user, pageable);
+                transactions = service.getHistory(user, pageable);
             } else {
-                transactions = service.filter(user,
+                transactions = service.filterHistory(user,
                         direction.filter(s -> !s.equals("-1")).map(Direction::getEnum),
                         startDate,
                         endDate,
@@ -98,8 +98,6 @@ public class TransactionMvcController extends BaseAuthenticationController {
             model.addAttribute("transactionsExist", !transactions.getContent().isEmpty());
             model.addAttribute("pagination", transactions);
             model.addAttribute("pages", transactions.getTotalPages());
-            model.addAttribute("cardService", cardService);
-            model.addAttribute("walletService", walletService);
             return "transactions";
         } catch (AuthenticationFailureException e) {
             return LOGIN_REDIRECT_CONSTANT;
@@ -232,7 +230,6 @@ public class TransactionMvcController extends BaseAuthenticationController {
             if (result.hasErrors()) {
                 return "transaction-deposit-create";
             }
-            validateDummy();
             Transaction transaction = modelMapper.fromExternalDepositDto(user, externalTransactionDto);
             service.createExternalDeposit(transaction);
             return "redirect:/panel/transactions";
@@ -275,7 +272,6 @@ public class TransactionMvcController extends BaseAuthenticationController {
             if (result.hasErrors()) {
                 return "transaction-withdraw-create";
             }
-            validateDummy();
             Transaction transaction = modelMapper.fromExternalWithdrawDto(user, externalTransactionDto);
             service.createExternalWithdraw(transaction);
             return "redirect:/panel/transactions";
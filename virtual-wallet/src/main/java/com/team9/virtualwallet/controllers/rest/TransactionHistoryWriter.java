@@ -0,0 +1,93 @@
+package com.team9.virtualwallet.controllers.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.team9.virtualwallet.models.dtos.TransactionHistoryDto;
+import com.team9.virtualwallet.models.enums.ExportFormat;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class TransactionHistoryWriter implements Consumer<List<TransactionHistoryDto>>, Flushable {
+
+    private static final String CSV_HEADER = "id,timestamp,amount,description,type,status," +
+            "sender,sender_payment_method,recipient,recipient_payment_method";
+
+    private final ExportFormat format;
+    private final Writer writer;
+    private final ObjectWriter jsonWriter;
+
+    public TransactionHistoryWriter(ExportFormat format, OutputStream out, ObjectMapper objectMapper) {
+        this.format = format;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        this.jsonWriter = objectMapper.writerFor(TransactionHistoryDto.class);
+        if (format == ExportFormat.CSV) {
+            writeLine(CSV_HEADER);
+        }
+    }
+
+    // Flushing after every chunk hands rows to the client as they are read instead of buffering the export.
+    @Override
+    public void accept(List<TransactionHistoryDto> transactions) {
+        for (TransactionHistoryDto transaction : transactions) {
+            writeLine(format == ExportFormat.CSV ? toCsv(transaction) : toJson(transaction));
+        }
+        flush();
+    }
+
+    @Override
+    public void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeLine(String line) {
+        try {
+            writer.write(line);
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String toJson(TransactionHistoryDto transaction) {
+        try {
+            return jsonWriter.writeValueAsString(transaction);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String toCsv(TransactionHistoryDto transaction) {
+        return String.join(",",
+                String.valueOf(transaction.getId()),
+                transaction.getTimestamp(),
+                transaction.getAmount().toPlainString(),
+                csvText(transaction.getDescription()),
+                String.valueOf(transaction.getTransactionType()),
+                String.valueOf(transaction.getStatus()),
+                csvText(transaction.getSenderUsername()),
+                csvText(transaction.getSenderPaymentMethodName()),
+                csvText(transaction.getRecipientUsername()),
+                csvText(transaction.getRecipientPaymentMethodName()));
+    }
+
+    private static String csvText(String value) {
+        if (value == null) {
+            return "";
+        }
+        // Spreadsheets evaluate cells starting with these characters as formulas.
+        if (!value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+}
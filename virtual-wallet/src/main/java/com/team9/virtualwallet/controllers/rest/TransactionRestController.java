@@ -1,29 +1,49 @@
 package com.team9.virtualwallet.controllers.rest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.team9.virtualwallet.controllers.AuthenticationHelper;
+import com.team9.virtualwallet.models.CursorPage;
+import com.team9.virtualwallet.models.MonthlyStatement;
+import com.team9.virtualwallet.models.Pages;
+import com.team9.virtualwallet.models.PayoutBatch;
 import com.team9.virtualwallet.models.Transaction;
 import com.team9.virtualwallet.models.User;
 import com.team9.virtualwallet.models.dtos.ExternalTransactionDto;
 import com.team9.virtualwallet.models.dtos.MoveToWalletTransactionDto;
+import com.team9.virtualwallet.models.dtos.PayoutBatchDto;
 import com.team9.virtualwallet.models.dtos.TransactionDto;
+import com.team9.virtualwallet.models.dtos.TransactionHistoryDto;
 import com.team9.virtualwallet.models.enums.Direction;
+import com.team9.virtualwallet.models.enums.ExportFormat;
 import com.team9.virtualwallet.models.enums.Sort;
+import com.team9.virtualwallet.models.enums.TransactionStatus;
+import com.team9.virtualwallet.services.cache.IdempotencyKeyStore;
+import com.team9.virtualwallet.services.contracts.StatementService;
 import com.team9.virtualwallet.services.contracts.TransactionService;
 import com.team9.virtualwallet.services.mappers.TransactionModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.time.YearMonth;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
+import static com.team9.virtualwallet.configs.ApplicationConstants.IDEMPOTENCY_KEY_HEADER;
+import static com.team9.virtualwallet.configs.ApplicationConstants.NEXT_PAGE_TOKEN_HEADER;
+import static com.team9.virtualwallet.configs.ApplicationConstants.TOTAL_COUNT_HEADER;
 import static com.team9.virtualwallet.configs.RestResponseEntityExceptionHandler.checkFields;
-import static com.team9.virtualwallet.utils.DummyHelper.validateDummy;
+import static com.team9.virtualwallet.services.utils.MessageConstants.PAGE_TOKEN_WITH_AMOUNT_SORT_MESSAGE;
 
 @RestController
 @RequestMapping("/api/transactions")
@@ -32,21 +52,34 @@ public class TransactionRestController {
     private final TransactionService service;
     private final AuthenticationHelper authenticationHelper;
     private final TransactionModelMapper modelMapper;
+    private final IdempotencyKeyStore idempotencyKeyStore;
+    private final ObjectMapper objectMapper;
+    private final StatementService statementService;
 
     @Autowired
     public TransactionRestController(TransactionService service,
-                                     AuthenticationHelper authenticationHelper, TransactionModelMapper modelMapper) {
+                                     AuthenticationHelper authenticationHelper, TransactionModelMapper modelMapper,
+                                     IdempotencyKeyStore idempotencyKeyStore, ObjectMapper objectMapper,
+                                     StatementService statementService) {
         this.service = service;
         this.authenticationHelper = authenticationHelper;
         this.modelMapper = modelMapper;
+        this.idempotencyKeyStore = idempotencyKeyStore;
+        this.objectMapper = objectMapper;
+        this.statementService = statementService;
     }
 
     @GetMapping
-    public List<Transaction> getAll(@RequestHeader HttpHeaders headers,
-                                    @PageableDefault(page = 1) Pageable pageable) {
+    public ResponseEntity<List<TransactionHistoryDto>> getAll(@RequestHeader HttpHeaders headers,
+                                                              @PageableDefault(page = 1) Pageable pageable,
+                                                              @RequestParam(required = false) Optional<String> pageToken,
+                                                              @RequestParam(defaultValue = "false") boolean includeTotal) {
         User user = authenticationHelper.tryGetUser(headers);
 
-        return service.getAll(user, pageable).getContent();
+        if (pageToken.isEmpty() && pageable.getPageNumber() > 1) {
+            return toResponse(service.getHistory(user, pageable));
+        }
+        return toResponse(service.getHistory(user, pageToken, pageable.getPageSize(), includeTotal));
     }
 
     @GetMapping("/{id}")
@@ -56,16 +89,35 @@ public class TransactionRestController {
         return service.getById(user, id);
     }
 
+    @GetMapping("/{id}/status")
+    public TransactionStatus getStatus(@RequestHeader HttpHeaders headers, @PathVariable int id) {
+        User user = authenticationHelper.tryGetUser(headers);
+
+        return service.getById(user, id).getStatus();
+    }
+
     @PostMapping
     public Transaction create(@RequestHeader HttpHeaders headers, @RequestBody @Valid TransactionDto transactionDto, BindingResult result, @RequestParam(required = false) Optional<Integer> categoryId) {
         checkFields(result);
 
         User user = authenticationHelper.tryGetUser(headers);
 
-        Transaction transaction = modelMapper.fromDto(user, transactionDto);
-        service.create(transaction, categoryId);
+        return idempotencyKeyStore.execute(user, idempotencyKey(headers), "create",
+                new Object[]{transactionDto, categoryId.orElse(null)}, () -> {
+                    Transaction transaction = modelMapper.fromDto(user, transactionDto);
+                    service.create(transaction, categoryId);
+                    return transaction;
+                }, id -> service.getById(user, id));
+    }
+
+    @PostMapping("/batch")
+    public PayoutBatch createBatch(@RequestHeader HttpHeaders headers, @RequestBody @Valid PayoutBatchDto payoutBatchDto, BindingResult result) {
+        checkFields(result);
+
+        User user = authenticationHelper.tryGetUser(headers);
 
-        return transaction;
+        PayoutBatch batch = modelMapper.fromPayoutDto(user, payoutBatchDto);
+        return service.createPayoutBatch(user, batch);
     }
 
     @PostMapping("/internal/move")
@@ -74,54 +126,118 @@ public class TransactionRestController {
 
         User user = authenticationHelper.tryGetUser(headers);
 
-        Transaction transaction = modelMapper.fromDtoMoveToWallet(user, moveToWalletTransactionDto);
-        service.createWalletToWallet(transaction);
-
-        return transaction;
+        return idempotencyKeyStore.execute(user, idempotencyKey(headers), "move", moveToWalletTransactionDto, () -> {
+            Transaction transaction = modelMapper.fromDtoMoveToWallet(user, moveToWalletTransactionDto);
+            service.createWalletToWallet(transaction);
+            return transaction;
+        }, id -> service.getById(user, id));
     }
 
     @PostMapping("/external/deposit")
+    @ResponseStatus(HttpStatus.ACCEPTED)
     public Transaction createExternalDeposit(@RequestHeader HttpHeaders headers, @RequestBody @Valid ExternalTransactionDto externalTransactionDto, BindingResult result, @RequestParam(required = false) Optional<Integer> categoryId) {
         checkFields(result);
 
         User user = authenticationHelper.tryGetUser(headers);
 
-        validateDummy();
-        Transaction transaction = modelMapper.fromExternalDepositDto(user, externalTransactionDto);
-        service.createExternalDeposit(transaction);
-
-        return transaction;
+        return idempotencyKeyStore.execute(user, idempotencyKey(headers), "deposit", externalTransactionDto, () -> {
+            Transaction transaction = modelMapper.fromExternalDepositDto(user, externalTransactionDto);
+            service.createExternalDeposit(transaction);
+            return transaction;
+        }, id -> service.getById(user, id));
     }
 
     @PostMapping("/external/withdraw")
+    @ResponseStatus(HttpStatus.ACCEPTED)
     public Transaction createExternalWithdraw(@RequestHeader HttpHeaders headers, @RequestBody @Valid ExternalTransactionDto externalTransactionDto, BindingResult result, @RequestParam(required = false) Optional<Integer> categoryId) {
         checkFields(result);
 
         User user = authenticationHelper.tryGetUser(headers);
 
-        validateDummy();
-        Transaction transaction = modelMapper.fromExternalWithdrawDto(user, externalTransactionDto);
-        service.createExternalWithdraw(transaction);
-
-        return transaction;
+        return idempotencyKeyStore.execute(user, idempotencyKey(headers), "withdraw", externalTransactionDto, () -> {
+            Transaction transaction = modelMapper.fromExternalWithdrawDto(user, externalTransactionDto);
+            service.createExternalWithdraw(transaction);
+            return transaction;
+        }, id -> service.getById(user, id));
     }
 
     @GetMapping("/filter")
-    public List<Transaction> filter(@RequestHeader HttpHeaders headers,
-                                    @PageableDefault(page = 1) Pageable pageable,
-                                    @RequestParam(required = false)
-                                            Optional<Direction> direction,
-                                    Optional<Date> startDate,
-                                    Optional<Date> endDate,
-                                    Optional<String> username,
-                                    Optional<Sort> amount,
-                                    Optional<Sort> date) {
+    public ResponseEntity<List<TransactionHistoryDto>> filter(@RequestHeader HttpHeaders headers,
+                                                              @PageableDefault(page = 1) Pageable pageable,
+                                                              @RequestParam(required = false)
+                                                                      Optional<Direction> direction,
+                                                              Optional<Date> startDate,
+                                                              Optional<Date> endDate,
+                                                              Optional<String> username,
+                                                              Optional<Sort> amount,
+                                                              Optional<Sort> date,
+                                                              Optional<String> pageToken,
+                                                              @RequestParam(defaultValue = "false") boolean includeTotal) {
 
         User user = authenticationHelper.tryGetUser(headers);
 
-        return service.filter(user, direction, startDate, endDate, username, amount, date, pageable).getContent();
+        // Cursor pages are keyed on date, so an amount ordering can only be served by page number.
+        if (amount.isPresent() && pageToken.isPresent()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, PAGE_TOKEN_WITH_AMOUNT_SORT_MESSAGE);
+        }
+        if (amount.isPresent() || (pageToken.isEmpty() && pageable.getPageNumber() > 1)) {
+            return toResponse(service.filterHistory(user, direction, startDate, endDate, username, amount, date, pageable));
+        }
+        return toResponse(service.filterHistory(user, direction, startDate, endDate, username, date, pageToken, pageable.getPageSize(), includeTotal));
     }
 
-}
+    @GetMapping("/export")
+    public void export(@RequestHeader HttpHeaders headers,
+                       @RequestParam(defaultValue = "CSV") ExportFormat format,
+                       @RequestParam(required = false)
+                               Optional<Direction> direction,
+                       Optional<Date> startDate,
+                       Optional<Date> endDate,
+                       Optional<String> username,
+                       Optional<Sort> amount,
+                       Optional<Sort> date,
+                       HttpServletResponse response) throws IOException {
+
+        User user = authenticationHelper.tryGetUser(headers);
 
+        response.setContentType(format.getMediaType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"transactions." + format.getExtension() + "\"");
 
+        TransactionHistoryWriter writer = new TransactionHistoryWriter(format, response.getOutputStream(), objectMapper);
+        service.exportHistory(user, direction, startDate, endDate, username, amount, date, writer);
+        writer.flush();
+    }
+
+    @GetMapping("/statements")
+    public List<MonthlyStatement> getStatements(@RequestHeader HttpHeaders headers) {
+        User user = authenticationHelper.tryGetUser(headers);
+
+        return statementService.getAll(user);
+    }
+
+    @GetMapping("/statements/{month}")
+    public MonthlyStatement getStatement(@RequestHeader HttpHeaders headers, @PathVariable YearMonth month) {
+        User user = authenticationHelper.tryGetUser(headers);
+
+        return statementService.getByMonth(user, month);
+    }
+
+    private ResponseEntity<List<TransactionHistoryDto>> toResponse(Pages<TransactionHistoryDto> page) {
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(page.getTotal()))
+                .body(page.getContent());
+    }
+
+    private ResponseEntity<List<TransactionHistoryDto>> toResponse(CursorPage<TransactionHistoryDto> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        page.getNextPageToken().ifPresent(token -> response.header(NEXT_PAGE_TOKEN_HEADER, token));
+        page.getTotal().ifPresent(total -> response.header(TOTAL_COUNT_HEADER, String.valueOf(total)));
+        return response.body(page.getContent());
+    }
+
+    private static Optional<String> idempotencyKey(HttpHeaders headers) {
+        return Optional.ofNullable(headers.getFirst(IDEMPOTENCY_KEY_HEADER));
+    }
+}
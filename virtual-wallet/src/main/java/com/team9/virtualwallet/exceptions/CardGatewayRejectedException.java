@@ -0,0 +1,8 @@
+package com.team9.virtualwallet.exceptions;
+
+public class CardGatewayRejectedException extends RuntimeException {
+
+    public CardGatewayRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.team9.virtualwallet.exceptions;
+
+public class CardGatewayUnavailableException extends RuntimeException {
+
+    public CardGatewayUnavailableException(String message) {
+        super(message);
+    }
+
+    public CardGatewayUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,8 @@
+package com.team9.virtualwallet.exceptions;
+
+public class SettlementBacklogFullException extends RuntimeException {
+
+    public SettlementBacklogFullException(String message) {
+        super(message);
+    }
+}
@@ -1,12 +1,18 @@
 package com.team9.virtualwallet.models;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 
+import static com.team9.virtualwallet.configs.ApplicationConstants.CARD_CACHE_REGION;
+
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CARD_CACHE_REGION)
 @Table(name = "cards")
 public class Card {
 
@@ -70,6 +76,10 @@ public class Card {
     }
 
     public String getMaskedCardNumber() {
+        return maskCardNumber(cardNumber);
+    }
+
+    public static String maskCardNumber(String cardNumber) {
         StringBuilder maskedNumber = new StringBuilder();
         String mask = "xxxx-xxxx-xxxx-####";
         int index = 0;
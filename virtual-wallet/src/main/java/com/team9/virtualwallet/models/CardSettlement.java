@@ -0,0 +1,143 @@
+package com.team9.virtualwallet.models;
+
+import com.team9.virtualwallet.models.enums.TransactionStatus;
+import com.team9.virtualwallet.models.enums.TransactionType;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+@Entity
+@Table(name = "card_settlements")
+public class CardSettlement {
+
+    @Id
+    @Column(name = "transaction_id")
+    private int transactionId;
+
+    @Column(name = "wallet_id")
+    private int walletId;
+
+    @Column(name = "amount")
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transaction_type")
+    private TransactionType transactionType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private TransactionStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "gateway_outcome")
+    private TransactionStatus gatewayOutcome;
+
+    @Column(name = "attempts")
+    private int attempts;
+
+    @Column(name = "available_at")
+    private Timestamp availableAt;
+
+    @Column(name = "locked_until")
+    private Timestamp lockedUntil;
+
+    @Column(name = "failure_reason")
+    private String failureReason;
+
+    public CardSettlement() {
+    }
+
+    public CardSettlement(Transaction transaction, Wallet wallet) {
+        this.transactionId = transaction.getId();
+        this.walletId = wallet.getId();
+        this.amount = transaction.getAmount();
+        this.transactionType = transaction.getTransactionType();
+        this.status = TransactionStatus.PENDING;
+        this.availableAt = new Timestamp(System.currentTimeMillis());
+    }
+
+    public int getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(int transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public int getWalletId() {
+        return walletId;
+    }
+
+    public void setWalletId(int walletId) {
+        this.walletId = walletId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public TransactionType getTransactionType() {
+        return transactionType;
+    }
+
+    public void setTransactionType(TransactionType transactionType) {
+        this.transactionType = transactionType;
+    }
+
+    public TransactionStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(TransactionStatus status) {
+        this.status = status;
+    }
+
+    public TransactionStatus getGatewayOutcome() {
+        return gatewayOutcome;
+    }
+
+    public void setGatewayOutcome(TransactionStatus gatewayOutcome) {
+        this.gatewayOutcome = gatewayOutcome;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Timestamp getAvailableAt() {
+        return availableAt;
+    }
+
+    public void setAvailableAt(Timestamp availableAt) {
+        this.availableAt = availableAt;
+    }
+
+    public Timestamp getLockedUntil() {
+        return lockedUntil;
+    }
+
+    public void setLockedUntil(Timestamp lockedUntil) {
+        this.lockedUntil = lockedUntil;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    public void setFailureReason(String failureReason) {
+        this.failureReason = failureReason;
+    }
+
+    public boolean isDeposit() {
+        return transactionType == TransactionType.CARD_TO_WALLET;
+    }
+}
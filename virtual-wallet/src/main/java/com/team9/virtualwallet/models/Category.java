@@ -1,11 +1,30 @@
 package com.team9.virtualwallet.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import java.util.HashSet;
 import java.util.Set;
 
+import static com.team9.virtualwallet.configs.ApplicationConstants.CATEGORY_CACHE_REGION;
+
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CATEGORY_CACHE_REGION)
 @Table(name = "categories")
+@NamedEntityGraph(name = "Category.summary",
+        attributeNodes = @NamedAttributeNode(value = "user", subgraph = "owner"),
+        subgraphs = @NamedSubgraph(name = "owner", attributeNodes = @NamedAttributeNode("defaultWallet")))
+@NamedEntityGraph(name = "Category.transactions",
+        attributeNodes = {
+                @NamedAttributeNode(value = "user", subgraph = "owner"),
+                @NamedAttributeNode("transactions")
+        },
+        subgraphs = @NamedSubgraph(name = "owner", attributeNodes = @NamedAttributeNode("defaultWallet")))
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Category {
 
     @Id
@@ -20,7 +39,8 @@ public class Category {
     @JoinColumn(name = "user_id")
     private User user;
 
-    @OneToMany(fetch = FetchType.EAGER)
+    @JsonIgnore
+    @OneToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "category_transactions",
             joinColumns = @JoinColumn(name = "category_id"),
@@ -0,0 +1,35 @@
+package com.team9.virtualwallet.models;
+
+import java.util.List;
+import java.util.Optional;
+
+public class CursorPage<T> {
+
+    private final List<T> content;
+
+    private final String nextPageToken;
+
+    private final Long total;
+
+    public CursorPage(List<T> content, String nextPageToken, Long total) {
+        this.content = content;
+        this.nextPageToken = nextPageToken;
+        this.total = total;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public Optional<String> getNextPageToken() {
+        return Optional.ofNullable(nextPageToken);
+    }
+
+    public Optional<Long> getTotal() {
+        return Optional.ofNullable(total);
+    }
+
+    public boolean hasNext() {
+        return nextPageToken != null;
+    }
+}
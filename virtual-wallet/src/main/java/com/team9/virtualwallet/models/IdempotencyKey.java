@@ -0,0 +1,87 @@
+package com.team9.virtualwallet.models;
+
+import javax.persistence.*;
+import java.sql.Timestamp;
+
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyKey {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "idempotency_key_id")
+    private long id;
+
+    @Column(name = "user_id")
+    private int userId;
+
+    @Column(name = "idempotency_key")
+    private String requestKey;
+
+    @Column(name = "fingerprint")
+    private String fingerprint;
+
+    @Column(name = "transaction_id")
+    private Integer transactionId;
+
+    @Column(name = "expires_at")
+    private Timestamp expiresAt;
+
+    public IdempotencyKey() {
+    }
+
+    public IdempotencyKey(int userId, String requestKey, String fingerprint, Timestamp expiresAt) {
+        this.userId = userId;
+        this.requestKey = requestKey;
+        this.fingerprint = fingerprint;
+        this.expiresAt = expiresAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    public String getRequestKey() {
+        return requestKey;
+    }
+
+    public void setRequestKey(String requestKey) {
+        this.requestKey = requestKey;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public Integer getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(Integer transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public Timestamp getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Timestamp expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,80 @@
+package com.team9.virtualwallet.models;
+
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+@Entity
+@Immutable
+@Table(name = "ledger_entries")
+public class LedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "entry_id")
+    private long id;
+
+    @Column(name = "wallet_id")
+    private int walletId;
+
+    @Column(name = "transaction_id")
+    private Integer transactionId;
+
+    @Column(name = "payout_batch_id")
+    private Integer payoutBatchId;
+
+    @Column(name = "payout_recipient_id")
+    private Integer payoutRecipientId;
+
+    @Column(name = "amount")
+    private BigDecimal amount;
+
+    @Column(name = "created_at")
+    private Timestamp createdAt;
+
+    public LedgerEntry() {
+    }
+
+    public LedgerEntry(int walletId, Integer transactionId, BigDecimal amount) {
+        this.walletId = walletId;
+        this.transactionId = transactionId;
+        this.amount = amount;
+        this.createdAt = new Timestamp(System.currentTimeMillis());
+    }
+
+    public LedgerEntry(int walletId, Integer transactionId, BigDecimal amount, int payoutBatchId, Integer payoutRecipientId) {
+        this(walletId, transactionId, amount);
+        this.payoutBatchId = payoutBatchId;
+        this.payoutRecipientId = payoutRecipientId;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public int getWalletId() {
+        return walletId;
+    }
+
+    public Integer getTransactionId() {
+        return transactionId;
+    }
+
+    public Integer getPayoutBatchId() {
+        return payoutBatchId;
+    }
+
+    public Integer getPayoutRecipientId() {
+        return payoutRecipientId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public Timestamp getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,99 @@
+package com.team9.virtualwallet.models;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Entity
+@Immutable
+@Table(name = "monthly_statements")
+public class MonthlyStatement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "statement_id")
+    private long id;
+
+    @Column(name = "user_id")
+    private int userId;
+
+    @JsonFormat(pattern = "yyyy-MM")
+    @Column(name = "statement_month")
+    private LocalDate month;
+
+    @Column(name = "opening_balance")
+    private BigDecimal openingBalance;
+
+    @Column(name = "incoming")
+    private BigDecimal incoming;
+
+    @Column(name = "outgoing")
+    private BigDecimal outgoing;
+
+    @Column(name = "closing_balance")
+    private BigDecimal closingBalance;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private Timestamp createdAt;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "monthly_statement_categories", joinColumns = @JoinColumn(name = "statement_id"))
+    @OrderBy("categoryId")
+    private List<StatementCategoryTotal> categoryTotals = new ArrayList<>();
+
+    public MonthlyStatement() {
+    }
+
+    public MonthlyStatement(int userId, LocalDate month, BigDecimal openingBalance, BigDecimal incoming,
+                            BigDecimal outgoing, List<StatementCategoryTotal> categoryTotals) {
+        this.userId = userId;
+        this.month = month;
+        this.openingBalance = openingBalance;
+        this.incoming = incoming;
+        this.outgoing = outgoing;
+        this.closingBalance = openingBalance.add(incoming).subtract(outgoing);
+        this.categoryTotals = categoryTotals;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public LocalDate getMonth() {
+        return month;
+    }
+
+    public BigDecimal getOpeningBalance() {
+        return openingBalance;
+    }
+
+    public BigDecimal getIncoming() {
+        return incoming;
+    }
+
+    public BigDecimal getOutgoing() {
+        return outgoing;
+    }
+
+    public BigDecimal getClosingBalance() {
+        return closingBalance;
+    }
+
+    public Timestamp getCreatedAt() {
+        return createdAt;
+    }
+
+    public List<StatementCategoryTotal> getCategoryTotals() {
+        return categoryTotals;
+    }
+}
@@ -1,11 +1,13 @@
 package com.team9.virtualwallet.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.team9.virtualwallet.models.enums.Type;
 
 import javax.persistence.*;
 
 @Entity
 @Table(name = "payment_methods")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class PaymentMethod {
 
     @Id
@@ -0,0 +1,120 @@
+package com.team9.virtualwallet.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+@Entity
+@Table(name = "payout_batches")
+public class PayoutBatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "batch_id")
+    private int id;
+
+    @JsonIgnore
+    @Column(name = "sender_id")
+    private int senderId;
+
+    @Column(name = "wallet_id")
+    private int walletId;
+
+    @Column(name = "reference")
+    private String reference;
+
+    @Column(name = "description")
+    private String description;
+
+    @Column(name = "total")
+    private BigDecimal total;
+
+    @Column(name = "created_at")
+    private Timestamp createdAt;
+
+    @JsonIgnore
+    @Column(name = "fingerprint")
+    private String fingerprint;
+
+    @Transient
+    private List<PayoutItem> items = new ArrayList<>();
+
+    public PayoutBatch() {
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public int getSenderId() {
+        return senderId;
+    }
+
+    public void setSenderId(int senderId) {
+        this.senderId = senderId;
+    }
+
+    public int getWalletId() {
+        return walletId;
+    }
+
+    public void setWalletId(int walletId) {
+        this.walletId = walletId;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    public Timestamp getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Timestamp createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public List<PayoutItem> getItems() {
+        return items;
+    }
+
+    public void setItems(List<PayoutItem> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,113 @@
+package com.team9.virtualwallet.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.team9.virtualwallet.models.enums.PayoutStatus;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+
+@Entity
+@IdClass(PayoutItemId.class)
+@Table(name = "payout_items")
+public class PayoutItem {
+
+    @JsonIgnore
+    @Id
+    @Column(name = "batch_id")
+    private int batchId;
+
+    @Id
+    @Column(name = "recipient_id")
+    private int recipientId;
+
+    @Column(name = "amount")
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private PayoutStatus status;
+
+    @Column(name = "failure_reason")
+    private String failureReason;
+
+    @Column(name = "transaction_id")
+    private Integer transactionId;
+
+    public PayoutItem() {
+    }
+
+    public PayoutItem(int recipientId, BigDecimal amount) {
+        this.recipientId = recipientId;
+        this.amount = amount;
+        this.status = PayoutStatus.PENDING;
+    }
+
+    public int getBatchId() {
+        return batchId;
+    }
+
+    public void setBatchId(int batchId) {
+        this.batchId = batchId;
+    }
+
+    public int getRecipientId() {
+        return recipientId;
+    }
+
+    public void setRecipientId(int recipientId) {
+        this.recipientId = recipientId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public PayoutStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(PayoutStatus status) {
+        this.status = status;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    public void setFailureReason(String failureReason) {
+        this.failureReason = failureReason;
+    }
+
+    public Integer getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(Integer transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    @JsonIgnore
+    public boolean isPending() {
+        return status == PayoutStatus.PENDING;
+    }
+
+    public void complete(int transactionId) {
+        this.status = PayoutStatus.COMPLETED;
+        this.transactionId = transactionId;
+    }
+
+    public void reject(String failureReason) {
+        this.status = PayoutStatus.REJECTED;
+        this.failureReason = failureReason;
+    }
+
+    public void copyResultOf(PayoutItem item) {
+        this.status = item.status;
+        this.failureReason = item.failureReason;
+        this.transactionId = item.transactionId;
+    }
+}
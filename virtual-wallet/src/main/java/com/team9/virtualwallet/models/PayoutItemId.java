@@ -0,0 +1,33 @@
+package com.team9.virtualwallet.models;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+public class PayoutItemId implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private int batchId;
+    private int recipientId;
+
+    public PayoutItemId() {
+    }
+
+    public PayoutItemId(int batchId, int recipientId) {
+        this.batchId = batchId;
+        this.recipientId = recipientId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PayoutItemId that = (PayoutItemId) o;
+        return batchId == that.batchId && recipientId == that.recipientId;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(batchId, recipientId);
+    }
+}
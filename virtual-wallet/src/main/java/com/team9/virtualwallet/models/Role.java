@@ -1,9 +1,16 @@
 package com.team9.virtualwallet.models;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import java.util.Objects;
 
+import static com.team9.virtualwallet.configs.ApplicationConstants.ROLE_CACHE_REGION;
+
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ROLE_CACHE_REGION)
 @Table(name = "roles")
 public class Role {
 
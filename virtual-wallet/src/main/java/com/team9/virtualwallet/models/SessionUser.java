@@ -0,0 +1,47 @@
+package com.team9.virtualwallet.models;
+
+import java.io.Serializable;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public final class SessionUser implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int userId;
+
+    private final String username;
+
+    private final Set<String> roleNames;
+
+    private final int version;
+
+    public SessionUser(int userId, String username, Set<String> roleNames, int version) {
+        this.userId = userId;
+        this.username = username;
+        this.roleNames = Set.copyOf(roleNames);
+        this.version = version;
+    }
+
+    public static SessionUser of(User user) {
+        return new SessionUser(user.getId(), user.getUsername(), user.getRoles().stream()
+                .map(Role::getName)
+                .collect(Collectors.toSet()), user.getVersion());
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Set<String> getRoleNames() {
+        return roleNames;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,39 @@
+package com.team9.virtualwallet.models;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.math.BigDecimal;
+
+@Embeddable
+public class StatementCategoryTotal {
+
+    @Column(name = "category_id")
+    private int categoryId;
+
+    @Column(name = "category_name")
+    private String categoryName;
+
+    @Column(name = "total")
+    private BigDecimal total;
+
+    public StatementCategoryTotal() {
+    }
+
+    public StatementCategoryTotal(int categoryId, String categoryName, BigDecimal total) {
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.total = total;
+    }
+
+    public int getCategoryId() {
+        return categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+}
@@ -1,5 +1,7 @@
 package com.team9.virtualwallet.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.team9.virtualwallet.models.enums.TransactionStatus;
 import com.team9.virtualwallet.models.enums.TransactionType;
 
 import javax.persistence.*;
@@ -9,7 +11,16 @@ import java.time.format.DateTimeFormatter;
 
 @Entity
 @Table(name = "transactions")
-public class Transaction {
+@NamedEntityGraph(name = "Transaction.details",
+        attributeNodes = {
+                @NamedAttributeNode(value = "sender", subgraph = "party"),
+                @NamedAttributeNode(value = "recipient", subgraph = "party"),
+                @NamedAttributeNode("senderPaymentMethod"),
+                @NamedAttributeNode("recipientPaymentMethod"),
+                @NamedAttributeNode("category")
+        },
+        subgraphs = @NamedSubgraph(name = "party", attributeNodes = @NamedAttributeNode("defaultWallet")))
+public class Transaction implements TransactionRecord {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -45,7 +56,7 @@ public class Transaction {
     @JoinColumn(name = "recipient_payment_method_id")
     private PaymentMethod recipientPaymentMethod;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinTable(
             name = "category_transactions",
             joinColumns = @JoinColumn(name = "transaction_id"),
@@ -53,9 +64,15 @@ public class Transaction {
     )
     private Category category;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private TransactionStatus status;
+
     public Transaction() {
+        this.status = TransactionStatus.SETTLED;
     }
 
+    @Override
     public int getId() {
         return id;
     }
@@ -70,6 +87,12 @@ public class Transaction {
         return dtf.format(timestamp.toLocalDateTime());
     }
 
+    @JsonIgnore
+    @Override
+    public Timestamp getTimestampValue() {
+        return timestamp;
+    }
+
     public void setTimestamp(Timestamp timestamp) {
         this.timestamp = timestamp;
     }
@@ -90,6 +113,7 @@ public class Transaction {
         this.recipient = recipient;
     }
 
+    @Override
     public BigDecimal getAmount() {
         return amount;
     }
@@ -137,4 +161,12 @@ public class Transaction {
     public void setCategory(Category category) {
         this.category = category;
     }
+
+    public TransactionStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(TransactionStatus status) {
+        this.status = status;
+    }
 }
@@ -0,0 +1,56 @@
+package com.team9.virtualwallet.models;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Base64;
+
+import static com.team9.virtualwallet.services.utils.MessageConstants.INVALID_PAGE_TOKEN_MESSAGE;
+
+public class TransactionCursor {
+
+    private final Timestamp timestamp;
+
+    private final int id;
+
+    public TransactionCursor(Timestamp timestamp, int id) {
+        this.timestamp = timestamp;
+        this.id = id;
+    }
+
+    public static TransactionCursor of(TransactionRecord transaction) {
+        return new TransactionCursor(transaction.getTimestampValue(), transaction.getId());
+    }
+
+    public static TransactionCursor decode(String token) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(INVALID_PAGE_TOKEN_MESSAGE, e);
+        }
+        if (parts.length != 3) {
+            throw new IllegalArgumentException(INVALID_PAGE_TOKEN_MESSAGE);
+        }
+
+        try {
+            Timestamp timestamp = new Timestamp(Long.parseLong(parts[0]));
+            timestamp.setNanos(Integer.parseInt(parts[1]));
+            return new TransactionCursor(timestamp, Integer.parseInt(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(INVALID_PAGE_TOKEN_MESSAGE, e);
+        }
+    }
+
+    public String encode() {
+        String value = timestamp.getTime() + ":" + timestamp.getNanos() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Timestamp getTimestamp() {
+        return timestamp;
+    }
+
+    public int getId() {
+        return id;
+    }
+}
@@ -0,0 +1,14 @@
+package com.team9.virtualwallet.models;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+public interface TransactionRecord {
+
+    int getId();
+
+    Timestamp getTimestampValue();
+
+    BigDecimal getAmount();
+
+}
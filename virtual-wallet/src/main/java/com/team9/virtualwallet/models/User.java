@@ -1,6 +1,8 @@
 package com.team9.virtualwallet.models;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.hibernate.annotations.BatchSize;
 
 import javax.persistence.*;
 import java.util.HashSet;
@@ -11,6 +13,16 @@ import static com.team9.virtualwallet.configs.ApplicationConstants.DEFAULT_PHOTO
 
 @Entity
 @Table(name = "users")
+@NamedEntityGraph(name = "User.account",
+        attributeNodes = {
+                @NamedAttributeNode("defaultWallet"),
+                @NamedAttributeNode("roles"),
+                @NamedAttributeNode(value = "contacts", subgraph = "contact")
+        },
+        subgraphs = @NamedSubgraph(name = "contact", attributeNodes = @NamedAttributeNode("defaultWallet")))
+@NamedEntityGraph(name = "User.summary", attributeNodes = @NamedAttributeNode("defaultWallet"))
+@BatchSize(size = 25)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class User {
 
     @Id
@@ -55,7 +67,7 @@ public class User {
     @Column(name = "selfie_photo")
     private String selfie;
 
-    @OneToOne(cascade = CascadeType.ALL)
+    @OneToOne
     @JoinColumn(name = "default_wallet_id")
     private Wallet defaultWallet;
 
@@ -64,7 +76,8 @@ public class User {
     private boolean isDeleted;
 
     @JsonIgnore
-    @ManyToMany(fetch = FetchType.EAGER)
+    @BatchSize(size = 25)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "users_roles",
             joinColumns = @JoinColumn(name = "user_id"),
@@ -73,7 +86,7 @@ public class User {
     private Set<Role> roles;
 
     @JsonIgnore
-    @OneToMany(fetch = FetchType.EAGER)
+    @OneToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "contact_list",
             joinColumns = @JoinColumn(name = "user_id"),
@@ -84,6 +97,11 @@ public class User {
     @Column(name = "invited_users")
     private int invitedUsers;
 
+    @JsonIgnore
+    @Version
+    @Column(name = "version")
+    private int version;
+
     public User() {
         this.emailVerified = false;
         this.idVerified = false;
@@ -250,6 +268,14 @@ public class User {
                 .anyMatch(role -> role.getName().equalsIgnoreCase("employee"));
     }
 
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     public Wallet getDefaultWallet() {
         return defaultWallet;
     }
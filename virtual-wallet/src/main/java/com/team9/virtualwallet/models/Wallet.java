@@ -1,12 +1,20 @@
 package com.team9.virtualwallet.models;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.math.BigDecimal;
 
+import static com.team9.virtualwallet.configs.ApplicationConstants.WALLET_CACHE_REGION;
+
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = WALLET_CACHE_REGION)
 @Table(name = "wallets")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Wallet {
 
     @Id
@@ -28,6 +36,11 @@ public class Wallet {
     @Column(name = "deleted")
     private boolean isDeleted;
 
+    @JsonIgnore
+    @Version
+    @Column(name = "version")
+    private int version;
+
     public Wallet() {
     }
 
@@ -78,4 +91,12 @@ public class Wallet {
     public void setDeleted(boolean deleted) {
         isDeleted = deleted;
     }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
 }
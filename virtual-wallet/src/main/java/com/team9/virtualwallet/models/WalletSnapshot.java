@@ -0,0 +1,53 @@
+package com.team9.virtualwallet.models;
+
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+@Entity
+@Immutable
+@Table(name = "wallet_snapshots")
+public class WalletSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "snapshot_id")
+    private long id;
+
+    @Column(name = "wallet_id")
+    private int walletId;
+
+    @Column(name = "balance")
+    private BigDecimal balance;
+
+    @Column(name = "last_entry_id")
+    private long lastEntryId;
+
+    @Column(name = "created_at")
+    private Timestamp createdAt;
+
+    public WalletSnapshot() {
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public int getWalletId() {
+        return walletId;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public long getLastEntryId() {
+        return lastEntryId;
+    }
+
+    public Timestamp getCreatedAt() {
+        return createdAt;
+    }
+}
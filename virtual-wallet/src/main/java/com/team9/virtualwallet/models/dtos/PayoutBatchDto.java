@@ -0,0 +1,63 @@
+package com.team9.virtualwallet.models.dtos;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+import static com.team9.virtualwallet.configs.ApplicationConstants.MAX_PAYOUT_ITEMS;
+
+public class PayoutBatchDto {
+
+    @NotNull(message = "You must provide a reference!")
+    @Size(min = 1, max = 64, message = "Reference must be between 1 and 64 characters long!")
+    private String reference;
+
+    @NotNull(message = "You must provide a wallet!")
+    private Integer selectedWalletId;
+
+    @NotNull(message = "You must provide a description!")
+    @Size(min = 2, max = 30, message = "Description must be between 2 and 30 characters long!")
+    private String description;
+
+    @Valid
+    @NotEmpty(message = "You must provide at least one recipient!")
+    @Size(max = MAX_PAYOUT_ITEMS, message = "A payout batch can have at most " + MAX_PAYOUT_ITEMS + " recipients!")
+    private List<PayoutItemDto> items;
+
+    public PayoutBatchDto() {
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+
+    public Integer getSelectedWalletId() {
+        return selectedWalletId;
+    }
+
+    public void setSelectedWalletId(Integer selectedWalletId) {
+        this.selectedWalletId = selectedWalletId;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public List<PayoutItemDto> getItems() {
+        return items;
+    }
+
+    public void setItems(List<PayoutItemDto> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,36 @@
+package com.team9.virtualwallet.models.dtos;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.NotNull;
+import java.math.BigDecimal;
+
+public class PayoutItemDto {
+
+    @NotNull(message = "You must provide a recipient!")
+    private Integer recipientId;
+
+    @NotNull(message = "You must provide an amount!")
+    @DecimalMin(value = "0.01", message = "Amount must be more than 0.01!")
+    @DecimalMax(value = "1000000000000", message = "Amount must be less than 1 000 000 000 000!")
+    private BigDecimal amount;
+
+    public PayoutItemDto() {
+    }
+
+    public Integer getRecipientId() {
+        return recipientId;
+    }
+
+    public void setRecipientId(Integer recipientId) {
+        this.recipientId = recipientId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+}
@@ -0,0 +1,141 @@
+package com.team9.virtualwallet.models.dtos;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.team9.virtualwallet.models.TransactionRecord;
+import com.team9.virtualwallet.models.enums.TransactionStatus;
+import com.team9.virtualwallet.models.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+
+public class TransactionHistoryDto implements TransactionRecord {
+
+    private final int id;
+
+    private final Timestamp timestamp;
+
+    private final BigDecimal amount;
+
+    private final String description;
+
+    private final TransactionType transactionType;
+
+    private final TransactionStatus status;
+
+    private final int senderId;
+
+    private final String senderUsername;
+
+    private final int recipientId;
+
+    private final String recipientUsername;
+
+    private final int senderPaymentMethodId;
+
+    private final int recipientPaymentMethodId;
+
+    private String senderPaymentMethodName;
+
+    private String recipientPaymentMethodName;
+
+    public TransactionHistoryDto(int id,
+                                 Date timestamp,
+                                 BigDecimal amount,
+                                 String description,
+                                 TransactionType transactionType,
+                                 TransactionStatus status,
+                                 int senderId,
+                                 String senderUsername,
+                                 int recipientId,
+                                 String recipientUsername,
+                                 int senderPaymentMethodId,
+                                 int recipientPaymentMethodId) {
+        this.id = id;
+        this.timestamp = timestamp instanceof Timestamp ? (Timestamp) timestamp : new Timestamp(timestamp.getTime());
+        this.amount = amount;
+        this.description = description;
+        this.transactionType = transactionType;
+        this.status = status;
+        this.senderId = senderId;
+        this.senderUsername = senderUsername;
+        this.recipientId = recipientId;
+        this.recipientUsername = recipientUsername;
+        this.senderPaymentMethodId = senderPaymentMethodId;
+        this.recipientPaymentMethodId = recipientPaymentMethodId;
+    }
+
+    @Override
+    public int getId() {
+        return id;
+    }
+
+    public String getTimestamp() {
+        DateTimeFormatter dtf = DateTimeFormatter.ofPattern("HH:mm:ss dd.MM.yyyy");
+        return dtf.format(timestamp.toLocalDateTime());
+    }
+
+    @JsonIgnore
+    @Override
+    public Timestamp getTimestampValue() {
+        return timestamp;
+    }
+
+    @Override
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public TransactionType getTransactionType() {
+        return transactionType;
+    }
+
+    public TransactionStatus getStatus() {
+        return status;
+    }
+
+    public int getSenderId() {
+        return senderId;
+    }
+
+    public String getSenderUsername() {
+        return senderUsername;
+    }
+
+    public int getRecipientId() {
+        return recipientId;
+    }
+
+    public String getRecipientUsername() {
+        return recipientUsername;
+    }
+
+    public int getSenderPaymentMethodId() {
+        return senderPaymentMethodId;
+    }
+
+    public int getRecipientPaymentMethodId() {
+        return recipientPaymentMethodId;
+    }
+
+    public String getSenderPaymentMethodName() {
+        return senderPaymentMethodName;
+    }
+
+    public void setSenderPaymentMethodName(String senderPaymentMethodName) {
+        this.senderPaymentMethodName = senderPaymentMethodName;
+    }
+
+    public String getRecipientPaymentMethodName() {
+        return recipientPaymentMethodName;
+    }
+
+    public void setRecipientPaymentMethodName(String recipientPaymentMethodName) {
+        this.recipientPaymentMethodName = recipientPaymentMethodName;
+    }
+}
@@ -0,0 +1,44 @@
+package com.team9.virtualwallet.models.enums;
+
+import com.team9.virtualwallet.exceptions.EnumNotFoundException;
+
+public enum ExportFormat {
+
+    CSV("Csv", "text/csv", "csv"),
+    NDJSON("Ndjson", "application/x-ndjson", "ndjson");
+
+    public static final String INVALID_EXPORT_FORMAT = "Export format should be CSV or NDJSON";
+
+    private final String value;
+    private final String mediaType;
+    private final String extension;
+
+    ExportFormat(String value, String mediaType, String extension) {
+        this.value = value;
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+
+    public static ExportFormat getEnum(String value) {
+        for (ExportFormat v : values())
+            if (v.getValue().equalsIgnoreCase(value)) return v;
+        throw new EnumNotFoundException(INVALID_EXPORT_FORMAT);
+    }
+}
@@ -0,0 +1,21 @@
+package com.team9.virtualwallet.models.enums;
+
+public enum FetchPlan {
+
+    USER_ACCOUNT("User.account"),
+    USER_SUMMARY("User.summary"),
+    TRANSACTION_DETAILS("Transaction.details"),
+    CATEGORY_SUMMARY("Category.summary"),
+    CATEGORY_TRANSACTIONS("Category.transactions");
+
+    private final String graphName;
+
+    FetchPlan(String graphName) {
+        this.graphName = graphName;
+    }
+
+    public String getGraphName() {
+        return graphName;
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.team9.virtualwallet.models.enums;
+
+public enum PayoutStatus {
+
+    PENDING,
+    COMPLETED,
+    REJECTED
+
+}
@@ -0,0 +1,10 @@
+package com.team9.virtualwallet.models.enums;
+
+public enum TransactionStatus {
+
+    PENDING,
+    SETTLED,
+    REJECTED,
+    DEAD
+
+}
@@ -1,48 +1,76 @@
 package com.team9.virtualwallet.repositories;
 
 import com.team9.virtualwallet.exceptions.EntityNotFoundException;
+import com.team9.virtualwallet.models.enums.FetchPlan;
 import com.team9.virtualwallet.repositories.contracts.BaseRepository;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.EntityKey;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
 import org.hibernate.query.Query;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.CacheRetrieveMode;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
+@Transactional
 public abstract class BaseRepositoryImpl<E> implements BaseRepository<E> {
 
+    private static final String FETCH_GRAPH_HINT = "javax.persistence.fetchgraph";
+    private static final String CACHE_RETRIEVE_MODE_HINT = "javax.persistence.cache.retrieveMode";
+
     private final SessionFactory sessionFactory;
     private final Class<E> clazz;
+    private final FetchPlan defaultFetchPlan;
 
     public BaseRepositoryImpl(SessionFactory sessionFactory, Class<E> clazz) {
+        this(sessionFactory, clazz, null);
+    }
+
+    public BaseRepositoryImpl(SessionFactory sessionFactory, Class<E> clazz, FetchPlan defaultFetchPlan) {
         this.sessionFactory = sessionFactory;
         this.clazz = clazz;
+        this.defaultFetchPlan = defaultFetchPlan;
     }
 
     @Override
     public List<E> getAll(Pageable pageable) {
-        try (Session session = sessionFactory.openSession()) {
-            Query<E> query = session.createQuery("from " + clazz.getSimpleName(), clazz);
-            query.setFirstResult((pageable.getPageSize() * pageable.getPageNumber()) - pageable.getPageSize());
-            query.setMaxResults(pageable.getPageSize());
-            return query.list();
-        }
+        Session session = sessionFactory.getCurrentSession();
+        Query<E> query = withFetchPlan(session, session.createQuery("from " + clazz.getSimpleName(), clazz), defaultFetchPlan);
+        query.setFirstResult((pageable.getPageSize() * pageable.getPageNumber()) - pageable.getPageSize());
+        query.setMaxResults(pageable.getPageSize());
+        return distinct(query.list());
     }
 
     @Override
     public E getById(int id) {
-        try (Session session = sessionFactory.openSession()) {
-            E obj = session.get(clazz, id);
-            if (obj == null) {
-                throw new EntityNotFoundException(clazz.getSimpleName(), id);
-            }
-            return obj;
+        return getById(id, defaultFetchPlan);
+    }
+
+    @Override
+    public E getById(int id, FetchPlan fetchPlan) {
+        Session session = sessionFactory.getCurrentSession();
+        E obj = fetchPlan == null
+                ? session.get(clazz, id)
+                : session.find(clazz, id, fetchPlanHints(session, fetchPlan));
+        if (obj == null) {
+            throw new EntityNotFoundException(clazz.getSimpleName(), id);
         }
+        return obj;
     }
 
     @Override
     public <V> E getByField(String fieldName, V value) {
-        List<E> list = getByFieldList(fieldName, value);
+        return getByField(fieldName, value, defaultFetchPlan);
+    }
+
+    @Override
+    public <V> E getByField(String fieldName, V value, FetchPlan fetchPlan) {
+        List<E> list = getByFieldList(fieldName, value, fetchPlan);
         if (list.isEmpty()) {
             throw new EntityNotFoundException(clazz.getSimpleName(), fieldName, String.valueOf(value));
         }
@@ -51,46 +79,73 @@ public abstract class BaseRepositoryImpl<E> implements BaseRepository<E> {
 
     @Override
     public <V> List<E> getByFieldList(String fieldName, V value) {
+        return getByFieldList(fieldName, value, defaultFetchPlan);
+    }
+
+    @Override
+    public <V> List<E> getByFieldList(String fieldName, V value, FetchPlan fetchPlan) {
         String query = String.format("from %s where %s = :value", clazz.getSimpleName(), fieldName);
-        try (Session session = sessionFactory.openSession()) {
-            return session.createQuery(query, clazz)
-                    .setParameter("value", value).list();
-        }
+        Session session = sessionFactory.getCurrentSession();
+        return distinct(withFetchPlan(session, session.createQuery(query, clazz), fetchPlan)
+                .setParameter("value", value).list());
     }
 
     @Override
     public <V> List<E> searchByFieldList(String fieldName, V value) {
         String query = String.format("from %s where %s like :value", clazz.getSimpleName(), fieldName);
-        try (Session session = sessionFactory.openSession()) {
-            return session.createQuery(query, clazz)
-                    .setParameter("value", "%" + value + "%").list();
-        }
+        Session session = sessionFactory.getCurrentSession();
+        return distinct(withFetchPlan(session, session.createQuery(query, clazz), defaultFetchPlan)
+                .setParameter("value", "%" + value + "%").list());
     }
 
     @Override
     public void create(E obj) {
-        try (Session session = sessionFactory.openSession()) {
-            session.beginTransaction();
-            session.save(obj);
-            session.getTransaction().commit();
-        }
+        sessionFactory.getCurrentSession().save(obj);
     }
 
     @Override
     public void update(E obj) {
-        try (Session session = sessionFactory.openSession()) {
-            session.beginTransaction();
-            session.update(obj);
-            session.getTransaction().commit();
-        }
+        saveChanges(sessionFactory.getCurrentSession(), obj);
     }
 
     @Override
     public void delete(E obj) {
-        try (Session session = sessionFactory.openSession()) {
-            session.beginTransaction();
-            session.delete(obj);
-            session.getTransaction().commit();
+        Session session = sessionFactory.getCurrentSession();
+        Object managed = managedInstance(session, obj);
+        session.delete(managed == null ? obj : managed);
+    }
+
+    // The request's session may already hold the row that a detached copy (e.g. a cached user) was taken from.
+    // Merging copies the detached state onto that instance, so its version is still checked and nothing is evicted.
+    protected void saveChanges(Session session, E obj) {
+        Object managed = managedInstance(session, obj);
+        if (managed == null || managed == obj) {
+            session.update(obj);
+        } else {
+            session.merge(obj);
         }
     }
+
+    private static Object managedInstance(Session session, Object obj) {
+        SessionImplementor source = session.unwrap(SessionImplementor.class);
+        EntityPersister persister = source.getEntityPersister(null, obj);
+        EntityKey key = source.generateEntityKey(persister.getIdentifier(obj, source), persister);
+        return source.getPersistenceContext().getEntity(key);
+    }
+
+    protected <T> Query<T> withFetchPlan(Session session, Query<T> query, FetchPlan fetchPlan) {
+        if (fetchPlan != null) {
+            query.setHint(FETCH_GRAPH_HINT, session.getEntityGraph(fetchPlan.getGraphName()));
+        }
+        return query;
+    }
+
+    private static Map<String, Object> fetchPlanHints(Session session, FetchPlan fetchPlan) {
+        return Map.of(FETCH_GRAPH_HINT, session.getEntityGraph(fetchPlan.getGraphName()),
+                CACHE_RETRIEVE_MODE_HINT, CacheRetrieveMode.BYPASS);
+    }
+
+    private static <T> List<T> distinct(List<T> results) {
+        return results.stream().distinct().collect(Collectors.toList());
+    }
 }
\ No newline at end of file
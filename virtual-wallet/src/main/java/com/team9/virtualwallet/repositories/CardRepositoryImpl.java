@@ -9,10 +9,14 @@ import org.hibernate.SessionFactory;
 import org.hibernate.query.Query;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
+import static com.team9.virtualwallet.configs.ApplicationConstants.USER_CARDS_QUERY_REGION;
+
 @Repository
+@Transactional
 public class CardRepositoryImpl extends BaseRepositoryImpl<Card> implements CardRepository {
 
     private final SessionFactory sessionFactory;
@@ -25,22 +29,22 @@ public class CardRepositoryImpl extends BaseRepositoryImpl<Card> implements Card
 
     @Override
     public List<Card> getAll(User user) {
-        try (Session session = sessionFactory.openSession()) {
-            Query<Card> query = session.createQuery("from Card where user.id = :id and isDeleted = false ", Card.class);
-            query.setParameter("id", user.getId());
-            return query.list();
-        }
+        Session session = sessionFactory.getCurrentSession();
+        Query<Card> query = session.createQuery("from Card where user.id = :id and isDeleted = false ", Card.class);
+        query.setParameter("id", user.getId());
+        query.setCacheable(true);
+        query.setCacheRegion(USER_CARDS_QUERY_REGION);
+        return query.list();
     }
 
     @Override
     public Card getById(int id) {
-        try (Session session = sessionFactory.openSession()) {
-            Card card = session.get(Card.class, id);
-            if (card == null) {
-                throw new EntityNotFoundException("Card", id);
-            }
-            return card;
+        Session session = sessionFactory.getCurrentSession();
+        Card card = session.get(Card.class, id);
+        if (card == null) {
+            throw new EntityNotFoundException("Card", id);
         }
+        return card;
     }
 
     @Override
@@ -50,11 +54,11 @@ public class CardRepositoryImpl extends BaseRepositoryImpl<Card> implements Card
     }
 
     public boolean isDuplicate(Card card) {
-        try (Session session = sessionFactory.openSession()) {
-            Query<Card> query = session.createQuery("from Card c where c.cardNumber = :cardNumber and c.isDeleted = false ", Card.class);
-            query.setParameter("cardNumber", card.getCardNumber());
-            List<Card> result = query.list();
-            return result.size() > 0;
-        }
+        Session session = sessionFactory.getCurrentSession();
+        Query<Card> query = session.createQuery("from Card c where c.cardNumber = :cardNumber and c.isDeleted = false and c.id != :id", Card.class);
+        query.setParameter("cardNumber", card.getCardNumber());
+        query.setParameter("id", card.getId());
+        List<Card> result = query.list();
+        return result.size() > 0;
     }
 }
@@ -0,0 +1,123 @@
+package com.team9.virtualwallet.repositories;
+
+import com.team9.virtualwallet.models.CardSettlement;
+import com.team9.virtualwallet.models.LedgerEntry;
+import com.team9.virtualwallet.models.Wallet;
+import com.team9.virtualwallet.models.enums.TransactionStatus;
+import com.team9.virtualwallet.repositories.contracts.CardSettlementRepository;
+import org.hibernate.LockMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.LockModeType;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static com.team9.virtualwallet.repositories.WalletRepositoryImpl.lockInIdOrder;
+
+@Repository
+@Transactional
+public class CardSettlementRepositoryImpl implements CardSettlementRepository {
+
+    private final SessionFactory sessionFactory;
+
+    @Autowired
+    public CardSettlementRepositoryImpl(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    @Override
+    public long countPending() {
+        Session session = sessionFactory.getCurrentSession();
+        return session.createQuery("select count(*) from CardSettlement where status = :status", Long.class)
+                .setParameter("status", TransactionStatus.PENDING)
+                .uniqueResult();
+    }
+
+    @Override
+    public List<CardSettlement> claim(int limit, Timestamp lockedUntil) {
+        Session session = sessionFactory.getCurrentSession();
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<CardSettlement> claimed = session.createQuery("from CardSettlement where status = :status and availableAt <= :now " +
+                        "and (lockedUntil is null or lockedUntil < :now) order by availableAt", CardSettlement.class)
+                .setParameter("status", TransactionStatus.PENDING)
+                .setParameter("now", now)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setMaxResults(limit)
+                .list();
+        claimed.forEach(settlement -> settlement.setLockedUntil(lockedUntil));
+        return claimed;
+    }
+
+    @Override
+    public void release(Collection<Integer> transactionIds) {
+        if (transactionIds.isEmpty()) {
+            return;
+        }
+        sessionFactory.getCurrentSession().createQuery("update CardSettlement set lockedUntil = null " +
+                        "where transactionId in :ids and status = :status")
+                .setParameter("status", TransactionStatus.PENDING)
+                .setParameterList("ids", transactionIds)
+                .executeUpdate();
+    }
+
+    @Override
+    public void complete(CardSettlement settlement, TransactionStatus outcome, String failureReason) {
+        Session session = sessionFactory.getCurrentSession();
+        CardSettlement locked = session.get(CardSettlement.class, settlement.getTransactionId(), LockMode.PESSIMISTIC_WRITE);
+        if (locked.getStatus() != TransactionStatus.PENDING) {
+            return;
+        }
+
+        boolean credit = outcome == TransactionStatus.SETTLED ? locked.isDeposit() : !locked.isDeposit();
+        if (credit) {
+            Wallet wallet = lockInIdOrder(session, Set.of(locked.getWalletId())).get(locked.getWalletId());
+            wallet.depositBalance(locked.getAmount());
+            session.save(new LedgerEntry(wallet.getId(), locked.getTransactionId(), locked.getAmount()));
+        }
+
+        locked.setStatus(outcome);
+        locked.setAttempts(locked.getAttempts() + 1);
+        locked.setLockedUntil(null);
+        locked.setFailureReason(failureReason);
+        // Assigning timestamp to itself stops MySQL's "on update current_timestamp()" from moving it.
+        session.createQuery("update Transaction set status = :status, timestamp = timestamp where id = :id")
+                .setParameter("status", outcome)
+                .setParameter("id", locked.getTransactionId())
+                .executeUpdate();
+    }
+
+    @Override
+    public void retry(CardSettlement settlement, Timestamp availableAt, String failureReason) {
+        Session session = sessionFactory.getCurrentSession();
+        CardSettlement locked = session.get(CardSettlement.class, settlement.getTransactionId(), LockMode.PESSIMISTIC_WRITE);
+        if (locked.getStatus() != TransactionStatus.PENDING) {
+            return;
+        }
+        locked.setGatewayOutcome(settlement.getGatewayOutcome());
+        locked.setAttempts(locked.getAttempts() + 1);
+        locked.setAvailableAt(availableAt);
+        locked.setLockedUntil(null);
+        locked.setFailureReason(failureReason);
+    }
+
+    @Override
+    public void markDead(CardSettlement settlement, String failureReason) {
+        Session session = sessionFactory.getCurrentSession();
+        CardSettlement locked = session.get(CardSettlement.class, settlement.getTransactionId(), LockMode.PESSIMISTIC_WRITE);
+        if (locked.getStatus() != TransactionStatus.PENDING) {
+            return;
+        }
+        // The transaction stays PENDING: the gateway already decided, so only an operator may settle it now.
+        locked.setGatewayOutcome(settlement.getGatewayOutcome());
+        locked.setStatus(TransactionStatus.DEAD);
+        locked.setAttempts(locked.getAttempts() + 1);
+        locked.setLockedUntil(null);
+        locked.setFailureReason(failureReason);
+    }
+}
@@ -2,74 +2,131 @@ package com.team9.virtualwallet.repositories;
 
 import com.team9.virtualwallet.models.Category;
 import com.team9.virtualwallet.models.User;
+import com.team9.virtualwallet.models.enums.FetchPlan;
 import com.team9.virtualwallet.repositories.contracts.CategoryRepository;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.query.NativeQuery;
 import org.hibernate.query.Query;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.stream.Collectors;
+
+import static com.team9.virtualwallet.configs.ApplicationConstants.USER_CATEGORIES_QUERY_REGION;
 
 @Repository
+@Transactional
 public class CategoryRepositoryImpl extends BaseRepositoryImpl<Category> implements CategoryRepository {
 
+    private static final String DAILY_TOTALS = "category_daily_totals";
+    private static final String SPENDINGS = "select sum(total) from category_daily_totals where category_id = :categoryId";
+
     private final SessionFactory sessionFactory;
 
     @Autowired
     public CategoryRepositoryImpl(SessionFactory sessionFactory) {
-        super(sessionFactory, Category.class);
+        super(sessionFactory, Category.class, FetchPlan.CATEGORY_SUMMARY);
         this.sessionFactory = sessionFactory;
     }
 
     @Override
     public List<Category> getAll(User user) {
-        try (Session session = sessionFactory.openSession()) {
-            Query<Category> query = session.createQuery("from Category where user.id = :id", Category.class);
-            query.setParameter("id", user.getId());
-            return query.list();
-        }
+        Session session = sessionFactory.getCurrentSession();
+        Query<Category> query = withFetchPlan(session, session.createQuery("from Category where user.id = :id", Category.class), FetchPlan.CATEGORY_SUMMARY);
+        query.setParameter("id", user.getId());
+        query.setCacheable(true);
+        query.setCacheRegion(USER_CATEGORIES_QUERY_REGION);
+        return query.list();
     }
 
     @Override
-    public boolean isDuplicate(User user, String name) {
-        try (Session session = sessionFactory.openSession()) {
-            Query<Category> query = session.createQuery("from Category where user.id = :id and name like :name", Category.class);
-            query.setParameter("id", user.getId());
-            query.setParameter("name", name);
-            List<Category> result = query.list();
-            return result.size() > 0;
-        }
+    public boolean isDuplicate(User user, Category category) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Category> query = session.createQuery("from Category where user.id = :id and name like :name and id != :categoryId", Category.class);
+        query.setParameter("id", user.getId());
+        query.setParameter("name", category.getName());
+        query.setParameter("categoryId", category.getId());
+        List<Category> result = query.list();
+        return result.size() > 0;
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public Object calculateSpendings(Category category, Optional<Date> startDate, Optional<Date> endDate) {
-        try (Session session = sessionFactory.openSession()) {
-            var baseQuery = "select sum(amount) from Transaction where category.id = :categoryId";
-            List<String> dates = new ArrayList<>();
+        Session session = sessionFactory.getCurrentSession();
+        NativeQuery<?> query = session.createNativeQuery(spendingsQuery(startDate.isPresent(), endDate.isPresent()));
 
-            if (startDate.isPresent()) {
-                dates.add(" timestamp > :startDate");
-            }
+        query.setParameter("categoryId", category.getId());
+        startDate.ifPresent(value -> query.setParameter("startDate", value));
+        endDate.ifPresent(value -> query.setParameter("endDate", value));
+
+        BigDecimal balance = (BigDecimal) query.getSingleResult();
+        return Objects.requireNonNullElseGet(balance, () -> BigDecimal.valueOf(0));
+    }
+
+    @Override
+    public void addToDailyTotal(int categoryId, LocalDate day, BigDecimal amount) {
+        Session session = sessionFactory.getCurrentSession();
+        session.createNativeQuery("insert into category_daily_totals (category_id, spent_on, total) " +
+                        "values (:categoryId, :day, :amount) on duplicate key update total = total + :amount")
+                .setParameter("categoryId", categoryId)
+                .setParameter("day", java.sql.Date.valueOf(day))
+                .setParameter("amount", amount)
+                .addSynchronizedQuerySpace(DAILY_TOTALS)
+                .executeUpdate();
+    }
 
-            if (endDate.isPresent()) {
-                dates.add(" timestamp < :endDate");
-            }
+    @Override
+    public void deleteDailyTotals(int categoryId) {
+        Session session = sessionFactory.getCurrentSession();
+        session.createNativeQuery("delete from category_daily_totals where category_id = :categoryId")
+                .setParameter("categoryId", categoryId)
+                .addSynchronizedQuerySpace(DAILY_TOTALS)
+                .executeUpdate();
+    }
 
-            if (!dates.isEmpty()) {
-                baseQuery += " and " + String.join(" and ", dates);
-            }
+    @Override
+    public void rebuildDailyTotals(int categoryId) {
+        Session session = sessionFactory.getCurrentSession();
+        deleteDailyTotals(categoryId);
+        session.createNativeQuery("insert into category_daily_totals (category_id, spent_on, total) " +
+                        "select ct.category_id, cast(t.timestamp as date), sum(t.amount) " +
+                        "from category_transactions ct join transactions t on t.transaction_id = ct.transaction_id " +
+                        "where ct.category_id = :categoryId " +
+                        "group by ct.category_id, cast(t.timestamp as date)")
+                .setParameter("categoryId", categoryId)
+                .addSynchronizedQuerySpace(DAILY_TOTALS)
+                .executeUpdate();
+    }
 
-            Query<BigDecimal> query = session.createQuery(baseQuery);
+    @Override
+    public List<Integer> getInconsistentCategoryIds() {
+        Session session = sessionFactory.getCurrentSession();
+        List<?> result = session.createNativeQuery("select c.category_id from categories c " +
+                "where coalesce((select sum(d.total) from category_daily_totals d where d.category_id = c.category_id), 0) " +
+                "!= coalesce((select sum(t.amount) from category_transactions ct " +
+                "join transactions t on t.transaction_id = ct.transaction_id where ct.category_id = c.category_id), 0)").list();
+        return result.stream()
+                .map(id -> ((Number) id).intValue())
+                .collect(Collectors.toList());
+    }
 
-            query.setParameter("categoryId", category.getId());
-            startDate.ifPresent(value -> query.setParameter("startDate", value));
-            endDate.ifPresent(value -> query.setParameter("endDate", value));
+    // Report dates are whole days, so the daily totals answer the same question without touching transactions.
+    private static String spendingsQuery(boolean from, boolean to) {
+        return SPENDINGS + (from ? " and spent_on >= :startDate" : "") + (to ? " and spent_on < :endDate" : "");
+    }
 
-            BigDecimal balance = query.getSingleResult();
-            return Objects.requireNonNullElseGet(balance, () -> BigDecimal.valueOf(0));
-        }
+    // Every variant calculateSpendings can send, for QueryPlanVerifier to explain.
+    static Map<String, String> plannedQueries() {
+        Map<String, String> queries = new LinkedHashMap<>();
+        queries.put("spendings", spendingsQuery(false, false));
+        queries.put("spendings from date", spendingsQuery(true, false));
+        queries.put("spendings to date", spendingsQuery(false, true));
+        queries.put("spendings in period", spendingsQuery(true, true));
+        return queries;
     }
 }
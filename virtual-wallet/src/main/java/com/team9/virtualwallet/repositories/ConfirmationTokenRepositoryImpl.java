@@ -5,8 +5,10 @@ import com.team9.virtualwallet.repositories.contracts.ConfirmationTokenRepositor
 import org.hibernate.SessionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
+@Transactional
 public class ConfirmationTokenRepositoryImpl extends BaseRepositoryImpl<ConfirmationToken> implements ConfirmationTokenRepository {
 
     private final SessionFactory sessionFactory;
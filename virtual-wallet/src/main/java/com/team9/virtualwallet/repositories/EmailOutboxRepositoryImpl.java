@@ -0,0 +1,104 @@
+package com.team9.virtualwallet.repositories;
+
+import com.team9.virtualwallet.models.OutboxEmail;
+import com.team9.virtualwallet.models.enums.EmailStatus;
+import com.team9.virtualwallet.repositories.contracts.EmailOutboxRepository;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.LockModeType;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+@Transactional
+public class EmailOutboxRepositoryImpl implements EmailOutboxRepository {
+
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final SessionFactory sessionFactory;
+
+    @Autowired
+    public EmailOutboxRepositoryImpl(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    @Override
+    public void create(Object entity, OutboxEmail email) {
+        Session session = sessionFactory.getCurrentSession();
+        session.save(entity);
+        session.save(email);
+    }
+
+    @Override
+    public long countPending() {
+        Session session = sessionFactory.getCurrentSession();
+        return session.createQuery("select count(*) from OutboxEmail where status = :status", Long.class)
+                .setParameter("status", EmailStatus.PENDING)
+                .uniqueResult();
+    }
+
+    @Override
+    public List<OutboxEmail> claim(int limit, Timestamp lockedUntil) {
+        Session session = sessionFactory.getCurrentSession();
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<OutboxEmail> emails = session.createQuery("from OutboxEmail where status = :status and availableAt <= :now " +
+                        "and (lockedUntil is null or lockedUntil < :now) order by id", OutboxEmail.class)
+                .setParameter("status", EmailStatus.PENDING)
+                .setParameter("now", now)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setMaxResults(limit)
+                .list();
+        emails.forEach(email -> email.setLockedUntil(lockedUntil));
+        return emails;
+    }
+
+    @Override
+    public void markSent(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        sessionFactory.getCurrentSession().createQuery("update OutboxEmail set status = :status, sentAt = :now, " +
+                        "lockedUntil = null, attempts = attempts + 1 where id in :ids")
+                .setParameter("status", EmailStatus.SENT)
+                .setParameter("now", new Timestamp(System.currentTimeMillis()))
+                .setParameterList("ids", ids)
+                .executeUpdate();
+    }
+
+    @Override
+    public void release(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        sessionFactory.getCurrentSession().createQuery("update OutboxEmail set lockedUntil = null " +
+                        "where id in :ids and status = :status")
+                .setParameter("status", EmailStatus.PENDING)
+                .setParameterList("ids", ids)
+                .executeUpdate();
+    }
+
+    @Override
+    public void retry(OutboxEmail email, Timestamp availableAt, String error) {
+        recordFailure(email, EmailStatus.PENDING, availableAt, error);
+    }
+
+    @Override
+    public void markDead(OutboxEmail email, String error) {
+        recordFailure(email, EmailStatus.DEAD, email.getAvailableAt(), error);
+    }
+
+    private void recordFailure(OutboxEmail email, EmailStatus status, Timestamp availableAt, String error) {
+        sessionFactory.getCurrentSession().createQuery("update OutboxEmail set status = :status, availableAt = :availableAt, " +
+                        "lockedUntil = null, attempts = attempts + 1, lastError = :error where id = :id")
+                .setParameter("status", status)
+                .setParameter("availableAt", availableAt)
+                .setParameter("error", error == null || error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH))
+                .setParameter("id", email.getId())
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,64 @@
+package com.team9.virtualwallet.repositories;
+
+import com.team9.virtualwallet.models.IdempotencyKey;
+import com.team9.virtualwallet.repositories.contracts.IdempotencyKeyRepository;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.Optional;
+
+@Repository
+@Transactional
+public class IdempotencyKeyRepositoryImpl implements IdempotencyKeyRepository {
+
+    private final SessionFactory sessionFactory;
+
+    @Autowired
+    public IdempotencyKeyRepositoryImpl(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    @Override
+    public Optional<IdempotencyKey> get(int userId, String requestKey) {
+        Session session = sessionFactory.getCurrentSession();
+        return session.createQuery("from IdempotencyKey where userId = :userId and requestKey = :requestKey " +
+                        "and expiresAt > :now", IdempotencyKey.class)
+                .setParameter("userId", userId)
+                .setParameter("requestKey", requestKey)
+                .setParameter("now", new Timestamp(System.currentTimeMillis()))
+                .uniqueResultOptional();
+    }
+
+    @Override
+    public void create(IdempotencyKey idempotencyKey) {
+        Session session = sessionFactory.getCurrentSession();
+        // An expired key may be claimed again, so its old row has to go before the unique index is checked.
+        session.createQuery("delete from IdempotencyKey where userId = :userId and requestKey = :requestKey and expiresAt <= :now")
+                .setParameter("userId", idempotencyKey.getUserId())
+                .setParameter("requestKey", idempotencyKey.getRequestKey())
+                .setParameter("now", new Timestamp(System.currentTimeMillis()))
+                .executeUpdate();
+        session.save(idempotencyKey);
+        // Flushing now makes a concurrent request with the same key wait on the unique index instead of transferring.
+        session.flush();
+    }
+
+    @Override
+    public void complete(IdempotencyKey idempotencyKey, int transactionId) {
+        Session session = sessionFactory.getCurrentSession();
+        idempotencyKey.setTransactionId(transactionId);
+        session.update(idempotencyKey);
+    }
+
+    @Override
+    public int deleteExpired() {
+        Session session = sessionFactory.getCurrentSession();
+        return session.createQuery("delete from IdempotencyKey where expiresAt <= :now")
+                .setParameter("now", new Timestamp(System.currentTimeMillis()))
+                .executeUpdate();
+    }
+}
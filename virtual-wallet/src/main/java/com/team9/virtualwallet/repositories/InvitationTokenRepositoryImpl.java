@@ -5,8 +5,10 @@ import com.team9.virtualwallet.repositories.contracts.InvitationTokenRepository;
 import org.hibernate.SessionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
+@Transactional
 public class InvitationTokenRepositoryImpl extends BaseRepositoryImpl<InvitationToken> implements InvitationTokenRepository {
 
     private final SessionFactory sessionFactory;
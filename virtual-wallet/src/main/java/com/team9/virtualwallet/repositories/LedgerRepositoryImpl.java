@@ -0,0 +1,68 @@
+package com.team9.virtualwallet.repositories;
+
+import com.team9.virtualwallet.repositories.contracts.LedgerRepository;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Repository
+@Transactional
+public class LedgerRepositoryImpl implements LedgerRepository {
+
+    private static final String LATEST_SNAPSHOT_JOIN = "left join wallet_snapshots s on s.snapshot_id = " +
+            "(select max(s2.snapshot_id) from wallet_snapshots s2 where s2.wallet_id = w.wallet_id) ";
+
+    private static final String DERIVED_BALANCE = "coalesce(s.balance, 0) + coalesce((select sum(e.amount) from ledger_entries e " +
+            "where e.wallet_id = w.wallet_id and e.entry_id > coalesce(s.last_entry_id, 0)), 0)";
+
+    private final SessionFactory sessionFactory;
+
+    @Autowired
+    public LedgerRepositoryImpl(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    @Override
+    public BigDecimal calculateBalance(int walletId) {
+        Session session = sessionFactory.getCurrentSession();
+        NativeQuery<?> query = session.createNativeQuery("select " + DERIVED_BALANCE + " from wallets w " +
+                LATEST_SNAPSHOT_JOIN + "where w.wallet_id = :walletId");
+        query.setParameter("walletId", walletId);
+        return (BigDecimal) query.uniqueResult();
+    }
+
+    @Override
+    public int snapshotBalances(Timestamp settledBefore) {
+        Session session = sessionFactory.getCurrentSession();
+        return session.createNativeQuery("insert into wallet_snapshots (wallet_id, balance, last_entry_id, created_at) " +
+                        "select e.wallet_id, " +
+                        "coalesce((select s.balance from wallet_snapshots s where s.wallet_id = e.wallet_id " +
+                        "and s.snapshot_id = (select max(s2.snapshot_id) from wallet_snapshots s2 where s2.wallet_id = e.wallet_id)), 0) " +
+                        "+ sum(e.amount), max(e.entry_id), current_timestamp " +
+                        "from ledger_entries e " +
+                        "where e.created_at < :settledBefore " +
+                        "and e.entry_id > coalesce((select max(s.last_entry_id) from wallet_snapshots s where s.wallet_id = e.wallet_id), 0) " +
+                        "group by e.wallet_id")
+                .setParameter("settledBefore", settledBefore)
+                .addSynchronizedQuerySpace("wallet_snapshots")
+                .executeUpdate();
+    }
+
+    @Override
+    public List<Integer> getUnreconciledWalletIds() {
+        Session session = sessionFactory.getCurrentSession();
+        List<?> result = session.createNativeQuery("select w.wallet_id from wallets w " + LATEST_SNAPSHOT_JOIN +
+                "where w.balance != " + DERIVED_BALANCE).list();
+        return result.stream()
+                .map(id -> ((Number) id).intValue())
+                .collect(Collectors.toList());
+    }
+}
@@ -6,8 +6,10 @@ import com.team9.virtualwallet.repositories.contracts.PaymentMethodRepository;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
+@Transactional
 public class PaymentMethodRepositoryImpl extends BaseRepositoryImpl<PaymentMethod> implements PaymentMethodRepository {
 
     private final SessionFactory sessionFactory;
@@ -19,12 +21,11 @@ public class PaymentMethodRepositoryImpl extends BaseRepositoryImpl<PaymentMetho
 
     @Override
     public PaymentMethod getById(int id, String paymentMethod) {
-        try (Session session = sessionFactory.openSession()) {
-            PaymentMethod obj = session.get(PaymentMethod.class, id);
-            if (obj == null) {
-                throw new EntityNotFoundException(paymentMethod, id);
-            }
-            return obj;
+        Session session = sessionFactory.getCurrentSession();
+        PaymentMethod obj = session.get(PaymentMethod.class, id);
+        if (obj == null) {
+            throw new EntityNotFoundException(paymentMethod, id);
         }
+        return obj;
     }
 }
@@ -0,0 +1,141 @@
+package com.team9.virtualwallet.repositories;
+
+import com.team9.virtualwallet.exceptions.InsufficientBalanceException;
+import com.team9.virtualwallet.models.LedgerEntry;
+import com.team9.virtualwallet.models.PaymentMethod;
+import com.team9.virtualwallet.models.PayoutBatch;
+import com.team9.virtualwallet.models.PayoutItem;
+import com.team9.virtualwallet.models.Transaction;
+import com.team9.virtualwallet.models.User;
+import com.team9.virtualwallet.models.Wallet;
+import com.team9.virtualwallet.models.enums.PayoutStatus;
+import com.team9.virtualwallet.models.enums.TransactionType;
+import com.team9.virtualwallet.repositories.contracts.PayoutRepository;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.LockModeType;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static com.team9.virtualwallet.repositories.UserRepositoryImpl.getDefaultWalletIds;
+import static com.team9.virtualwallet.repositories.WalletRepositoryImpl.lockInIdOrder;
+import static com.team9.virtualwallet.services.utils.MessageConstants.INSUFFICIENT_BALANCE_MESSAGE;
+import static com.team9.virtualwallet.services.utils.MessageConstants.PAYOUT_RECIPIENT_UNAVAILABLE_MESSAGE;
+
+@Repository
+@Transactional
+public class PayoutRepositoryImpl implements PayoutRepository {
+
+    private final SessionFactory sessionFactory;
+
+    @Autowired
+    public PayoutRepositoryImpl(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    @Override
+    public Optional<PayoutBatch> getBatch(int senderId, String reference) {
+        Session session = sessionFactory.getCurrentSession();
+        Optional<PayoutBatch> batch = session.createQuery("from PayoutBatch where senderId = :senderId and reference = :reference", PayoutBatch.class)
+                .setParameter("senderId", senderId)
+                .setParameter("reference", reference)
+                .uniqueResultOptional();
+
+        batch.ifPresent(value -> value.setItems(session.createQuery("from PayoutItem where batchId = :batchId order by recipientId", PayoutItem.class)
+                .setParameter("batchId", value.getId())
+                .list()));
+        return batch;
+    }
+
+    @Override
+    public void createBatch(PayoutBatch batch) {
+        Session session = sessionFactory.getCurrentSession();
+        Wallet wallet = lockInIdOrder(session, Set.of(batch.getWalletId())).get(batch.getWalletId());
+        if (wallet.getBalance().compareTo(batch.getTotal()) < 0) {
+            throw new InsufficientBalanceException(INSUFFICIENT_BALANCE_MESSAGE);
+        }
+
+        session.save(batch);
+        for (PayoutItem item : batch.getItems()) {
+            item.setBatchId(batch.getId());
+            session.save(item);
+        }
+
+        wallet.withdrawBalance(batch.getTotal());
+        session.save(new LedgerEntry(wallet.getId(), null, batch.getTotal().negate(), batch.getId(), null));
+    }
+
+    @Override
+    public void creditItems(PayoutBatch batch, List<PayoutItem> items) {
+        Map<Integer, PayoutItem> requestedItems = items.stream()
+                .collect(Collectors.toMap(PayoutItem::getRecipientId, item -> item));
+        List<PayoutItem> creditedItems = new ArrayList<>();
+
+        Session session = sessionFactory.getCurrentSession();
+        List<PayoutItem> pendingItems = session.createQuery("from PayoutItem where batchId = :batchId " +
+                        "and recipientId in :recipientIds and status = :status order by recipientId", PayoutItem.class)
+                .setParameter("batchId", batch.getId())
+                .setParameterList("recipientIds", requestedItems.keySet())
+                .setParameter("status", PayoutStatus.PENDING)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .list();
+        if (pendingItems.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, Integer> recipientWallets = getDefaultWalletIds(session, pendingItems.stream()
+                .map(PayoutItem::getRecipientId)
+                .collect(Collectors.toList()));
+        Set<Integer> walletIds = new TreeSet<>(recipientWallets.values());
+        if (walletIds.size() < pendingItems.size()) {
+            walletIds.add(batch.getWalletId());
+        }
+        Map<Integer, Wallet> lockedWallets = lockInIdOrder(session, walletIds);
+
+        for (PayoutItem item : pendingItems) {
+            Integer recipientWalletId = recipientWallets.get(item.getRecipientId());
+            if (recipientWalletId == null) {
+                refund(session, lockedWallets.get(batch.getWalletId()), item);
+            } else {
+                credit(session, batch, item, lockedWallets.get(recipientWalletId));
+            }
+            creditedItems.add(item);
+        }
+
+        creditedItems.forEach(item -> requestedItems.get(item.getRecipientId()).copyResultOf(item));
+    }
+
+    private void credit(Session session, PayoutBatch batch, PayoutItem item, Wallet recipientWallet) {
+        Transaction transaction = new Transaction();
+        transaction.setSender(session.load(User.class, batch.getSenderId()));
+        transaction.setRecipient(session.load(User.class, item.getRecipientId()));
+        transaction.setSenderPaymentMethod(session.load(PaymentMethod.class, batch.getWalletId()));
+        transaction.setRecipientPaymentMethod(session.load(PaymentMethod.class, recipientWallet.getId()));
+        transaction.setAmount(item.getAmount());
+        transaction.setDescription(batch.getDescription());
+        transaction.setTimestamp(new Timestamp(System.currentTimeMillis()));
+        transaction.setTransactionType(TransactionType.SMALL_TRANSACTION);
+        session.save(transaction);
+
+        recipientWallet.depositBalance(item.getAmount());
+        session.save(new LedgerEntry(recipientWallet.getId(), transaction.getId(), item.getAmount(),
+                item.getBatchId(), item.getRecipientId()));
+        item.complete(transaction.getId());
+    }
+
+    private void refund(Session session, Wallet sourceWallet, PayoutItem item) {
+        sourceWallet.depositBalance(item.getAmount());
+        session.save(new LedgerEntry(sourceWallet.getId(), null, item.getAmount(), item.getBatchId(), item.getRecipientId()));
+        item.reject(PAYOUT_RECIPIENT_UNAVAILABLE_MESSAGE);
+    }
+}
@@ -0,0 +1,136 @@
+package com.team9.virtualwallet.repositories;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.hql.spi.NamedParameterInformation;
+import org.hibernate.hql.spi.QueryTranslator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Component
+@Profile("test")
+public class QueryPlanVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryPlanVerifier.class);
+
+    private static final Map<String, Object> SAMPLE_PARAMETERS = Map.of(
+            "userId", 1,
+            "searchedId", 2,
+            "startDate", Timestamp.valueOf("2021-01-01 00:00:00"),
+            "endDate", Timestamp.valueOf("2021-02-01 00:00:00"),
+            "cursorTimestamp", Timestamp.valueOf("2021-01-15 00:00:00"),
+            "cursorId", 1,
+            "categoryId", 1);
+
+    private static final Pattern NAMED_PARAMETER = Pattern.compile(":(\\w+)");
+
+    private final DataSource dataSource;
+    private final SessionFactoryImplementor sessionFactory;
+
+    @Autowired
+    public QueryPlanVerifier(DataSource dataSource, SessionFactory sessionFactory) {
+        this.dataSource = dataSource;
+        this.sessionFactory = sessionFactory.unwrap(SessionFactoryImplementor.class);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verify() throws SQLException {
+        List<String> fullScans = findFullScans(TransactionRepositoryImpl.plannedQueries());
+        fullScans.addAll(findNativeFullScans(CategoryRepositoryImpl.plannedQueries()));
+        if (!fullScans.isEmpty()) {
+            throw new IllegalStateException("Queries without a usable index: " + String.join("; ", fullScans));
+        }
+    }
+
+    List<String> findFullScans(Map<String, String> queries) throws SQLException {
+        return findFullScans(queries, false);
+    }
+
+    List<String> findNativeFullScans(Map<String, String> queries) throws SQLException {
+        return findFullScans(queries, true);
+    }
+
+    private List<String> findFullScans(Map<String, String> queries, boolean nativeSql) throws SQLException {
+        List<String> fullScans = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            String product = connection.getMetaData().getDatabaseProductName();
+            boolean h2 = product.equalsIgnoreCase("H2");
+            if (!h2 && !product.equalsIgnoreCase("MySQL") && !product.equalsIgnoreCase("MariaDB")) {
+                logger.info("Skipping query plan verification, EXPLAIN output of {} is not supported.", product);
+                return fullScans;
+            }
+
+            for (Map.Entry<String, String> query : queries.entrySet()) {
+                try (PreparedStatement statement = nativeSql
+                        ? prepareNative(connection, query.getValue())
+                        : prepareHql(connection, query.getValue())) {
+                    fullScans.addAll(explain(statement, query.getKey(), h2));
+                }
+            }
+        }
+        return fullScans;
+    }
+
+    private PreparedStatement prepareHql(Connection connection, String hql) throws SQLException {
+        QueryTranslator translator = sessionFactory.getQueryPlanCache()
+                .getHQLQueryPlan(hql, false, Collections.emptyMap())
+                .getTranslators()[0];
+
+        PreparedStatement statement = connection.prepareStatement("explain " + translator.getSQLString());
+        for (NamedParameterInformation parameter : translator.getParameterTranslations()
+                .getNamedParameterInformationMap().values()) {
+            for (int location : parameter.getSourceLocations()) {
+                statement.setObject(location + 1, SAMPLE_PARAMETERS.get(parameter.getSourceName()));
+            }
+        }
+        return statement;
+    }
+
+    // Native queries keep Hibernate's ":name" parameters, so they are swapped for JDBC placeholders in order.
+    private static PreparedStatement prepareNative(Connection connection, String sql) throws SQLException {
+        List<Object> values = new ArrayList<>();
+        Matcher matcher = NAMED_PARAMETER.matcher(sql);
+        while (matcher.find()) {
+            values.add(SAMPLE_PARAMETERS.get(matcher.group(1)));
+        }
+
+        PreparedStatement statement = connection.prepareStatement("explain " + matcher.replaceAll("?"));
+        for (int i = 0; i < values.size(); i++) {
+            statement.setObject(i + 1, values.get(i));
+        }
+        return statement;
+    }
+
+    private static List<String> explain(PreparedStatement statement, String name, boolean h2) throws SQLException {
+        List<String> fullScans = new ArrayList<>();
+        try (ResultSet plan = statement.executeQuery()) {
+            while (plan.next()) {
+                // H2 describes the whole plan in one row and marks an unindexed read as a tableScan.
+                if (h2 && plan.getString(1).contains(".tableScan")) {
+                    fullScans.add(String.format("%s scans a table: %s", name, plan.getString(1)));
+                } else if (!h2 && "ALL".equalsIgnoreCase(plan.getString("type"))) {
+                    fullScans.add(String.format("%s scans table %s", name, plan.getString("table")));
+                }
+            }
+        }
+        return fullScans;
+    }
+}
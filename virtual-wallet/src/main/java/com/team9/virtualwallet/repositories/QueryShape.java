@@ -0,0 +1,36 @@
+package com.team9.virtualwallet.repositories;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+final class QueryShape {
+
+    private final String entityName;
+    private final String predicates;
+    private final String fromClause;
+    private final String countQuery;
+    private final Map<String, Map<String, String>> selectQueries = new ConcurrentHashMap<>();
+    private final Map<String, QueryShape> refinements = new ConcurrentHashMap<>();
+
+    QueryShape(String entityName, String predicates) {
+        this.entityName = entityName;
+        this.predicates = predicates;
+        fromClause = "from " + entityName + (predicates.isEmpty() ? "" : " where " + predicates);
+        countQuery = "select count (id) " + fromClause;
+    }
+
+    // Every call with the same shape hands Hibernate the same string, so its query plan is parsed once.
+    String select(String projection, String orderBy) {
+        return selectQueries.computeIfAbsent(projection, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(orderBy, key -> projection + fromClause + orderBy);
+    }
+
+    String count() {
+        return countQuery;
+    }
+
+    QueryShape and(String predicate) {
+        return refinements.computeIfAbsent(predicate, key ->
+                new QueryShape(entityName, predicates.isEmpty() ? predicate : predicates + " and " + predicate));
+    }
+}
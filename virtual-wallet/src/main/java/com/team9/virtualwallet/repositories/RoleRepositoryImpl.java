@@ -7,10 +7,12 @@ import org.hibernate.SessionFactory;
 import org.hibernate.query.Query;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Repository
+@Transactional
 public class RoleRepositoryImpl extends BaseRepositoryImpl<Role> implements RoleRepository {
 
     private final SessionFactory sessionFactory;
@@ -23,12 +25,11 @@ public class RoleRepositoryImpl extends BaseRepositoryImpl<Role> implements Role
 
     @Override
     public boolean isDuplicate(String name) {
-        try (Session session = sessionFactory.openSession()) {
-            Query<Role> query = session.createQuery("from Role where name = :name", Role.class);
-            query.setParameter("name", name);
-            List<Role> result = query.list();
-            return result.size() > 0;
-        }
+        Session session = sessionFactory.getCurrentSession();
+        Query<Role> query = session.createQuery("from Role where name = :name", Role.class);
+        query.setParameter("name", name);
+        List<Role> result = query.list();
+        return result.size() > 0;
     }
 
 }
@@ -0,0 +1,150 @@
+package com.team9.virtualwallet.repositories;
+
+import com.team9.virtualwallet.exceptions.EntityNotFoundException;
+import com.team9.virtualwallet.models.MonthlyStatement;
+import com.team9.virtualwallet.models.StatementCategoryTotal;
+import com.team9.virtualwallet.repositories.contracts.StatementRepository;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Repository
+@Transactional
+public class StatementRepositoryImpl implements StatementRepository {
+
+    // Balances that predate the ledger only exist as the wallet's first snapshot.
+    private static final String BASELINE_SNAPSHOT = "s.last_entry_id = 0";
+
+    private final SessionFactory sessionFactory;
+
+    @Autowired
+    public StatementRepositoryImpl(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    @Override
+    public List<Integer> getUsersWithoutStatement(YearMonth month, int limit) {
+        Session session = sessionFactory.getCurrentSession();
+        List<?> result = session.createNativeQuery("select u.user_id from users u where u.deleted = 0 " +
+                        "and exists (select w.wallet_id from wallets w where w.user_id = u.user_id " +
+                        "and (exists (select e.entry_id from ledger_entries e where e.wallet_id = w.wallet_id and e.created_at < :end) " +
+                        "or exists (select s.snapshot_id from wallet_snapshots s where s.wallet_id = w.wallet_id and " + BASELINE_SNAPSHOT +
+                        " and s.created_at < :end))) " +
+                        "and not exists (select m.statement_id from monthly_statements m " +
+                        "where m.user_id = u.user_id and m.statement_month = :month) " +
+                        "order by u.user_id")
+                .setParameter("end", start(month.plusMonths(1)))
+                .setParameter("month", month.atDay(1))
+                .setMaxResults(limit)
+                .list();
+        return result.stream()
+                .map(id -> ((Number) id).intValue())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public int createStatements(List<Integer> userIds, YearMonth month) {
+        Session session = sessionFactory.getCurrentSession();
+        Timestamp start = start(month);
+        Timestamp end = start(month.plusMonths(1));
+
+        Map<Integer, BigDecimal> baselines = sumByUser(session.createNativeQuery("select w.user_id, sum(s.balance) " +
+                        "from wallets w join wallet_snapshots s on s.wallet_id = w.wallet_id and " + BASELINE_SNAPSHOT + " " +
+                        "where w.user_id in :userIds and s.created_at < :end group by w.user_id")
+                .setParameterList("userIds", userIds)
+                .setParameter("end", end)
+                .list());
+
+        Map<Integer, BigDecimal> earlierEntries = sumByUser(session.createNativeQuery("select w.user_id, sum(e.amount) " +
+                        "from wallets w join ledger_entries e on e.wallet_id = w.wallet_id " +
+                        "where w.user_id in :userIds and e.created_at < :start group by w.user_id")
+                .setParameterList("userIds", userIds)
+                .setParameter("start", start)
+                .list());
+
+        // Moves between a user's own wallets cancel out, so they are left out of the incoming and outgoing totals.
+        // A payout's refunds are netted against its debit, so the batch counts once at what it actually paid out.
+        Map<Integer, Object[]> movements = new HashMap<>();
+        for (Object row : session.createNativeQuery("select m.user_id, " +
+                        "sum(case when m.amount > 0 then m.amount else 0 end), " +
+                        "sum(case when m.amount < 0 then -m.amount else 0 end) " +
+                        "from (select w.user_id, sum(e.amount) amount " +
+                        "from wallets w join ledger_entries e on e.wallet_id = w.wallet_id " +
+                        "left join transactions t on t.transaction_id = e.transaction_id " +
+                        "where w.user_id in :userIds and e.created_at >= :start and e.created_at < :end " +
+                        "and (t.transaction_type is null or t.transaction_type != 'WALLET_TO_WALLET') " +
+                        "group by w.user_id, e.payout_batch_id, case when e.payout_batch_id is null then e.entry_id end) m " +
+                        "group by m.user_id")
+                .setParameterList("userIds", userIds)
+                .setParameter("start", start)
+                .setParameter("end", end)
+                .list()) {
+            Object[] columns = (Object[]) row;
+            movements.put(((Number) columns[0]).intValue(), columns);
+        }
+
+        Map<Integer, List<StatementCategoryTotal>> categoryTotals = new HashMap<>();
+        for (Object row : session.createNativeQuery("select c.user_id, c.category_id, c.name, sum(d.total) " +
+                        "from categories c join category_daily_totals d on d.category_id = c.category_id " +
+                        "where c.user_id in :userIds and d.spent_on >= :start and d.spent_on < :end " +
+                        "group by c.user_id, c.category_id, c.name")
+                .setParameterList("userIds", userIds)
+                .setParameter("start", month.atDay(1))
+                .setParameter("end", month.plusMonths(1).atDay(1))
+                .list()) {
+            Object[] columns = (Object[]) row;
+            categoryTotals.computeIfAbsent(((Number) columns[0]).intValue(), key -> new ArrayList<>())
+                    .add(new StatementCategoryTotal(((Number) columns[1]).intValue(), (String) columns[2], (BigDecimal) columns[3]));
+        }
+
+        for (Integer userId : userIds) {
+            Object[] movement = movements.get(userId);
+            BigDecimal opening = baselines.getOrDefault(userId, BigDecimal.ZERO)
+                    .add(earlierEntries.getOrDefault(userId, BigDecimal.ZERO));
+            session.save(new MonthlyStatement(userId, month.atDay(1), opening,
+                    movement == null ? BigDecimal.ZERO : (BigDecimal) movement[1],
+                    movement == null ? BigDecimal.ZERO : (BigDecimal) movement[2],
+                    categoryTotals.getOrDefault(userId, new ArrayList<>())));
+        }
+        return userIds.size();
+    }
+
+    @Override
+    public List<MonthlyStatement> getAll(int userId) {
+        Session session = sessionFactory.getCurrentSession();
+        return session.createQuery("from MonthlyStatement where userId = :userId order by month desc", MonthlyStatement.class)
+                .setParameter("userId", userId)
+                .list();
+    }
+
+    @Override
+    public MonthlyStatement getByMonth(int userId, YearMonth month) {
+        Session session = sessionFactory.getCurrentSession();
+        return session.createQuery("from MonthlyStatement where userId = :userId and month = :month", MonthlyStatement.class)
+                .setParameter("userId", userId)
+                .setParameter("month", month.atDay(1))
+                .uniqueResultOptional()
+                .orElseThrow(() -> new EntityNotFoundException("Statement", "month", month.toString()));
+    }
+
+    private static Timestamp start(YearMonth month) {
+        return Timestamp.valueOf(month.atDay(1).atStartOfDay());
+    }
+
+    private static Map<Integer, BigDecimal> sumByUser(List<?> rows) {
+        Map<Integer, BigDecimal> sums = new HashMap<>();
+        for (Object row : rows) {
+            Object[] columns = (Object[]) row;
+            sums.put(((Number) columns[0]).intValue(), (BigDecimal) columns[1]);
+        }
+        return sums;
+    }
+}
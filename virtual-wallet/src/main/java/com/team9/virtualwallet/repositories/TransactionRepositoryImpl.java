@@ -1,91 +1,166 @@
 package com.team9.virtualwallet.repositories;
 
+import com.team9.virtualwallet.exceptions.InsufficientBalanceException;
+import com.team9.virtualwallet.models.Card;
+import com.team9.virtualwallet.models.CardSettlement;
+import com.team9.virtualwallet.models.CursorPage;
+import com.team9.virtualwallet.models.LedgerEntry;
 import com.team9.virtualwallet.models.Pages;
+import com.team9.virtualwallet.models.PaymentMethod;
 import com.team9.virtualwallet.models.Transaction;
+import com.team9.virtualwallet.models.TransactionCursor;
+import com.team9.virtualwallet.models.TransactionRecord;
 import com.team9.virtualwallet.models.User;
 import com.team9.virtualwallet.models.Wallet;
+import com.team9.virtualwallet.models.dtos.TransactionHistoryDto;
 import com.team9.virtualwallet.models.enums.Direction;
+import com.team9.virtualwallet.models.enums.FetchPlan;
 import com.team9.virtualwallet.models.enums.Sort;
+import com.team9.virtualwallet.models.enums.TransactionStatus;
+import com.team9.virtualwallet.models.enums.TransactionType;
 import com.team9.virtualwallet.repositories.contracts.TransactionRepository;
+import org.hibernate.LockMode;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.hql.spi.NamedParameterInformation;
+import org.hibernate.hql.spi.QueryTranslator;
+import org.hibernate.query.NativeQuery;
 import org.hibernate.query.Query;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
-import java.util.Date;
-import java.util.List;
-import java.util.Optional;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.team9.virtualwallet.configs.ApplicationConstants.EXPORT_FETCH_SIZE;
+import static com.team9.virtualwallet.repositories.WalletRepositoryImpl.lockInIdOrder;
+import static com.team9.virtualwallet.services.utils.MessageConstants.INSUFFICIENT_BALANCE_MESSAGE;
 
 @Repository
+@Transactional
 public class TransactionRepositoryImpl extends BaseRepositoryImpl<Transaction> implements TransactionRepository {
 
+    private static final String HISTORY_PROJECTION = "select new com.team9.virtualwallet.models.dtos.TransactionHistoryDto(" +
+            "id, timestamp, amount, description, transactionType, status, sender.id, sender.username, " +
+            "recipient.id, recipient.username, senderPaymentMethod.id, recipientPaymentMethod.id) ";
+
+    private static final String PAGE_KEYS_PROJECTION = "select id, timestamp, amount ";
+
+    private static final String TRANSACTION = "Transaction";
+    private static final String VISIBLE = "transactionType != 'LARGE_UNVERIFIED'";
+    private static final String IN_PERIOD = "timestamp > :startDate and timestamp < :endDate";
+    private static final String NOT_OWN_ACCOUNT_MOVE = "transactionType != 'WALLET_TO_WALLET' " +
+            "and transactionType != 'CARD_TO_WALLET' and transactionType != 'WALLET_TO_CARD'";
+    // Open date bounds are bound as sentinels so they don't multiply the number of query shapes.
+    private static final Date EARLIEST = new Timestamp(0);
+    private static final Date LATEST = Timestamp.valueOf("9999-12-31 00:00:00");
+
+    private static final List<QueryShape> HISTORY_SHAPES = List.of(
+            new QueryShape(TRANSACTION, "sender.id = :userId and " + VISIBLE),
+            new QueryShape(TRANSACTION, "recipient.id = :userId and sender.id != :userId and " + VISIBLE));
+    private static final List<QueryShape> PERIOD_SHAPES = List.of(
+            new QueryShape(TRANSACTION, "sender.id = :userId and " + VISIBLE + " and " + IN_PERIOD),
+            new QueryShape(TRANSACTION, "recipient.id = :userId and sender.id != :userId and " + VISIBLE + " and " + IN_PERIOD));
+    private static final List<QueryShape> COUNTERPARTY_SHAPES = List.of(
+            new QueryShape(TRANSACTION, "sender.id = :userId and recipient.id = :searchedId and " + VISIBLE + " and " + IN_PERIOD),
+            new QueryShape(TRANSACTION, "sender.id = :searchedId and recipient.id = :userId and sender.id != :userId and " +
+                    VISIBLE + " and " + IN_PERIOD));
+    private static final QueryShape BY_IDS = new QueryShape(TRANSACTION, "id in :ids");
+    private static final Map<Direction, List<QueryShape>> DIRECTION_SHAPES = directionShapes(false);
+    private static final Map<Direction, List<QueryShape>> COUNTERPARTY_DIRECTION_SHAPES = directionShapes(true);
+    private static final Map<Sort, String> SEEK_PREDICATES = Map.of(
+            Sort.ASC, "(timestamp > :cursorTimestamp or (timestamp = :cursorTimestamp and id > :cursorId))",
+            Sort.DESC, "(timestamp < :cursorTimestamp or (timestamp = :cursorTimestamp and id < :cursorId))");
+
+    private static final Map<Sort, Ordering> DATE_ORDERINGS = new EnumMap<>(Sort.class);
+    private static final Map<Sort, Map<Sort, Ordering>> AMOUNT_ORDERINGS = new EnumMap<>(Sort.class);
+
+    static {
+        for (Sort amount : Sort.values()) {
+            AMOUNT_ORDERINGS.put(amount, new EnumMap<>(Sort.class));
+        }
+        for (Sort date : Sort.values()) {
+            DATE_ORDERINGS.put(date, new Ordering(Optional.empty(), date));
+            for (Sort amount : Sort.values()) {
+                AMOUNT_ORDERINGS.get(amount).put(date, new Ordering(Optional.of(amount), date));
+            }
+        }
+    }
+
     private final SessionFactory sessionFactory;
 
     @Autowired
     public TransactionRepositoryImpl(SessionFactory sessionFactory) {
-        super(sessionFactory, Transaction.class);
+        super(sessionFactory, Transaction.class, FetchPlan.TRANSACTION_DETAILS);
         this.sessionFactory = sessionFactory;
     }
 
     @Override
-    public Pages<Transaction> getAll(User user, Pageable pageable) {
-        try (Session session = sessionFactory.openSession()) {
-            Query<Transaction> query = session.createQuery("from Transaction where (sender.id = :id or recipient.id = :id) and transactionType != 'LARGE_UNVERIFIED' order by timestamp desc", Transaction.class);
-            query.setParameter("id", user.getId());
-            query.setFirstResult((pageable.getPageSize() * pageable.getPageNumber()) - pageable.getPageSize());
-            query.setMaxResults(pageable.getPageSize());
-
-            Query countQuery = session.createQuery("select count (id) from Transaction where (sender.id = :id or recipient.id = :id) and transactionType != 'LARGE_UNVERIFIED'");
-            countQuery.setParameter("id", user.getId());
-            Long countResults = (Long) countQuery.uniqueResult();
+    public Pages<TransactionHistoryDto> getHistory(User user, Pageable pageable) {
+        Session session = sessionFactory.getCurrentSession();
+        Pages<TransactionHistoryDto> page = page(session, TransactionHistoryDto.class, HISTORY_SHAPES,
+                Map.of("userId", user.getId()), DATE_ORDERINGS.get(Sort.DESC), pageable);
+        describePaymentMethods(session, user.getId(), page.getContent());
+        return page;
+    }
 
-            return new Pages<>(query.list(), countResults, pageable);
-        }
+    @Override
+    public CursorPage<TransactionHistoryDto> getHistory(User user, Optional<TransactionCursor> after, int size, boolean withTotal) {
+        Session session = sessionFactory.getCurrentSession();
+        CursorPage<TransactionHistoryDto> page = seek(session, TransactionHistoryDto.class, HISTORY_SHAPES,
+                Map.of("userId", user.getId()), Sort.DESC, after, size, withTotal);
+        describePaymentMethods(session, user.getId(), page.getContent());
+        return page;
     }
 
     @Override
     public List<Transaction> getLastTransactions(User user, int count) {
-        try (Session session = sessionFactory.openSession()) {
-            Query<Transaction> query = session.createQuery("from Transaction where (sender.id = :id or recipient.id = :id) and transactionType != 'LARGE_UNVERIFIED' order by timestamp desc", Transaction.class);
-            query.setParameter("id", user.getId());
-            query.setMaxResults(count);
-            return query.list();
-        }
+        Session session = sessionFactory.getCurrentSession();
+        return mergeBranches(session, Transaction.class, HISTORY_SHAPES, Map.of("userId", user.getId()),
+                DATE_ORDERINGS.get(Sort.DESC), count);
     }
 
     @Override
     public void create(Transaction transaction, Wallet walletToWithdraw, Wallet walletToDeposit) {
-        try (Session session = sessionFactory.openSession()) {
-            session.beginTransaction();
-            session.update(walletToDeposit);
-            session.update(walletToWithdraw);
-            session.save(transaction);
-            session.getTransaction().commit();
-        }
+        Session session = sessionFactory.getCurrentSession();
+        session.save(transaction);
+        transfer(session, transaction, walletToWithdraw, walletToDeposit);
     }
 
     @Override
-    public void createExternal(Transaction transaction, Wallet wallet) {
-        try (Session session = sessionFactory.openSession()) {
-            session.beginTransaction();
-            session.update(wallet);
-            session.save(transaction);
-            session.getTransaction().commit();
-        }
+    public void createExternalDeposit(Transaction transaction, Wallet walletToDeposit) {
+        Session session = sessionFactory.getCurrentSession();
+        session.save(transaction);
+        session.save(new CardSettlement(transaction, walletToDeposit));
+    }
+
+    @Override
+    public void createExternalWithdraw(Transaction transaction, Wallet walletToWithdraw) {
+        Session session = sessionFactory.getCurrentSession();
+        session.save(transaction);
+        transfer(session, transaction, walletToWithdraw, null);
+        session.save(new CardSettlement(transaction, walletToWithdraw));
     }
 
     @Override
     public void update(Transaction transaction, Wallet walletToWithdraw, Wallet walletToDeposit) {
-        try (Session session = sessionFactory.openSession()) {
-            session.beginTransaction();
-            session.update(walletToDeposit);
-            session.update(walletToWithdraw);
-            session.update(transaction);
-            session.getTransaction().commit();
+        Session session = sessionFactory.getCurrentSession();
+        TransactionType verifiedType = transaction.getTransactionType();
+        // The caller may hold the session's own instance, so re-read the row under the lock.
+        Transaction lockedTransaction = session.get(Transaction.class, transaction.getId());
+        session.refresh(lockedTransaction, LockMode.PESSIMISTIC_WRITE);
+        if (lockedTransaction.getTransactionType() != TransactionType.LARGE_UNVERIFIED) {
+            throw new IllegalArgumentException("This transaction has already been verified!");
         }
+        transfer(session, lockedTransaction, walletToWithdraw, walletToDeposit);
+        lockedTransaction.setTransactionType(verifiedType);
     }
 
     @Override
@@ -98,115 +173,414 @@ public class TransactionRepositoryImpl extends BaseRepositoryImpl<Transaction> i
                                      Optional<Sort> date,
                                      Pageable pageable) {
 
-        try (Session session = sessionFactory.openSession()) {
-            var baseQuery = "from Transaction";
-            var countBaseQuery = "select count (id) ";
-            List<String> filters = new ArrayList<>();
-            List<String> sortType = new ArrayList<>();
-
-            if (direction.isPresent()) {
-                switch (direction.get().toString()) {
-                    case "Incoming":
-                        if (searchedPersonId.isPresent()) {
-                            filters.add("sender.id = :searchedId");
-                        }
-                        addToFiltersIfIncomingOrOutgoing(filters);
-                        filters.add("recipient.id = :userId");
-                        break;
-                    case "Outgoing":
-                        if (searchedPersonId.isPresent()) {
-                            filters.add("recipient.id = :searchedId");
-                        }
-                        addToFiltersIfIncomingOrOutgoing(filters);
-                        filters.add("sender.id = :userId");
-                        break;
-
-                    case "Deposit":
-                        filters.add("recipient.id = :userId");
-                        filters.add("transactionType = 'CARD_TO_WALLET'");
-                        break;
-
-                    case "Withdraw":
-                        filters.add("recipient.id = :userId");
-                        filters.add("transactionType = 'WALLET_TO_CARD'");
-                        break;
-
-                    case "Wallet to Wallet":
-                        filters.add("recipient.id = :userId");
-                        filters.add("transactionType = 'WALLET_TO_WALLET'");
-                        break;
-                }
-            } else {
-                if (searchedPersonId.isPresent()) {
-                    filters.add("((sender.id = :userId and recipient.id = :searchedId) or (sender.id = :searchedId and recipient.id = :userId))");
-                } else {
-                    filters.add("(sender.id = :userId or recipient.id = :userId)");
+        Session session = sessionFactory.getCurrentSession();
+        boolean searched = searchedPersonId.isPresent() && filtersByCounterparty(direction);
+        Map<String, Object> parameters = filterParameters(userId, startDate, endDate, searched ? searchedPersonId : Optional.empty());
+        List<QueryShape> shapes = filterShapes(direction, searched);
+
+        return page(session, Transaction.class, shapes, parameters, filterOrdering(amount, date), pageable);
+    }
+
+    @Override
+    public Pages<TransactionHistoryDto> filterHistory(int userId,
+                                                      Optional<Direction> direction,
+                                                      Optional<Date> startDate,
+                                                      Optional<Date> endDate,
+                                                      Optional<Integer> searchedPersonId,
+                                                      Optional<Sort> amount,
+                                                      Optional<Sort> date,
+                                                      Pageable pageable) {
+
+        Session session = sessionFactory.getCurrentSession();
+        boolean searched = searchedPersonId.isPresent() && filtersByCounterparty(direction);
+        Map<String, Object> parameters = filterParameters(userId, startDate, endDate, searched ? searchedPersonId : Optional.empty());
+        List<QueryShape> shapes = filterShapes(direction, searched);
+
+        Pages<TransactionHistoryDto> page = page(session, TransactionHistoryDto.class, shapes, parameters,
+                filterOrdering(amount, date), pageable);
+        describePaymentMethods(session, userId, page.getContent());
+        return page;
+    }
+
+    @Override
+    public CursorPage<TransactionHistoryDto> filterHistory(int userId,
+                                                           Optional<Direction> direction,
+                                                           Optional<Date> startDate,
+                                                           Optional<Date> endDate,
+                                                           Optional<Integer> searchedPersonId,
+                                                           Optional<Sort> date,
+                                                           Optional<TransactionCursor> after,
+                                                           int size,
+                                                           boolean withTotal) {
+
+        Session session = sessionFactory.getCurrentSession();
+        boolean searched = searchedPersonId.isPresent() && filtersByCounterparty(direction);
+        Map<String, Object> parameters = filterParameters(userId, startDate, endDate, searched ? searchedPersonId : Optional.empty());
+        List<QueryShape> shapes = filterShapes(direction, searched);
+
+        CursorPage<TransactionHistoryDto> page = seek(session, TransactionHistoryDto.class, shapes, parameters,
+                date.orElse(Sort.DESC), after, size, withTotal);
+        describePaymentMethods(session, userId, page.getContent());
+        return page;
+    }
+
+    @Override
+    public void exportHistory(int userId,
+                              Optional<Direction> direction,
+                              Optional<Date> startDate,
+                              Optional<Date> endDate,
+                              Optional<Integer> searchedPersonId,
+                              Optional<Sort> amount,
+                              Optional<Sort> date,
+                              Consumer<List<TransactionHistoryDto>> consumer) {
+
+        Session session = sessionFactory.getCurrentSession();
+        boolean searched = searchedPersonId.isPresent() && filtersByCounterparty(direction);
+        Map<String, Object> parameters = filterParameters(userId, startDate, endDate, searched ? searchedPersonId : Optional.empty());
+        List<QueryShape> shapes = filterShapes(direction, searched);
+        Ordering ordering = filterOrdering(amount, date);
+
+        // One forward-only cursor per branch, merged row by row, so no more than a chunk is ever held in memory.
+        List<Stream<TransactionHistoryDto>> streams = new ArrayList<>();
+        try {
+            List<Iterator<TransactionHistoryDto>> cursors = new ArrayList<>();
+            for (QueryShape shape : shapes) {
+                Query<TransactionHistoryDto> query = createHistoryQuery(session, shape, ordering, TransactionHistoryDto.class);
+                parameters.forEach(query::setParameter);
+                Stream<TransactionHistoryDto> stream = query.setReadOnly(true)
+                        .setFetchSize(EXPORT_FETCH_SIZE)
+                        .stream();
+                streams.add(stream);
+                cursors.add(stream.iterator());
+            }
+
+            List<TransactionHistoryDto> heads = new ArrayList<>();
+            cursors.forEach(cursor -> heads.add(cursor.hasNext() ? cursor.next() : null));
+
+            List<TransactionHistoryDto> chunk = new ArrayList<>(EXPORT_FETCH_SIZE);
+            for (int next = nextHead(heads, ordering); next >= 0; next = nextHead(heads, ordering)) {
+                chunk.add(heads.get(next));
+                heads.set(next, cursors.get(next).hasNext() ? cursors.get(next).next() : null);
+
+                if (chunk.size() == EXPORT_FETCH_SIZE) {
+                    describePaymentMethods(session, userId, chunk);
+                    consumer.accept(chunk);
+                    chunk = new ArrayList<>(EXPORT_FETCH_SIZE);
                 }
             }
-            filters.add("transactionType != 'LARGE_UNVERIFIED'");
+            if (!chunk.isEmpty()) {
+                describePaymentMethods(session, userId, chunk);
+                consumer.accept(chunk);
+            }
+        } finally {
+            streams.forEach(Stream::close);
+        }
+    }
 
-            if (startDate.isPresent()) {
-                filters.add(" timestamp > :startDate");
+    private <T extends TransactionRecord> Pages<T> page(Session session,
+                                                        Class<T> resultType,
+                                                        List<QueryShape> shapes,
+                                                        Map<String, Object> parameters,
+                                                        Ordering ordering,
+                                                        Pageable pageable) {
+        int offset = (pageable.getPageSize() * pageable.getPageNumber()) - pageable.getPageSize();
+        List<T> content;
+        if (shapes.size() == 1) {
+            Query<T> query = createHistoryQuery(session, shapes.get(0), ordering, resultType);
+            parameters.forEach(query::setParameter);
+            content = query.setFirstResult(offset).setMaxResults(pageable.getPageSize()).list();
+        } else {
+            List<Integer> ids = pageIds(session, shapes, parameters, ordering, offset, pageable.getPageSize());
+            // Padding the list to the page size keeps the expanded "in" clause, and so its plan, the same on every page.
+            List<Integer> paddedIds = new ArrayList<>(ids);
+            while (!ids.isEmpty() && paddedIds.size() < pageable.getPageSize()) {
+                paddedIds.add(ids.get(0));
             }
+            content = ids.isEmpty() ? List.of() : createHistoryQuery(session, BY_IDS, ordering, resultType)
+                    .setParameterList("ids", paddedIds)
+                    .list();
+        }
 
-            if (endDate.isPresent()) {
-                filters.add(" timestamp < :endDate");
+        return new Pages<>(content, count(session, shapes, parameters), pageable);
+    }
+
+    // The branches are ordered, cut and merged by the database, so a deep page walks their indexes there
+    // and only the ids of the requested page come back.
+    @SuppressWarnings("unchecked")
+    private List<Integer> pageIds(Session session,
+                                  List<QueryShape> shapes,
+                                  Map<String, Object> parameters,
+                                  Ordering ordering,
+                                  int offset,
+                                  int size) {
+        StringJoiner union = new StringJoiner(" union all ", "", ordering.unionOrderBy);
+        List<Object> values = new ArrayList<>();
+        for (QueryShape shape : shapes) {
+            QueryTranslator translator = sessionFactory.unwrap(SessionFactoryImplementor.class).getQueryPlanCache()
+                    .getHQLQueryPlan(shape.select(PAGE_KEYS_PROJECTION, ordering.orderBy), false, Collections.emptyMap())
+                    .getTranslators()[0];
+            Collection<NamedParameterInformation> named = translator.getParameterTranslations()
+                    .getNamedParameterInformationMap().values();
+            Object[] branchValues = new Object[named.stream().mapToInt(parameter -> parameter.getSourceLocations().length).sum() + 1];
+            for (NamedParameterInformation parameter : named) {
+                for (int location : parameter.getSourceLocations()) {
+                    branchValues[location] = parameters.get(parameter.getSourceName());
+                }
             }
+            branchValues[branchValues.length - 1] = offset + size;
+            union.add("(" + translator.getSQLString() + " limit ?)");
+            values.addAll(Arrays.asList(branchValues));
+        }
 
+        NativeQuery<Object[]> query = session.createNativeQuery(union.toString());
+        for (int i = 0; i < values.size(); i++) {
+            query.setParameter(i + 1, values.get(i));
+        }
+        return query.addSynchronizedEntityClass(Transaction.class)
+                .setFirstResult(offset)
+                .setMaxResults(size)
+                .list()
+                .stream()
+                .map(row -> ((Number) row[0]).intValue())
+                .collect(Collectors.toList());
+    }
 
-            amount.ifPresent(sortAmount -> sortType.add(String.format(" Amount %s ", sortAmount)));
-            date.ifPresent(sortDate -> sortType.add(String.format(" timestamp %s ", sortDate)));
+    private <T extends TransactionRecord> CursorPage<T> seek(Session session,
+                                                             Class<T> resultType,
+                                                             List<QueryShape> shapes,
+                                                             Map<String, Object> parameters,
+                                                             Sort order,
+                                                             Optional<TransactionCursor> after,
+                                                             int size,
+                                                             boolean withTotal) {
+        List<QueryShape> seekShapes = shapes;
+        Map<String, Object> seekParameters = parameters;
+        if (after.isPresent()) {
+            String seekPredicate = SEEK_PREDICATES.get(order);
+            seekShapes = shapes.stream().map(shape -> shape.and(seekPredicate)).collect(Collectors.toList());
+            seekParameters = new HashMap<>(parameters);
+            seekParameters.put("cursorTimestamp", after.get().getTimestamp());
+            seekParameters.put("cursorId", after.get().getId());
+        }
 
-            baseQuery += " where " + String.join(" and ", filters);
+        List<T> result = mergeBranches(session, resultType, seekShapes, seekParameters, DATE_ORDERINGS.get(order), size + 1);
+        Long total = withTotal ? count(session, shapes, parameters) : null;
 
-            if (!sortType.isEmpty()) {
-                baseQuery += " order by " + String.join(" , ", sortType);
+        if (result.size() <= size) {
+            return new CursorPage<>(result, null, total);
+        }
+        List<T> content = result.subList(0, size);
+        return new CursorPage<>(content, TransactionCursor.of(content.get(size - 1)).encode(), total);
+    }
+
+    private <T extends TransactionRecord> List<T> mergeBranches(Session session,
+                                                                Class<T> resultType,
+                                                                List<QueryShape> shapes,
+                                                                Map<String, Object> parameters,
+                                                                Ordering ordering,
+                                                                int limit) {
+        List<T> merged = new ArrayList<>();
+        for (QueryShape shape : shapes) {
+            Query<T> query = createHistoryQuery(session, shape, ordering, resultType);
+            parameters.forEach(query::setParameter);
+            query.setMaxResults(limit);
+            merged.addAll(query.list());
+        }
+
+        if (shapes.size() > 1) {
+            merged.sort(ordering.comparator);
+        }
+        return merged.size() > limit ? merged.subList(0, limit) : merged;
+    }
+
+    private long count(Session session, List<QueryShape> shapes, Map<String, Object> parameters) {
+        long total = 0;
+        for (QueryShape shape : shapes) {
+            Query<Long> countQuery = session.createQuery(shape.count(), Long.class);
+            parameters.forEach(countQuery::setParameter);
+            total += countQuery.uniqueResult();
+        }
+        return total;
+    }
+
+    private <T> Query<T> createHistoryQuery(Session session, QueryShape shape, Ordering ordering, Class<T> resultType) {
+        if (resultType == TransactionHistoryDto.class) {
+            return session.createQuery(shape.select(HISTORY_PROJECTION, ordering.orderBy), resultType);
+        }
+        return withFetchPlan(session, session.createQuery(shape.select("", ordering.orderBy), resultType),
+                FetchPlan.TRANSACTION_DETAILS);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void describePaymentMethods(Session session, int userId, List<TransactionHistoryDto> transactions) {
+        Set<Integer> paymentMethodIds = new HashSet<>();
+        transactions.forEach(transaction -> {
+            paymentMethodIds.add(transaction.getSenderPaymentMethodId());
+            paymentMethodIds.add(transaction.getRecipientPaymentMethodId());
+        });
+        if (paymentMethodIds.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, String> names = new HashMap<>();
+        session.createQuery("select id, name from Wallet where id in :ids and user.id = :userId")
+                .setParameter("ids", paymentMethodIds)
+                .setParameter("userId", userId)
+                .list()
+                .forEach(row -> names.put((Integer) ((Object[]) row)[0], (String) ((Object[]) row)[1]));
+        session.createQuery("select id, cardNumber from Card where id in :ids and user.id = :userId")
+                .setParameter("ids", paymentMethodIds)
+                .setParameter("userId", userId)
+                .list()
+                .forEach(row -> names.put((Integer) ((Object[]) row)[0], Card.maskCardNumber((String) ((Object[]) row)[1])));
+
+        transactions.forEach(transaction -> {
+            transaction.setSenderPaymentMethodName(names.get(transaction.getSenderPaymentMethodId()));
+            transaction.setRecipientPaymentMethodName(names.get(transaction.getRecipientPaymentMethodId()));
+        });
+    }
+
+    private static Ordering filterOrdering(Optional<Sort> amount, Optional<Sort> date) {
+        Sort dateOrder = date.orElse(Sort.DESC);
+        return amount.map(sortAmount -> AMOUNT_ORDERINGS.get(sortAmount).get(dateOrder))
+                .orElse(DATE_ORDERINGS.get(dateOrder));
+    }
+
+    private static int nextHead(List<TransactionHistoryDto> heads, Ordering ordering) {
+        int next = -1;
+        for (int i = 0; i < heads.size(); i++) {
+            if (heads.get(i) != null && (next < 0 || ordering.comparator.compare(heads.get(i), heads.get(next)) < 0)) {
+                next = i;
             }
+        }
+        return next;
+    }
 
-            countBaseQuery += baseQuery;
+    private static boolean filtersByCounterparty(Optional<Direction> direction) {
+        return direction.isEmpty() || direction.get() == Direction.INCOMING || direction.get() == Direction.OUTGOING;
+    }
 
-            Query<Transaction> query = session.createQuery(baseQuery, Transaction.class);
-            Query countQuery = session.createQuery(countBaseQuery);
+    private static List<QueryShape> filterShapes(Optional<Direction> direction, boolean searched) {
+        if (direction.isEmpty()) {
+            return searched ? COUNTERPARTY_SHAPES : PERIOD_SHAPES;
+        }
+        return (searched ? COUNTERPARTY_DIRECTION_SHAPES : DIRECTION_SHAPES).get(direction.get());
+    }
 
-            query.setParameter("userId", userId);
-            countQuery.setParameter("userId", userId);
+    private static Map<String, Object> filterParameters(int userId,
+                                                        Optional<Date> startDate,
+                                                        Optional<Date> endDate,
+                                                        Optional<Integer> searchedPersonId) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("userId", userId);
+        parameters.put("startDate", startDate.orElse(EARLIEST));
+        parameters.put("endDate", endDate.orElse(LATEST));
+        searchedPersonId.ifPresent(id -> parameters.put("searchedId", id));
+        return parameters;
+    }
 
-            startDate.ifPresent(value -> {
-                query.setParameter("startDate", value);
-                countQuery.setParameter("startDate", value);
-            });
+    // The history reads exactly as they are sent, so QueryPlanVerifier explains the real SQL instead of a copy.
+    static Map<String, String> plannedQueries() {
+        Map<String, String> queries = new LinkedHashMap<>();
+        addPlannedQueries(queries, "history", HISTORY_SHAPES);
+        addPlannedQueries(queries, "history after cursor", HISTORY_SHAPES.stream()
+                .map(shape -> shape.and(SEEK_PREDICATES.get(Sort.DESC))).collect(Collectors.toList()));
+        addPlannedQueries(queries, "period", PERIOD_SHAPES);
+        addPlannedQueries(queries, "counterparty", COUNTERPARTY_SHAPES);
+        DIRECTION_SHAPES.forEach((direction, shapes) ->
+                addPlannedQueries(queries, direction.name().toLowerCase(), shapes));
+        COUNTERPARTY_DIRECTION_SHAPES.forEach((direction, shapes) ->
+                addPlannedQueries(queries, "counterparty " + direction.name().toLowerCase(), shapes));
+        return queries;
+    }
 
-            endDate.ifPresent(value -> {
-                query.setParameter("endDate", value);
-                countQuery.setParameter("endDate", value);
-            });
+    private static void addPlannedQueries(Map<String, String> queries, String name, List<QueryShape> shapes) {
+        for (int i = 0; i < shapes.size(); i++) {
+            for (Ordering ordering : List.of(DATE_ORDERINGS.get(Sort.DESC), AMOUNT_ORDERINGS.get(Sort.DESC).get(Sort.DESC))) {
+                queries.put(String.format("%s branch %d%s", name, i + 1, ordering.orderBy),
+                        shapes.get(i).select(HISTORY_PROJECTION, ordering.orderBy));
+            }
+        }
+    }
 
-            if (direction.isPresent()) {
-                if (direction.get().toString().equals("Incoming") || direction.get().toString().equals("Outgoing")) {
-                    searchedPersonId.ifPresent(integer -> {
-                        query.setParameter("searchedId", integer);
-                        countQuery.setParameter("searchedId", integer);
-                    });
-                }
-            } else {
-                searchedPersonId.ifPresent(integer -> {
-                    query.setParameter("searchedId", integer);
-                    countQuery.setParameter("searchedId", integer);
-                });
+    private static Map<Direction, List<QueryShape>> directionShapes(boolean searched) {
+        Map<Direction, List<QueryShape>> shapes = new EnumMap<>(Direction.class);
+        for (Direction direction : Direction.values()) {
+            String predicates;
+            switch (direction) {
+                case INCOMING:
+                    predicates = (searched ? "sender.id = :searchedId and " : "") +
+                            "recipient.id = :userId and " + NOT_OWN_ACCOUNT_MOVE;
+                    break;
+                case OUTGOING:
+                    predicates = (searched ? "recipient.id = :searchedId and " : "") +
+                            "sender.id = :userId and " + NOT_OWN_ACCOUNT_MOVE;
+                    break;
+                case DEPOSIT:
+                    predicates = "recipient.id = :userId and transactionType = 'CARD_TO_WALLET'";
+                    break;
+                case WITHDRAW:
+                    predicates = "recipient.id = :userId and transactionType = 'WALLET_TO_CARD'";
+                    break;
+                default:
+                    predicates = "recipient.id = :userId and transactionType = 'WALLET_TO_WALLET'";
+                    break;
             }
+            shapes.put(direction, List.of(new QueryShape(TRANSACTION, predicates + " and " + VISIBLE + " and " + IN_PERIOD)));
+        }
+        return shapes;
+    }
 
+    private void transfer(Session session, Transaction transaction, Wallet walletToWithdraw, Wallet walletToDeposit) {
+        BigDecimal amount = transaction.getAmount();
+        Map<Integer, Wallet> lockedWallets = lockTransferWallets(session, walletToWithdraw, walletToDeposit);
 
-            query.setFirstResult((pageable.getPageSize() * pageable.getPageNumber()) - pageable.getPageSize());
-            query.setMaxResults(pageable.getPageSize());
-            Long countResults = (Long) countQuery.uniqueResult();
+        if (walletToWithdraw != null) {
+            Wallet lockedWallet = lockedWallets.get(walletToWithdraw.getId());
+            if (lockedWallet.getBalance().compareTo(amount) < 0) {
+                throw new InsufficientBalanceException(INSUFFICIENT_BALANCE_MESSAGE);
+            }
+            lockedWallet.withdrawBalance(amount);
+            session.save(new LedgerEntry(lockedWallet.getId(), transaction.getId(), amount.negate()));
+            walletToWithdraw.setBalance(lockedWallet.getBalance());
+        }
 
-            return new Pages<>(query.list(), countResults, pageable);
+        if (walletToDeposit != null) {
+            Wallet lockedWallet = lockedWallets.get(walletToDeposit.getId());
+            lockedWallet.depositBalance(amount);
+            session.save(new LedgerEntry(lockedWallet.getId(), transaction.getId(), amount));
+            walletToDeposit.setBalance(lockedWallet.getBalance());
         }
     }
 
-    private void addToFiltersIfIncomingOrOutgoing(List<String> filters) {
-        filters.add("transactionType != 'WALLET_TO_WALLET'");
-        filters.add("transactionType != 'CARD_TO_WALLET'");
-        filters.add("transactionType != 'WALLET_TO_CARD'");
+    private Map<Integer, Wallet> lockTransferWallets(Session session, Wallet... wallets) {
+        return lockInIdOrder(session, Arrays.stream(wallets)
+                .filter(Objects::nonNull)
+                .map(Wallet::getId)
+                .collect(Collectors.toCollection(TreeSet::new)));
+    }
+
+    private static final class Ordering {
+
+        private final String orderBy;
+        private final String unionOrderBy;
+        private final Comparator<TransactionRecord> comparator;
+
+        private Ordering(Optional<Sort> amount, Sort date) {
+            Comparator<TransactionRecord> byDate = Comparator.comparing(TransactionRecord::getTimestampValue)
+                    .thenComparingInt(TransactionRecord::getId);
+            Comparator<TransactionRecord> dateComparator = date == Sort.DESC ? byDate.reversed() : byDate;
+
+            if (amount.isPresent()) {
+                Comparator<TransactionRecord> byAmount = Comparator.comparing(TransactionRecord::getAmount);
+                orderBy = String.format(" order by amount %s, timestamp %2$s, id %2$s", amount.get(), date);
+                unionOrderBy = String.format(" order by 3 %s, 2 %2$s, 1 %2$s", amount.get(), date);
+                comparator = (amount.get() == Sort.DESC ? byAmount.reversed() : byAmount).thenComparing(dateComparator);
+            } else {
+                orderBy = String.format(" order by timestamp %1$s, id %1$s", date);
+                unionOrderBy = String.format(" order by 2 %1$s, 1 %1$s", date);
+                comparator = dateComparator;
+            }
+        }
     }
 }
@@ -5,8 +5,10 @@ import com.team9.virtualwallet.repositories.contracts.TransactionVerificationTok
 import org.hibernate.SessionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
+@Transactional
 public class TransactionVerificationTokenRepositoryImpl extends BaseRepositoryImpl<TransactionVerificationToken> implements TransactionVerificationTokenRepository {
 
     private final SessionFactory sessionFactory;
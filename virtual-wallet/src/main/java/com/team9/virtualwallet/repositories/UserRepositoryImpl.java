@@ -2,63 +2,89 @@ package com.team9.virtualwallet.repositories;
 
 import com.team9.virtualwallet.exceptions.EntityNotFoundException;
 import com.team9.virtualwallet.models.Pages;
+import com.team9.virtualwallet.models.PaymentMethod;
 import com.team9.virtualwallet.models.User;
+import com.team9.virtualwallet.models.Wallet;
+import com.team9.virtualwallet.models.enums.FetchPlan;
+import com.team9.virtualwallet.models.enums.Type;
 import com.team9.virtualwallet.repositories.contracts.UserRepository;
+import org.hibernate.Hibernate;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.query.Query;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.*;
+import java.util.stream.Collectors;
 
 import static com.team9.virtualwallet.utils.FileUploadHelper.uploadFile;
 
 @Repository
+@Transactional
 public class UserRepositoryImpl extends BaseRepositoryImpl<User> implements UserRepository {
 
+    // Indexed by which of username, phone number and email are filtered on, one bit each.
+    private static final List<QueryShape> FILTER_SHAPES = filterShapes(List.of(
+            "username like concat('%',:username,'%')",
+            "phoneNumber like concat('%',:phoneNumber,'%')",
+            "email like concat('%',:email,'%')"));
+
     private final SessionFactory sessionFactory;
 
     @Autowired
     public UserRepositoryImpl(SessionFactory sessionFactory) {
-        super(sessionFactory, User.class);
+        super(sessionFactory, User.class, FetchPlan.USER_ACCOUNT);
         this.sessionFactory = sessionFactory;
     }
 
+    @Override
+    public void createWithDefaultWallet(User user, Wallet defaultWallet) {
+        Session session = sessionFactory.getCurrentSession();
+        session.save(user);
+
+        PaymentMethod paymentMethod = new PaymentMethod();
+        paymentMethod.setType(Type.WALLET);
+        session.save(paymentMethod);
+
+        defaultWallet.setId(paymentMethod.getId());
+        defaultWallet.setUser(user);
+        session.save(defaultWallet);
+
+        user.setDefaultWallet(defaultWallet);
+    }
+
     @Override
     public Pages<User> getAll(User user, Pageable pageable) {
-        try (Session session = sessionFactory.openSession()) {
-            Query<User> query = session.createQuery("from User", User.class);
-            query.setFirstResult((pageable.getPageSize() * pageable.getPageNumber()) - pageable.getPageSize());
-            query.setMaxResults(pageable.getPageSize());
+        Session session = sessionFactory.getCurrentSession();
+        Query<User> query = withFetchPlan(session, session.createQuery("from User", User.class), FetchPlan.USER_SUMMARY);
+        query.setFirstResult((pageable.getPageSize() * pageable.getPageNumber()) - pageable.getPageSize());
+        query.setMaxResults(pageable.getPageSize());
 
-            Query countQuery = session.createQuery("select count (id) from User");
-            Long countResults = (Long) countQuery.uniqueResult();
+        Query countQuery = session.createQuery("select count (id) from User");
+        Long countResults = (Long) countQuery.uniqueResult();
 
-            return new Pages<>(query.list(), countResults, pageable);
-        }
+        return new Pages<>(withRoles(query.list()), countResults, pageable);
     }
 
     @Override
     public Pages<User> getAllUnverified(Pageable pageable) {
-        try (Session session = sessionFactory.openSession()) {
-            Query<User> query = session.createQuery("from User where idVerified = false and isDeleted = false and idPhoto != null and selfie !=null ", User.class);
-            query.setFirstResult((pageable.getPageSize() * pageable.getPageNumber()) - pageable.getPageSize());
-            query.setMaxResults(pageable.getPageSize());
+        Session session = sessionFactory.getCurrentSession();
+        Query<User> query = withFetchPlan(session, session.createQuery("from User where idVerified = false and isDeleted = false and idPhoto != null and selfie !=null ", User.class), FetchPlan.USER_SUMMARY);
+        query.setFirstResult((pageable.getPageSize() * pageable.getPageNumber()) - pageable.getPageSize());
+        query.setMaxResults(pageable.getPageSize());
 
-            Query countQuery = session.createQuery("select count (id) from User where idVerified = false and isDeleted = false and idPhoto != null and selfie !=null ");
-            Long countResults = (Long) countQuery.uniqueResult();
+        Query countQuery = session.createQuery("select count (id) from User where idVerified = false and isDeleted = false and idPhoto != null and selfie !=null ");
+        Long countResults = (Long) countQuery.uniqueResult();
 
-            return new Pages<>(query.list(), countResults, pageable);
-        }
+        return new Pages<>(withRoles(query.list()), countResults, pageable);
     }
 
     @Override
@@ -94,28 +120,25 @@ public class UserRepositoryImpl extends BaseRepositoryImpl<User> implements User
         user.setPhoneNumber("0");
         user.setBlocked(true);
 
-        try (Session session = sessionFactory.openSession()) {
-            session.beginTransaction();
-            session.update(user);
-            session.createSQLQuery("delete from contact_list where contact_id = :id or user_id = :id ")
-                    .setParameter("id", user.getId())
-                    .setParameter("id", user.getId())
-                    .executeUpdate();
-            session.getTransaction().commit();
-        }
+        Session session = sessionFactory.getCurrentSession();
+        saveChanges(session, user);
+        session.createSQLQuery("delete from contact_list where contact_id = :id or user_id = :id ")
+                .addSynchronizedQuerySpace("contact_list")
+                .setParameter("id", user.getId())
+                .setParameter("id", user.getId())
+                .executeUpdate();
     }
 
     @Override
     public User getByFieldNotDeleted(String fieldName, String searchTerm, int userId) {
-        try (Session session = sessionFactory.openSession()) {
-            Query<User> query = session.createQuery(String.format("from User where %s = :value and isDeleted = false and id != :userId", fieldName), User.class)
-                    .setParameter("value", searchTerm)
-                    .setParameter("userId", userId);
-            if (query.list().isEmpty()) {
-                throw new EntityNotFoundException("User", fieldName, searchTerm);
-            }
-            return query.list().get(0);
+        Session session = sessionFactory.getCurrentSession();
+        Query<User> query = withFetchPlan(session, session.createQuery(String.format("from User where %s = :value and isDeleted = false and id != :userId", fieldName), User.class), FetchPlan.USER_SUMMARY)
+                .setParameter("value", searchTerm)
+                .setParameter("userId", userId);
+        if (query.list().isEmpty()) {
+            throw new EntityNotFoundException("User", fieldName, searchTerm);
         }
+        return withRoles(query.list()).get(0);
     }
 
     @Override
@@ -124,53 +147,69 @@ public class UserRepositoryImpl extends BaseRepositoryImpl<User> implements User
                               Optional<String> email,
                               Pageable pageable) {
 
-        try (Session session = sessionFactory.openSession()) {
-            var baseQuery = "from User ";
-            var countBaseQuery = "select count (id) ";
-            List<String> filters = new ArrayList<>();
+        Session session = sessionFactory.getCurrentSession();
+        Map<String, String> parameters = new HashMap<>();
+        userName.ifPresent(value -> parameters.put("username", value));
+        phoneNumber.ifPresent(value -> parameters.put("phoneNumber", value));
+        email.ifPresent(value -> parameters.put("email", value));
+
+        QueryShape shape = FILTER_SHAPES.get((userName.isPresent() ? 1 : 0)
+                | (phoneNumber.isPresent() ? 2 : 0)
+                | (email.isPresent() ? 4 : 0));
+        Query<User> query = withFetchPlan(session, session.createQuery(shape.select("", ""), User.class), FetchPlan.USER_SUMMARY);
+        Query<Long> countQuery = session.createQuery(shape.count(), Long.class);
+        parameters.forEach((name, value) -> {
+            query.setParameter(name, value);
+            countQuery.setParameter(name, value);
+        });
+
+        query.setFirstResult((pageable.getPageSize() * pageable.getPageNumber()) - pageable.getPageSize());
+        query.setMaxResults(pageable.getPageSize());
+
+        return new Pages<>(withRoles(query.list()), countQuery.uniqueResult(), pageable);
+    }
 
-            if (userName.isPresent()) {
-                filters.add(" username like concat('%',:username,'%')");
-            }
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public User getReference(int id) {
+        // The proxy only reads its row once a field other than the id is used.
+        return sessionFactory.getCurrentSession().load(User.class, id);
+    }
 
-            if (phoneNumber.isPresent()) {
-                filters.add(" phoneNumber like concat('%',:phoneNumber,'%')");
-            }
+    @Override
+    public Map<Integer, Integer> getDefaultWalletIds(Collection<Integer> userIds) {
+        Session session = sessionFactory.getCurrentSession();
+        return getDefaultWalletIds(session, userIds);
+    }
 
-            if (email.isPresent()) {
-                filters.add(" email like concat('%',:email,'%')");
-            }
+    static Map<Integer, Integer> getDefaultWalletIds(Session session, Collection<Integer> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        return session.createQuery("select u.id, w.id from User u join u.defaultWallet w " +
+                        "where u.id in :ids and u.isDeleted = false and w.isDeleted = false", Object[].class)
+                .setParameterList("ids", userIds)
+                .list()
+                .stream()
+                .collect(Collectors.toMap(row -> (Integer) row[0], row -> (Integer) row[1]));
+    }
 
-            if (!filters.isEmpty()) {
-                baseQuery += " where " + String.join(" and ", filters);
+    private static List<QueryShape> filterShapes(List<String> predicates) {
+        List<QueryShape> shapes = new ArrayList<>();
+        for (int filtered = 0; filtered < 1 << predicates.size(); filtered++) {
+            List<String> applied = new ArrayList<>();
+            for (int i = 0; i < predicates.size(); i++) {
+                if ((filtered & 1 << i) != 0) {
+                    applied.add(predicates.get(i));
+                }
             }
-
-            countBaseQuery += baseQuery;
-
-            Query<User> query = session.createQuery(baseQuery, User.class);
-            Query countQuery = session.createQuery(countBaseQuery);
-
-            userName.ifPresent(value -> {
-                query.setParameter("username", value);
-                countQuery.setParameter("username", value);
-            });
-
-            phoneNumber.ifPresent(value -> {
-                query.setParameter("phoneNumber", value);
-                countQuery.setParameter("phoneNumber", value);
-            });
-
-            email.ifPresent(value -> {
-                query.setParameter("email", value);
-                countQuery.setParameter("email", value);
-            });
-
-            query.setFirstResult((pageable.getPageSize() * pageable.getPageNumber()) - pageable.getPageSize());
-            query.setMaxResults(pageable.getPageSize());
-            Long countResults = (Long) countQuery.uniqueResult();
-
-            return new Pages<>(query.list(), countResults, pageable);
+            shapes.add(new QueryShape("User", String.join(" and ", applied)));
         }
+        return shapes;
+    }
 
+    private static List<User> withRoles(List<User> users) {
+        users.forEach(user -> Hibernate.initialize(user.getRoles()));
+        return users;
     }
-}
\ No newline at end of file
+}
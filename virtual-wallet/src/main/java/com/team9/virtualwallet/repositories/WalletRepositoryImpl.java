@@ -1,6 +1,7 @@
 package com.team9.virtualwallet.repositories;
 
 import com.team9.virtualwallet.exceptions.EntityNotFoundException;
+import com.team9.virtualwallet.models.LedgerEntry;
 import com.team9.virtualwallet.models.User;
 import com.team9.virtualwallet.models.Wallet;
 import com.team9.virtualwallet.repositories.contracts.WalletRepository;
@@ -9,11 +10,19 @@ import org.hibernate.SessionFactory;
 import org.hibernate.query.Query;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.LockModeType;
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.team9.virtualwallet.configs.ApplicationConstants.USER_WALLETS_QUERY_REGION;
 
 @Repository
+@Transactional
 public class WalletRepositoryImpl extends BaseRepositoryImpl<Wallet> implements WalletRepository {
 
     private final SessionFactory sessionFactory;
@@ -26,22 +35,22 @@ public class WalletRepositoryImpl extends BaseRepositoryImpl<Wallet> implements
 
     @Override
     public List<Wallet> getAll(User user) {
-        try (Session session = sessionFactory.openSession()) {
-            Query<Wallet> query = session.createQuery("from Wallet where user.id = :id and isDeleted = false ", Wallet.class);
-            query.setParameter("id", user.getId());
-            return query.list();
-        }
+        Session session = sessionFactory.getCurrentSession();
+        Query<Wallet> query = session.createQuery("from Wallet where user.id = :id and isDeleted = false ", Wallet.class);
+        query.setParameter("id", user.getId());
+        query.setCacheable(true);
+        query.setCacheRegion(USER_WALLETS_QUERY_REGION);
+        return query.list();
     }
 
     @Override
     public Wallet getById(int id) {
-        try (Session session = sessionFactory.openSession()) {
-            Wallet wallet = session.get(Wallet.class, id);
-            if (wallet == null) {
-                throw new EntityNotFoundException("Wallet", id);
-            }
-            return wallet;
+        Session session = sessionFactory.getCurrentSession();
+        Wallet wallet = session.get(Wallet.class, id);
+        if (wallet == null) {
+            throw new EntityNotFoundException("Wallet", id);
         }
+        return wallet;
     }
 
     @Override
@@ -53,21 +62,44 @@ public class WalletRepositoryImpl extends BaseRepositoryImpl<Wallet> implements
     @SuppressWarnings("unchecked")
     @Override
     public Object getTotalBalanceByUser(User user) {
-        try (Session session = sessionFactory.openSession()) {
-            Query<BigDecimal> query = session.createQuery("select sum(balance) from Wallet where user.id = :id");
-            query.setParameter("id", user.getId());
-            return query.getSingleResult();
-        }
+        Session session = sessionFactory.getCurrentSession();
+        Query<BigDecimal> query = session.createQuery("select sum(balance) from Wallet where user.id = :id");
+        query.setParameter("id", user.getId());
+        return query.getSingleResult();
+    }
+
+    @Override
+    public void updateBalance(Wallet wallet, BigDecimal amount) {
+        Session session = sessionFactory.getCurrentSession();
+        saveChanges(session, wallet);
+        session.save(new LedgerEntry(wallet.getId(), null, amount));
     }
 
     public boolean isDuplicate(User user, Wallet wallet) {
-        try (Session session = sessionFactory.openSession()) {
-            Query<Wallet> query = session.createQuery("from Wallet where name = :name and user.id = :user and isDeleted = false ", Wallet.class);
-            query.setParameter("user", user.getId());
-            query.setParameter("name", wallet.getName());
-            List<Wallet> result = query.list();
-            return result.size() > 0;
+        Session session = sessionFactory.getCurrentSession();
+        Query<Wallet> query = session.createQuery("from Wallet where name = :name and user.id = :user and isDeleted = false and id != :id", Wallet.class);
+        query.setParameter("user", user.getId());
+        query.setParameter("name", wallet.getName());
+        query.setParameter("id", wallet.getId());
+        List<Wallet> result = query.list();
+        return result.size() > 0;
+    }
+
+    // Locks are always taken in id order so concurrent writers touching the same wallets cannot deadlock.
+    static Map<Integer, Wallet> lockInIdOrder(Session session, Collection<Integer> walletIds) {
+        Map<Integer, Wallet> lockedWallets = session.createQuery("from Wallet where id in :ids order by id", Wallet.class)
+                .setParameterList("ids", walletIds)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .list()
+                .stream()
+                .collect(Collectors.toMap(Wallet::getId, wallet -> wallet));
+
+        for (Integer walletId : walletIds) {
+            if (!lockedWallets.containsKey(walletId)) {
+                throw new EntityNotFoundException("Wallet", walletId);
+            }
         }
+        return lockedWallets;
     }
 
 }
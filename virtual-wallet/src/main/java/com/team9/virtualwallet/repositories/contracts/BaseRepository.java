@@ -1,5 +1,6 @@
 package com.team9.virtualwallet.repositories.contracts;
 
+import com.team9.virtualwallet.models.enums.FetchPlan;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
@@ -9,10 +10,16 @@ public interface BaseRepository<E> {
 
     E getById(int id);
 
+    E getById(int id, FetchPlan fetchPlan);
+
     <V> E getByField(String fieldName, V value);
 
+    <V> E getByField(String fieldName, V value, FetchPlan fetchPlan);
+
     <V> List<E> getByFieldList(String fieldName, V value);
 
+    <V> List<E> getByFieldList(String fieldName, V value, FetchPlan fetchPlan);
+
     <V> List<E> searchByFieldList(String fieldName, V value);
 
     void create(E obj);
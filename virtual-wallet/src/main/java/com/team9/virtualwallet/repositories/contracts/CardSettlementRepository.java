@@ -0,0 +1,23 @@
+package com.team9.virtualwallet.repositories.contracts;
+
+import com.team9.virtualwallet.models.CardSettlement;
+import com.team9.virtualwallet.models.enums.TransactionStatus;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+
+public interface CardSettlementRepository {
+
+    long countPending();
+
+    List<CardSettlement> claim(int limit, Timestamp lockedUntil);
+
+    void release(Collection<Integer> transactionIds);
+
+    void complete(CardSettlement settlement, TransactionStatus outcome, String failureReason);
+
+    void retry(CardSettlement settlement, Timestamp availableAt, String failureReason);
+
+    void markDead(CardSettlement settlement, String failureReason);
+}
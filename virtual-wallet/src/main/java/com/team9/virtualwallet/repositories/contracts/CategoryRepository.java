@@ -3,6 +3,8 @@ package com.team9.virtualwallet.repositories.contracts;
 import com.team9.virtualwallet.models.Category;
 import com.team9.virtualwallet.models.User;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
@@ -11,8 +13,15 @@ public interface CategoryRepository extends BaseRepository<Category> {
 
     List<Category> getAll(User user);
 
-    boolean isDuplicate(User user, String name);
+    boolean isDuplicate(User user, Category category);
 
     Object calculateSpendings(Category category, Optional<Date> startDate, Optional<Date> endDate);
 
+    void addToDailyTotal(int categoryId, LocalDate day, BigDecimal amount);
+
+    void deleteDailyTotals(int categoryId);
+
+    void rebuildDailyTotals(int categoryId);
+
+    List<Integer> getInconsistentCategoryIds();
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.team9.virtualwallet.repositories.contracts;
+
+import com.team9.virtualwallet.models.OutboxEmail;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+
+public interface EmailOutboxRepository {
+
+    void create(Object entity, OutboxEmail email);
+
+    long countPending();
+
+    List<OutboxEmail> claim(int limit, Timestamp lockedUntil);
+
+    void markSent(Collection<Long> ids);
+
+    void release(Collection<Long> ids);
+
+    void retry(OutboxEmail email, Timestamp availableAt, String error);
+
+    void markDead(OutboxEmail email, String error);
+}
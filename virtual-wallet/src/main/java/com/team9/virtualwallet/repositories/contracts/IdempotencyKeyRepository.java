@@ -0,0 +1,16 @@
+package com.team9.virtualwallet.repositories.contracts;
+
+import com.team9.virtualwallet.models.IdempotencyKey;
+
+import java.util.Optional;
+
+public interface IdempotencyKeyRepository {
+
+    Optional<IdempotencyKey> get(int userId, String requestKey);
+
+    void create(IdempotencyKey idempotencyKey);
+
+    void complete(IdempotencyKey idempotencyKey, int transactionId);
+
+    int deleteExpired();
+}
@@ -0,0 +1,14 @@
+package com.team9.virtualwallet.repositories.contracts;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.List;
+
+public interface LedgerRepository {
+
+    BigDecimal calculateBalance(int walletId);
+
+    int snapshotBalances(Timestamp settledBefore);
+
+    List<Integer> getUnreconciledWalletIds();
+}
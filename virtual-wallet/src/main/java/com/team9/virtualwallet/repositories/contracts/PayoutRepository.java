@@ -0,0 +1,16 @@
+package com.team9.virtualwallet.repositories.contracts;
+
+import com.team9.virtualwallet.models.PayoutBatch;
+import com.team9.virtualwallet.models.PayoutItem;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface PayoutRepository {
+
+    Optional<PayoutBatch> getBatch(int senderId, String reference);
+
+    void createBatch(PayoutBatch batch);
+
+    void creditItems(PayoutBatch batch, List<PayoutItem> items);
+}
@@ -0,0 +1,17 @@
+package com.team9.virtualwallet.repositories.contracts;
+
+import com.team9.virtualwallet.models.MonthlyStatement;
+
+import java.time.YearMonth;
+import java.util.List;
+
+public interface StatementRepository {
+
+    List<Integer> getUsersWithoutStatement(YearMonth month, int limit);
+
+    int createStatements(List<Integer> userIds, YearMonth month);
+
+    List<MonthlyStatement> getAll(int userId);
+
+    MonthlyStatement getByMonth(int userId, YearMonth month);
+}
@@ -1,9 +1,12 @@
 package com.team9.virtualwallet.repositories.contracts;
 
+import com.team9.virtualwallet.models.CursorPage;
 import com.team9.virtualwallet.models.Pages;
 import com.team9.virtualwallet.models.Transaction;
+import com.team9.virtualwallet.models.TransactionCursor;
 import com.team9.virtualwallet.models.User;
 import com.team9.virtualwallet.models.Wallet;
+import com.team9.virtualwallet.models.dtos.TransactionHistoryDto;
 import com.team9.virtualwallet.models.enums.Direction;
 import com.team9.virtualwallet.models.enums.Sort;
 import org.springframework.data.domain.Pageable;
@@ -11,16 +14,21 @@ import org.springframework.data.domain.Pageable;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface TransactionRepository extends BaseRepository<Transaction> {
 
-    Pages<Transaction> getAll(User user, Pageable pageable);
+    Pages<TransactionHistoryDto> getHistory(User user, Pageable pageable);
+
+    CursorPage<TransactionHistoryDto> getHistory(User user, Optional<TransactionCursor> after, int size, boolean withTotal);
 
     List<Transaction> getLastTransactions(User user, int count);
 
     void create(Transaction transaction, Wallet walletToWithdraw, Wallet walletToDeposit);
 
-    void createExternal(Transaction transaction, Wallet wallet);
+    void createExternalDeposit(Transaction transaction, Wallet walletToDeposit);
+
+    void createExternalWithdraw(Transaction transaction, Wallet walletToWithdraw);
 
     void update(Transaction transaction, Wallet walletToWithdraw, Wallet walletToDeposit);
 
@@ -32,4 +40,32 @@ public interface TransactionRepository extends BaseRepository<Transaction> {
                               Optional<Sort> amount,
                               Optional<Sort> date,
                               Pageable pageable);
+
+    Pages<TransactionHistoryDto> filterHistory(int userId,
+                                               Optional<Direction> direction,
+                                               Optional<Date> startDate,
+                                               Optional<Date> endDate,
+                                               Optional<Integer> searchedPersonId,
+                                               Optional<Sort> amount,
+                                               Optional<Sort> date,
+                                               Pageable pageable);
+
+    CursorPage<TransactionHistoryDto> filterHistory(int userId,
+                                                    Optional<Direction> direction,
+                                                    Optional<Date> startDate,
+                                                    Optional<Date> endDate,
+                                                    Optional<Integer> searchedPersonId,
+                                                    Optional<Sort> date,
+                                                    Optional<TransactionCursor> after,
+                                                    int size,
+                                                    boolean withTotal);
+
+    void exportHistory(int userId,
+                       Optional<Direction> direction,
+                       Optional<Date> startDate,
+                       Optional<Date> endDate,
+                       Optional<Integer> searchedPersonId,
+                       Optional<Sort> amount,
+                       Optional<Sort> date,
+                       Consumer<List<TransactionHistoryDto>> consumer);
 }
@@ -2,13 +2,18 @@ package com.team9.virtualwallet.repositories.contracts;
 
 import com.team9.virtualwallet.models.Pages;
 import com.team9.virtualwallet.models.User;
+import com.team9.virtualwallet.models.Wallet;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 
 public interface UserRepository extends BaseRepository<User> {
 
+    void createWithDefaultWallet(User user, Wallet defaultWallet);
+
     Pages<User> getAll(User user, Pageable pageable);
 
     Pages<User> getAllUnverified(Pageable pageable);
@@ -21,4 +26,8 @@ public interface UserRepository extends BaseRepository<User> {
 
     void updateIdAndSelfiePhoto(User user, MultipartFile multipartFile, MultipartFile selfiePhoto);
 
+    User getReference(int id);
+
+    Map<Integer, Integer> getDefaultWalletIds(Collection<Integer> userIds);
+
 }
@@ -3,6 +3,7 @@ package com.team9.virtualwallet.repositories.contracts;
 import com.team9.virtualwallet.models.User;
 import com.team9.virtualwallet.models.Wallet;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 public interface WalletRepository extends BaseRepository<Wallet> {
@@ -12,4 +13,6 @@ public interface WalletRepository extends BaseRepository<Wallet> {
     boolean isDuplicate(User user, Wallet wallet);
 
     Object getTotalBalanceByUser(User user);
+
+    void updateBalance(Wallet wallet, BigDecimal amount);
 }
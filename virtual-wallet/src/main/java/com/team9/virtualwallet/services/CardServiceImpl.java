@@ -12,9 +12,9 @@ import com.team9.virtualwallet.repositories.contracts.PaymentMethodRepository;
 import com.team9.virtualwallet.services.contracts.CardService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.Objects;
 
 import static com.team9.virtualwallet.services.utils.Helpers.validateCardExpiryDate;
 import static com.team9.virtualwallet.services.utils.MessageConstants.DUPLICATE_CARD_NUMBER_MESSAGE;
@@ -33,11 +33,13 @@ public class CardServiceImpl implements CardService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Card> getAll(User user) {
         return repository.getAll(user);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Card getById(User user, int id) {
         Card card = repository.getById(id);
         if (card.getUser().getId() != user.getId()) {
@@ -47,6 +49,7 @@ public class CardServiceImpl implements CardService {
     }
 
     @Override
+    @Transactional
     public void create(Card card) {
         verifyUnique(card);
         validateCardExpiryDate(card);
@@ -60,18 +63,20 @@ public class CardServiceImpl implements CardService {
     }
 
     @Override
+    @Transactional
     public void update(User user, Card card) {
         if (user.getId() != card.getUser().getId()) {
             throw new UnauthorizedOperationException(String.format(UNAUTHORIZED_ACTION, "users", "update", "their own cards"));
         }
 
-        verifyUniqueUpdate(card);
+        verifyUnique(card);
         validateCardExpiryDate(card);
 
         repository.update(card);
     }
 
     @Override
+    @Transactional
     public void delete(User userExecuting, int id) {
         Card card = repository.getById(id);
         if (card.getUser().getId() != userExecuting.getId()) {
@@ -94,12 +99,4 @@ public class CardServiceImpl implements CardService {
         }
     }
 
-    private void verifyUniqueUpdate(Card card) {
-        Card cardToEdit = repository.getById(card.getId());
-
-        if (repository.isDuplicate(card) && !Objects.equals(card.getCardNumber(), cardToEdit.getCardNumber())) {
-            throw new DuplicateEntityException(DUPLICATE_CARD_NUMBER_MESSAGE);
-        }
-    }
-
 }
@@ -0,0 +1,162 @@
+package com.team9.virtualwallet.services;
+
+import com.team9.virtualwallet.configs.MonitoredTaskExecutor;
+import com.team9.virtualwallet.configs.RetryingTransactionTemplate;
+import com.team9.virtualwallet.exceptions.CardGatewayRejectedException;
+import com.team9.virtualwallet.exceptions.CardGatewayUnavailableException;
+import com.team9.virtualwallet.exceptions.SettlementBacklogFullException;
+import com.team9.virtualwallet.models.CardSettlement;
+import com.team9.virtualwallet.models.enums.TransactionStatus;
+import com.team9.virtualwallet.repositories.contracts.CardSettlementRepository;
+import com.team9.virtualwallet.services.contracts.CardSettlementService;
+import com.team9.virtualwallet.services.gateway.CardGatewayClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+import static com.team9.virtualwallet.configs.ApplicationConstants.SETTLEMENT_EXECUTOR;
+import static com.team9.virtualwallet.services.utils.MessageConstants.SETTLEMENT_BACKLOG_FULL_MESSAGE;
+
+@Service
+public class CardSettlementServiceImpl implements CardSettlementService {
+
+    public static final String OUTCOMES_METRIC = "card.settlement.outcomes";
+    public static final String BACKLOG_METRIC = "card.settlement.backlog";
+
+    private static final Logger logger = LoggerFactory.getLogger(CardSettlementServiceImpl.class);
+
+    private final CardSettlementRepository repository;
+    private final CardGatewayClient cardGatewayClient;
+    private final RetryingTransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final MonitoredTaskExecutor executor;
+    private final long maxBacklog;
+    private final int maxAttempts;
+    private final long leaseMillis;
+    private final long retryBackoffMillis;
+
+    @Autowired
+    public CardSettlementServiceImpl(CardSettlementRepository repository, CardGatewayClient cardGatewayClient,
+                                     RetryingTransactionTemplate transactionTemplate,
+                                     Environment env, MeterRegistry meterRegistry,
+                                     @Qualifier(SETTLEMENT_EXECUTOR) MonitoredTaskExecutor executor) {
+        this.repository = repository;
+        this.cardGatewayClient = cardGatewayClient;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.executor = executor;
+        maxBacklog = env.getProperty("settlement.max-backlog", Long.class, 10000L);
+        maxAttempts = env.getProperty("settlement.max-attempts", Integer.class, 5);
+        leaseMillis = env.getProperty("settlement.lease-millis", Long.class, 60000L);
+        retryBackoffMillis = env.getProperty("settlement.retry-backoff-millis", Long.class, 1000L);
+
+        meterRegistry.gauge(BACKLOG_METRIC, repository, CardSettlementRepository::countPending);
+    }
+
+    @Override
+    public void verifyCapacity() {
+        if (repository.countPending() >= maxBacklog) {
+            throw new SettlementBacklogFullException(SETTLEMENT_BACKLOG_FULL_MESSAGE);
+        }
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${settlement.poll-interval}", fixedDelayString = "${settlement.poll-interval}")
+    public int dispatch() {
+        // Only claim what the pool can take right now; the rest stays queued in the table for the next poll.
+        int free = executor.remainingCapacity();
+        if (free <= 0) {
+            return 0;
+        }
+
+        List<CardSettlement> settlements = transactionTemplate.execute(status -> repository.claim(free,
+                new Timestamp(System.currentTimeMillis() + leaseMillis)));
+        for (int i = 0; i < settlements.size(); i++) {
+            CardSettlement settlement = settlements.get(i);
+            try {
+                executor.execute(() -> settle(settlement));
+            } catch (RejectedExecutionException e) {
+                // Hand the lease back so the next poll can claim the rest instead of waiting for it to expire.
+                List<Integer> undispatched = settlements.subList(i, settlements.size()).stream()
+                        .map(CardSettlement::getTransactionId)
+                        .collect(Collectors.toList());
+                logger.warn("{} claimed settlements could not be dispatched.", undispatched.size(), e);
+                transactionTemplate.executeWithoutResult(status -> repository.release(undispatched));
+                return i;
+            }
+        }
+        return settlements.size();
+    }
+
+    @Override
+    public void settle(CardSettlement settlement) {
+        // A verdict recorded by an earlier attempt is final; asking the gateway again could charge the card twice.
+        if (settlement.getGatewayOutcome() == null) {
+            try {
+                cardGatewayClient.verifyTransfer(settlement.getTransactionId());
+                settlement.setGatewayOutcome(TransactionStatus.SETTLED);
+                settlement.setFailureReason(null);
+            } catch (CardGatewayUnavailableException e) {
+                retryOrReject(settlement, e.getMessage());
+                return;
+            } catch (CardGatewayRejectedException e) {
+                settlement.setGatewayOutcome(TransactionStatus.REJECTED);
+                settlement.setFailureReason(e.getMessage());
+            } catch (RuntimeException e) {
+                logger.error("Settlement of transaction {} failed.", settlement.getTransactionId(), e);
+                retryOrReject(settlement, null);
+                return;
+            }
+        }
+
+        try {
+            complete(settlement, settlement.getGatewayOutcome(), settlement.getFailureReason());
+        } catch (RuntimeException e) {
+            logger.error("Outcome of settlement {} could not be recorded.", settlement.getTransactionId(), e);
+            retryCompletion(settlement);
+        }
+    }
+
+    private void complete(CardSettlement settlement, TransactionStatus outcome, String failureReason) {
+        transactionTemplate.executeWithoutResult(status -> repository.complete(settlement, outcome, failureReason));
+        meterRegistry.counter(OUTCOMES_METRIC, "outcome", outcome.name()).increment();
+    }
+
+    private void retryOrReject(CardSettlement settlement, String failureReason) {
+        if (settlement.getAttempts() + 1 < maxAttempts) {
+            retry(settlement, failureReason);
+        } else {
+            complete(settlement, TransactionStatus.REJECTED, failureReason);
+        }
+    }
+
+    // Only the database step is repeated; the gateway outcome travels with the row so it is never requested twice.
+    private void retryCompletion(CardSettlement settlement) {
+        if (settlement.getAttempts() + 1 < maxAttempts) {
+            retry(settlement, settlement.getFailureReason());
+            return;
+        }
+        logger.error("Settlement {} was dead-lettered with gateway outcome {}.",
+                settlement.getTransactionId(), settlement.getGatewayOutcome());
+        transactionTemplate.executeWithoutResult(status ->
+                repository.markDead(settlement, settlement.getFailureReason()));
+        meterRegistry.counter(OUTCOMES_METRIC, "outcome", TransactionStatus.DEAD.name()).increment();
+    }
+
+    private void retry(CardSettlement settlement, String failureReason) {
+        long delay = retryBackoffMillis * (1L << Math.min(settlement.getAttempts(), 6));
+        Timestamp availableAt = new Timestamp(System.currentTimeMillis() + delay);
+        transactionTemplate.executeWithoutResult(status -> repository.retry(settlement, availableAt, failureReason));
+        meterRegistry.counter(OUTCOMES_METRIC, "outcome", "RETRY").increment();
+    }
+}
@@ -3,11 +3,14 @@ package com.team9.virtualwallet.services;
 import com.team9.virtualwallet.exceptions.DuplicateEntityException;
 import com.team9.virtualwallet.exceptions.UnauthorizedOperationException;
 import com.team9.virtualwallet.models.Category;
+import com.team9.virtualwallet.models.Transaction;
 import com.team9.virtualwallet.models.User;
+import com.team9.virtualwallet.models.enums.FetchPlan;
 import com.team9.virtualwallet.repositories.contracts.CategoryRepository;
 import com.team9.virtualwallet.services.contracts.CategoryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Date;
 import java.util.List;
@@ -28,11 +31,13 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Category> getAll(User user) {
         return repository.getAll(user);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Category getById(User user, int id) {
         Category category = repository.getById(id);
 
@@ -40,10 +45,11 @@ public class CategoryServiceImpl implements CategoryService {
             throw new UnauthorizedOperationException(UNAUTHORISED_VIEW_OF_CATEGORY_MESSAGE);
         }
 
-        return repository.getById(id);
+        return category;
     }
 
     @Override
+    @Transactional
     public void create(User user, Category category) {
         verifyNotDuplicate(user, category);
 
@@ -51,42 +57,45 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
+    @Transactional
     public void update(User user, Category category) {
         verifyOwnership(user, category, "You can only update your own categories!");
-        verifyNotDuplicateUpdate(user, category);
+        verifyNotDuplicate(user, category);
 
         repository.update(category);
     }
 
     @Override
+    @Transactional
     public void delete(User user, int id) {
-        Category category = repository.getById(id);
+        Category category = repository.getById(id, FetchPlan.CATEGORY_TRANSACTIONS);
         verifyOwnership(user, category, "You can only delete your own categories!");
 
         if (!category.getTransactions().isEmpty()) {
             category.deleteTransactions();
         }
 
+        repository.deleteDailyTotals(category.getId());
         repository.delete(category);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Object calculateSpendings(User user, Category category, Optional<Date> startDate, Optional<Date> endDate) {
         verifyOwnership(user, category, UNAUTHORISED_VIEW_OF_CATEGORY_MESSAGE);
 
         return repository.calculateSpendings(category, startDate, endDate);
     }
 
-    private void verifyNotDuplicate(User user, Category category) {
-        if (repository.isDuplicate(user, category.getName())) {
-            throw new DuplicateEntityException("Category", "name", category.getName());
-        }
+    @Override
+    @Transactional
+    public void addToSpendings(Transaction transaction) {
+        repository.addToDailyTotal(transaction.getCategory().getId(),
+                transaction.getTimestampValue().toLocalDateTime().toLocalDate(), transaction.getAmount());
     }
 
-    private void verifyNotDuplicateUpdate(User user, Category category) {
-        Category categoryToEdit = repository.getById(category.getId());
-
-        if (repository.isDuplicate(user, category.getName()) && !categoryToEdit.getName().equals(category.getName())) {
+    private void verifyNotDuplicate(User user, Category category) {
+        if (repository.isDuplicate(user, category)) {
             throw new DuplicateEntityException("Category", "name", category.getName());
         }
     }
@@ -0,0 +1,48 @@
+package com.team9.virtualwallet.services;
+
+import com.team9.virtualwallet.repositories.contracts.CategoryRepository;
+import com.team9.virtualwallet.services.contracts.CategoryTotalsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class CategoryTotalsServiceImpl implements CategoryTotalsService {
+
+    public static final String INCONSISTENT_CATEGORIES_METRIC = "category.totals.inconsistent";
+
+    private static final Logger logger = LoggerFactory.getLogger(CategoryTotalsServiceImpl.class);
+
+    private final CategoryRepository repository;
+    private final AtomicInteger inconsistentCategories;
+
+    @Autowired
+    public CategoryTotalsServiceImpl(CategoryRepository repository, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.inconsistentCategories = meterRegistry.gauge(INCONSISTENT_CATEGORIES_METRIC, new AtomicInteger());
+    }
+
+    @Override
+    public void backfill(List<Integer> categoryIds) {
+        categoryIds.forEach(repository::rebuildDailyTotals);
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${category.totals.reconciliation.interval}", fixedDelayString = "${category.totals.reconciliation.interval}")
+    public List<Integer> reconcile() {
+        List<Integer> categoryIds = repository.getInconsistentCategoryIds();
+        inconsistentCategories.set(categoryIds.size());
+
+        if (!categoryIds.isEmpty()) {
+            logger.warn("Daily totals of categories {} do not match their transactions, rebuilding them.", categoryIds);
+            backfill(categoryIds);
+        }
+        return categoryIds;
+    }
+}
@@ -0,0 +1,54 @@
+package com.team9.virtualwallet.services;
+
+import com.team9.virtualwallet.repositories.contracts.LedgerRepository;
+import com.team9.virtualwallet.services.contracts.LedgerService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.team9.virtualwallet.configs.ApplicationConstants.LEDGER_SNAPSHOT_SETTLE_MINUTES;
+
+@Service
+public class LedgerServiceImpl implements LedgerService {
+
+    public static final String UNRECONCILED_WALLETS_METRIC = "ledger.unreconciled.wallets";
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerServiceImpl.class);
+
+    private final LedgerRepository repository;
+    private final AtomicInteger unreconciledWallets;
+
+    @Autowired
+    public LedgerServiceImpl(LedgerRepository repository, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.unreconciledWallets = meterRegistry.gauge(UNRECONCILED_WALLETS_METRIC, new AtomicInteger());
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${ledger.snapshot.interval}", fixedDelayString = "${ledger.snapshot.interval}")
+    public int snapshotBalances() {
+        Timestamp settledBefore = Timestamp.valueOf(LocalDateTime.now().minusMinutes(LEDGER_SNAPSHOT_SETTLE_MINUTES));
+        return repository.snapshotBalances(settledBefore);
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${ledger.reconciliation.interval}", fixedDelayString = "${ledger.reconciliation.interval}")
+    public List<Integer> reconcile() {
+        List<Integer> walletIds = repository.getUnreconciledWalletIds();
+        unreconciledWallets.set(walletIds.size());
+
+        for (Integer walletId : walletIds) {
+            logger.warn("Wallet {} balance does not match its ledger, ledger balance is {}.",
+                    walletId, repository.calculateBalance(walletId));
+        }
+        return walletIds;
+    }
+}
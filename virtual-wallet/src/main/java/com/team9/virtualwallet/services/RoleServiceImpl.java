@@ -6,6 +6,7 @@ import com.team9.virtualwallet.repositories.contracts.RoleRepository;
 import com.team9.virtualwallet.services.contracts.RoleService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class RoleServiceImpl implements RoleService {
@@ -18,6 +19,7 @@ public class RoleServiceImpl implements RoleService {
     }
 
     @Override
+    @Transactional
     public void create(Role role) {
         if (repository.isDuplicate(role.getName())) {
             throw new DuplicateEntityException("Role", "name", role.getName());
@@ -0,0 +1,88 @@
+package com.team9.virtualwallet.services;
+
+import com.team9.virtualwallet.configs.MonitoredTaskExecutor;
+import com.team9.virtualwallet.configs.RetryingTransactionTemplate;
+import com.team9.virtualwallet.models.MonthlyStatement;
+import com.team9.virtualwallet.models.User;
+import com.team9.virtualwallet.repositories.contracts.StatementRepository;
+import com.team9.virtualwallet.services.contracts.StatementService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static com.team9.virtualwallet.configs.ApplicationConstants.*;
+
+@Service
+public class StatementServiceImpl implements StatementService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementServiceImpl.class);
+
+    private final StatementRepository repository;
+    private final RetryingTransactionTemplate transactionTemplate;
+    private final MonitoredTaskExecutor executor;
+
+    @Autowired
+    public StatementServiceImpl(StatementRepository repository, RetryingTransactionTemplate transactionTemplate,
+                                @Qualifier(REPORTING_EXECUTOR) MonitoredTaskExecutor executor) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.executor = executor;
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${statements.interval}", fixedDelayString = "${statements.interval}")
+    public int materializeClosedMonth() {
+        // A month is closed once ledger entries written around midnight on the 1st have settled.
+        YearMonth current = YearMonth.from(LocalDateTime.now().minusMinutes(LEDGER_SNAPSHOT_SETTLE_MINUTES));
+        return materialize(current.minusMonths(1));
+    }
+
+    @Override
+    public int materialize(YearMonth month) {
+        // Only pick up as many users as the pool can take right now; the rest are left for the next run.
+        int free = executor.remainingCapacity();
+        if (free <= 0) {
+            return 0;
+        }
+
+        List<Integer> userIds = transactionTemplate.execute(status ->
+                repository.getUsersWithoutStatement(month, free * STATEMENT_BATCH_SIZE));
+
+        List<CompletableFuture<Integer>> batches = new ArrayList<>();
+        for (int from = 0; from < userIds.size(); from += STATEMENT_BATCH_SIZE) {
+            List<Integer> batch = userIds.subList(from, Math.min(from + STATEMENT_BATCH_SIZE, userIds.size()));
+            batches.add(CompletableFuture.supplyAsync(() ->
+                            transactionTemplate.execute(status -> repository.createStatements(batch, month)), executor)
+                    .exceptionally(e -> {
+                        logger.error("Statements for {} of users {} could not be created.", month, batch, e);
+                        return 0;
+                    }));
+        }
+
+        return batches.stream()
+                .mapToInt(CompletableFuture::join)
+                .sum();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MonthlyStatement> getAll(User user) {
+        return repository.getAll(user.getId());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MonthlyStatement getByMonth(User user, YearMonth month) {
+        return repository.getByMonth(user.getId(), month);
+    }
+}
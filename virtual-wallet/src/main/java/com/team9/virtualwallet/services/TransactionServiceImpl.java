@@ -1,29 +1,37 @@
 package com.team9.virtualwallet.services;
 
+import com.team9.virtualwallet.configs.RetryingTransactionTemplate;
 import com.team9.virtualwallet.exceptions.UnauthorizedOperationException;
 import com.team9.virtualwallet.models.*;
+import com.team9.virtualwallet.models.dtos.TransactionHistoryDto;
 import com.team9.virtualwallet.models.enums.Direction;
 import com.team9.virtualwallet.models.enums.Sort;
+import com.team9.virtualwallet.models.enums.TransactionStatus;
 import com.team9.virtualwallet.models.enums.TransactionType;
 import com.team9.virtualwallet.repositories.contracts.*;
 import com.team9.virtualwallet.services.contracts.CardService;
+import com.team9.virtualwallet.services.contracts.CardSettlementService;
 import com.team9.virtualwallet.services.contracts.CategoryService;
 import com.team9.virtualwallet.services.contracts.TransactionService;
 import com.team9.virtualwallet.services.contracts.WalletService;
 import com.team9.virtualwallet.services.emails.SendEmailService;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
-import java.util.Date;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import static com.team9.virtualwallet.configs.ApplicationConstants.LARGE_TRANSACTION_AMOUNT;
+import static com.team9.virtualwallet.configs.ApplicationConstants.PAYOUT_CHUNK_SIZE;
+import static com.team9.virtualwallet.services.utils.Helpers.sha256Hex;
 import static com.team9.virtualwallet.services.utils.Helpers.validateCardExpiryDate;
-import static com.team9.virtualwallet.services.utils.MessageConstants.UNAUTHORIZED_ACTION;
+import static com.team9.virtualwallet.services.utils.MessageConstants.*;
 
 @Service
 public class TransactionServiceImpl implements TransactionService {
@@ -37,8 +45,11 @@ public class TransactionServiceImpl implements TransactionService {
     private final UserRepository userRepository;
     private final TransactionVerificationTokenRepository transactionVerificationTokenRepository;
     private final SendEmailService sendEmailService;
+    private final CardSettlementService cardSettlementService;
+    private final PayoutRepository payoutRepository;
+    private final RetryingTransactionTemplate transactionTemplate;
 
-    public TransactionServiceImpl(TransactionRepository repository, WalletRepository walletRepository, CardService cardService, CardRepository cardRepository, WalletService walletService, CategoryService categoryService, UserRepository userRepository, TransactionVerificationTokenRepository transactionVerificationTokenRepository, SendEmailService sendEmailService) {
+    public TransactionServiceImpl(TransactionRepository repository, WalletRepository walletRepository, CardService cardService, CardRepository cardRepository, WalletService walletService, CategoryService categoryService, UserRepository userRepository, TransactionVerificationTokenRepository transactionVerificationTokenRepository, SendEmailService sendEmailService, CardSettlementService cardSettlementService, PayoutRepository payoutRepository, RetryingTransactionTemplate transactionTemplate) {
         this.repository = repository;
         this.walletRepository = walletRepository;
         this.cardService = cardService;
@@ -48,19 +59,31 @@ public class TransactionServiceImpl implements TransactionService {
         this.userRepository = userRepository;
         this.transactionVerificationTokenRepository = transactionVerificationTokenRepository;
         this.sendEmailService = sendEmailService;
+        this.cardSettlementService = cardSettlementService;
+        this.payoutRepository = payoutRepository;
+        this.transactionTemplate = transactionTemplate;
     }
 
     @Override
-    public Pages<Transaction> getAll(User user, Pageable pageable) {
-        return repository.getAll(user, pageable);
+    @Transactional(readOnly = true)
+    public Pages<TransactionHistoryDto> getHistory(User user, Pageable pageable) {
+        return repository.getHistory(user, pageable);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TransactionHistoryDto> getHistory(User user, Optional<String> pageToken, int size, boolean withTotal) {
+        return repository.getHistory(user, pageToken.map(TransactionCursor::decode), size, withTotal);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Transaction> getLastTransactions(User user, int count) {
         return repository.getLastTransactions(user, count);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Transaction getById(User user, int id) {
         Transaction transaction = repository.getById(id);
 
@@ -68,129 +91,188 @@ public class TransactionServiceImpl implements TransactionService {
             throw new UnauthorizedOperationException("You are not the sender or recipient of this transaction!");
         }
 
-        return repository.getById(id);
+        return transaction;
     }
 
     @Override
     public void create(Transaction transaction, Optional<Integer> categoryId) {
-        Wallet senderWallet = walletRepository.getById(transaction.getSenderPaymentMethod().getId());
-        Wallet recipientWallet = transaction.getRecipient().getDefaultWallet();
-
-        walletService.verifyWalletOwnership(transaction, senderWallet);
-
-        if (transaction.getSender().getId() == transaction.getRecipient().getId()) {
-            throw new IllegalArgumentException("You can't send money to yourself!");
-        }
-        verifyUserCanMakeTransactions(transaction.getSender());
-
-        walletService.verifyEnoughBalance(senderWallet, transaction.getAmount());
-
-        categoryId.ifPresent(integer -> transaction.setCategory(categoryService.getById(transaction.getSender(), integer)));
-
-        if (transaction.getAmount().compareTo(BigDecimal.valueOf(LARGE_TRANSACTION_AMOUNT)) >= 0) {
-            transaction.setTransactionType(TransactionType.LARGE_UNVERIFIED);
-            repository.create(transaction, senderWallet, recipientWallet);
-            sendEmailService.sendEmailTransactionVerification(transaction);
-        } else {
-            transaction.setTransactionType(TransactionType.SMALL_TRANSACTION);
-            senderWallet.withdrawBalance(transaction.getAmount());
-            recipientWallet.depositBalance(transaction.getAmount());
-            repository.create(transaction, senderWallet, recipientWallet);
-        }
-
+        transactionTemplate.executeWithoutResult(status -> {
+            Wallet senderWallet = walletRepository.getById(transaction.getSenderPaymentMethod().getId());
+            Wallet recipientWallet = transaction.getRecipient().getDefaultWallet();
+
+            walletService.verifyWalletOwnership(transaction, senderWallet);
+
+            if (transaction.getSender().getId() == transaction.getRecipient().getId()) {
+                throw new IllegalArgumentException("You can't send money to yourself!");
+            }
+            verifyUserCanMakeTransactions(transaction.getSender());
+
+            walletService.verifyEnoughBalance(senderWallet, transaction.getAmount());
+
+            categoryId.ifPresent(integer -> transaction.setCategory(categoryService.getById(transaction.getSender(), integer)));
+
+            if (transaction.getAmount().compareTo(BigDecimal.valueOf(LARGE_TRANSACTION_AMOUNT)) >= 0) {
+                transaction.setTransactionType(TransactionType.LARGE_UNVERIFIED);
+                repository.create(transaction);
+                sendEmailService.sendEmailTransactionVerification(transaction);
+            } else {
+                transaction.setTransactionType(TransactionType.SMALL_TRANSACTION);
+                repository.create(transaction, senderWallet, recipientWallet);
+            }
+
+            if (transaction.getCategory() != null) {
+                categoryService.addToSpendings(transaction);
+            }
+        });
     }
 
     @Override
     public void confirmLargeTransaction(User user, String transactionVerificationToken) {
-        TransactionVerificationToken token = transactionVerificationTokenRepository.getByField("verificationToken", transactionVerificationToken);
-
-        if (user.getId() != token.getTransaction().getSender().getId()) {
-            throw new UnauthorizedOperationException("You cannot verify transaction that is not yours!");
-        }
-
-        if (Timestamp.valueOf(LocalDateTime.now()).after(token.getExpirationDate())) {
-            throw new IllegalArgumentException("The transaction verification token has expired!");
-        }
-
-        Transaction transaction = token.getTransaction();
-        verifyUserCanMakeTransactions(transaction.getSender());
-        Wallet senderWallet = walletRepository.getById(transaction.getSenderPaymentMethod().getId());
-        walletService.verifyEnoughBalance(senderWallet, transaction.getAmount());
-        Wallet recipientWallet = transaction.getRecipient().getDefaultWallet();
-        senderWallet.withdrawBalance(transaction.getAmount());
-        recipientWallet.depositBalance(transaction.getAmount());
-        transaction.setTransactionType(TransactionType.LARGE_TRANSACTION);
-        repository.update(transaction, senderWallet, recipientWallet);
+        transactionTemplate.executeWithoutResult(status -> {
+            TransactionVerificationToken token = transactionVerificationTokenRepository.getByField("verificationToken", transactionVerificationToken);
+
+            if (user.getId() != token.getTransaction().getSender().getId()) {
+                throw new UnauthorizedOperationException("You cannot verify transaction that is not yours!");
+            }
+
+            if (Timestamp.valueOf(LocalDateTime.now()).after(token.getExpirationDate())) {
+                throw new IllegalArgumentException("The transaction verification token has expired!");
+            }
+
+            Transaction transaction = token.getTransaction();
+            verifyUserCanMakeTransactions(transaction.getSender());
+            Wallet senderWallet = walletRepository.getById(transaction.getSenderPaymentMethod().getId());
+            walletService.verifyEnoughBalance(senderWallet, transaction.getAmount());
+            Wallet recipientWallet = transaction.getRecipient().getDefaultWallet();
+            transaction.setTransactionType(TransactionType.LARGE_TRANSACTION);
+            repository.update(transaction, senderWallet, recipientWallet);
+        });
     }
 
     @Override
     public void createWalletToWallet(Transaction transaction) {
-        Wallet walletToMoveFrom = walletRepository.getById(transaction.getSenderPaymentMethod().getId());
-        Wallet walletToMoveTo = walletRepository.getById(transaction.getRecipientPaymentMethod().getId());
-
-        walletService.verifyWalletsOwnership(transaction, walletToMoveFrom, walletToMoveTo);
+        transactionTemplate.executeWithoutResult(status -> {
+            Wallet walletToMoveFrom = walletRepository.getById(transaction.getSenderPaymentMethod().getId());
+            Wallet walletToMoveTo = walletRepository.getById(transaction.getRecipientPaymentMethod().getId());
 
-        if (walletToMoveTo.getId() == walletToMoveFrom.getId()) {
-            throw new IllegalArgumentException("You must select a different wallet!");
-        }
-        walletService.verifyEnoughBalance(walletToMoveFrom, transaction.getAmount());
+            walletService.verifyWalletsOwnership(transaction, walletToMoveFrom, walletToMoveTo);
 
-        walletToMoveFrom.withdrawBalance(transaction.getAmount());
-        walletToMoveTo.depositBalance(transaction.getAmount());
+            if (walletToMoveTo.getId() == walletToMoveFrom.getId()) {
+                throw new IllegalArgumentException("You must select a different wallet!");
+            }
+            walletService.verifyEnoughBalance(walletToMoveFrom, transaction.getAmount());
 
-        transaction.setTransactionType(TransactionType.WALLET_TO_WALLET);
+            transaction.setTransactionType(TransactionType.WALLET_TO_WALLET);
 
-        repository.create(transaction, walletToMoveFrom, walletToMoveTo);
+            repository.create(transaction, walletToMoveFrom, walletToMoveTo);
+        });
     }
 
 
     @Override
     public void createExternalDeposit(Transaction transaction) {
-        Card cardToWithdraw = cardRepository.getById(transaction.getSenderPaymentMethod().getId());
-        validateCardExpiryDate(cardToWithdraw);
-        Wallet walletToDeposit = walletRepository.getById(transaction.getRecipientPaymentMethod().getId());
+        transactionTemplate.executeWithoutResult(status -> {
+            Card cardToWithdraw = cardRepository.getById(transaction.getSenderPaymentMethod().getId());
+            validateCardExpiryDate(cardToWithdraw);
+            Wallet walletToDeposit = walletRepository.getById(transaction.getRecipientPaymentMethod().getId());
 
-        walletService.verifyWalletOwnership(transaction, walletToDeposit);
+            walletService.verifyWalletOwnership(transaction, walletToDeposit);
 
-        cardService.verifyCardOwnership(transaction, cardToWithdraw);
+            cardService.verifyCardOwnership(transaction, cardToWithdraw);
+            cardSettlementService.verifyCapacity();
 
-        walletToDeposit.depositBalance(transaction.getAmount());
-        repository.createExternal(transaction, walletToDeposit);
+            transaction.setStatus(TransactionStatus.PENDING);
+            repository.createExternalDeposit(transaction, walletToDeposit);
+        });
     }
 
     @Override
     public void createExternalWithdraw(Transaction transaction) {
-        Wallet walletToWithdraw = walletRepository.getById(transaction.getSenderPaymentMethod().getId());
-        Card cardToDeposit = cardRepository.getById(transaction.getRecipientPaymentMethod().getId());
-        validateCardExpiryDate(cardToDeposit);
+        transactionTemplate.executeWithoutResult(status -> {
+            Wallet walletToWithdraw = walletRepository.getById(transaction.getSenderPaymentMethod().getId());
+            Card cardToDeposit = cardRepository.getById(transaction.getRecipientPaymentMethod().getId());
+            validateCardExpiryDate(cardToDeposit);
 
-        walletService.verifyWalletOwnership(transaction, walletToWithdraw);
-        cardService.verifyCardOwnership(transaction, cardToDeposit);
+            walletService.verifyWalletOwnership(transaction, walletToWithdraw);
+            cardService.verifyCardOwnership(transaction, cardToDeposit);
 
-        walletService.verifyEnoughBalance(walletToWithdraw, transaction.getAmount());
+            walletService.verifyEnoughBalance(walletToWithdraw, transaction.getAmount());
+            cardSettlementService.verifyCapacity();
 
-        walletToWithdraw.withdrawBalance(transaction.getAmount());
-        repository.createExternal(transaction, walletToWithdraw);
+            transaction.setStatus(TransactionStatus.PENDING);
+            repository.createExternalWithdraw(transaction, walletToWithdraw);
+        });
     }
 
     @Override
-    public Pages<Transaction> filter(User user,
-                                     Optional<Direction> direction,
-                                     Optional<Date> startDate,
-                                     Optional<Date> endDate,
-                                     Optional<String> counterparty,
-                                     Optional<Sort> amount,
-                                     Optional<Sort> date,
-                                     Pageable pageable) {
+    public PayoutBatch createPayoutBatch(User sender, PayoutBatch batch) {
+        batch.setFingerprint(fingerprint(batch));
+        PayoutBatch payoutBatch = payoutRepository.getBatch(sender.getId(), batch.getReference())
+                .map(existing -> verifySameBatch(existing, batch))
+                .orElseGet(() -> openPayoutBatch(sender, batch));
+
+        List<PayoutItem> pendingItems = payoutBatch.getItems().stream()
+                .filter(PayoutItem::isPending)
+                .collect(Collectors.toList());
+        for (int from = 0; from < pendingItems.size(); from += PAYOUT_CHUNK_SIZE) {
+            List<PayoutItem> chunk = pendingItems.subList(from, Math.min(from + PAYOUT_CHUNK_SIZE, pendingItems.size()));
+            transactionTemplate.executeWithoutResult(status -> payoutRepository.creditItems(payoutBatch, chunk));
+        }
+        return payoutBatch;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Pages<TransactionHistoryDto> filterHistory(User user,
+                                                      Optional<Direction> direction,
+                                                      Optional<Date> startDate,
+                                                      Optional<Date> endDate,
+                                                      Optional<String> counterparty,
+                                                      Optional<Sort> amount,
+                                                      Optional<Sort> date,
+                                                      Pageable pageable) {
 
         Optional<Integer> counterpartyId = Optional.empty();
         if (counterparty.isPresent()) {
             counterpartyId = checkAndSetIfPresent(counterparty);
         }
-        return repository.filter(user.getId(), direction, startDate, endDate, counterpartyId, amount, date, pageable);
+        return repository.filterHistory(user.getId(), direction, startDate, endDate, counterpartyId, amount, date, pageable);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TransactionHistoryDto> filterHistory(User user,
+                                                           Optional<Direction> direction,
+                                                           Optional<Date> startDate,
+                                                           Optional<Date> endDate,
+                                                           Optional<String> counterparty,
+                                                           Optional<Sort> date,
+                                                           Optional<String> pageToken,
+                                                           int size,
+                                                           boolean withTotal) {
+
+        Optional<TransactionCursor> after = pageToken.map(TransactionCursor::decode);
+        Optional<Integer> counterpartyId = checkAndSetIfPresent(counterparty);
+        return repository.filterHistory(user.getId(), direction, startDate, endDate, counterpartyId, date, after, size, withTotal);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportHistory(User user,
+                              Optional<Direction> direction,
+                              Optional<Date> startDate,
+                              Optional<Date> endDate,
+                              Optional<String> counterparty,
+                              Optional<Sort> amount,
+                              Optional<Sort> date,
+                              Consumer<List<TransactionHistoryDto>> consumer) {
+
+        Optional<Integer> counterpartyId = checkAndSetIfPresent(counterparty);
+        repository.exportHistory(user.getId(), direction, startDate, endDate, counterpartyId, amount, date, consumer);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Pages<Transaction> employeeFilter(User userExecuting,
                                              String username,
                                              Optional<String> counterparty,
@@ -208,6 +290,68 @@ public class TransactionServiceImpl implements TransactionService {
         return repository.filter(userId, direction, startDate, endDate, counterpartyId, amount, date, pageable);
     }
 
+    private PayoutBatch openPayoutBatch(User sender, PayoutBatch batch) {
+        verifyUserCanMakeTransactions(sender);
+        Wallet wallet = walletRepository.getById(batch.getWalletId());
+        if (sender.getId() != wallet.getUser().getId()) {
+            throw new IllegalArgumentException("You are not the owner of this wallet!");
+        }
+
+        Set<Integer> recipientIds = new HashSet<>();
+        for (PayoutItem item : batch.getItems()) {
+            if (!recipientIds.add(item.getRecipientId())) {
+                throw new IllegalArgumentException(DUPLICATE_PAYOUT_RECIPIENT_MESSAGE);
+            }
+        }
+
+        Map<Integer, Integer> recipientWallets = userRepository.getDefaultWalletIds(recipientIds);
+        BigDecimal total = BigDecimal.ZERO;
+        for (PayoutItem item : batch.getItems()) {
+            if (item.getRecipientId() == sender.getId()) {
+                item.reject(PAYOUT_TO_SELF_MESSAGE);
+            } else if (!recipientWallets.containsKey(item.getRecipientId())) {
+                item.reject(PAYOUT_RECIPIENT_UNAVAILABLE_MESSAGE);
+            } else if (item.getAmount().compareTo(BigDecimal.valueOf(LARGE_TRANSACTION_AMOUNT)) >= 0) {
+                item.reject(PAYOUT_AMOUNT_TOO_LARGE_MESSAGE);
+            } else {
+                total = total.add(item.getAmount());
+            }
+        }
+        if (total.signum() == 0) {
+            throw new IllegalArgumentException(EMPTY_PAYOUT_MESSAGE);
+        }
+        walletService.verifyEnoughBalance(wallet, total);
+        batch.setTotal(total);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> payoutRepository.createBatch(batch));
+            return batch;
+        } catch (RuntimeException e) {
+            return payoutRepository.getBatch(sender.getId(), batch.getReference())
+                    .map(existing -> verifySameBatch(existing, batch))
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    // A reused reference resumes the original batch only when the request is the same one sent again.
+    private static PayoutBatch verifySameBatch(PayoutBatch existing, PayoutBatch requested) {
+        if (existing.getFingerprint() != null && !existing.getFingerprint().equals(requested.getFingerprint())) {
+            throw new IllegalArgumentException(PAYOUT_REFERENCE_REUSED_MESSAGE);
+        }
+        return existing;
+    }
+
+    static String fingerprint(PayoutBatch batch) {
+        StringBuilder request = new StringBuilder()
+                .append(batch.getWalletId()).append('|')
+                .append(batch.getDescription());
+        batch.getItems().stream()
+                .sorted(Comparator.comparingInt(PayoutItem::getRecipientId))
+                .forEach(item -> request.append('|').append(item.getRecipientId())
+                        .append(':').append(item.getAmount().stripTrailingZeros().toPlainString()));
+        return sha256Hex(request.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
     private Optional<Integer> checkAndSetIfPresent(Optional<String> searchedPersonUsername) {
         return searchedPersonUsername.map(s -> userRepository.getByField("username", s).getId());
     }
@@ -8,12 +8,15 @@ import com.team9.virtualwallet.repositories.contracts.ConfirmationTokenRepositor
 import com.team9.virtualwallet.repositories.contracts.InvitationTokenRepository;
 import com.team9.virtualwallet.repositories.contracts.RoleRepository;
 import com.team9.virtualwallet.repositories.contracts.UserRepository;
+import com.team9.virtualwallet.services.cache.AuthenticatedUserCache;
 import com.team9.virtualwallet.services.contracts.UserService;
 import com.team9.virtualwallet.services.contracts.WalletService;
 import com.team9.virtualwallet.services.emails.SendEmailServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
@@ -36,18 +39,21 @@ public class UserServiceImpl implements UserService {
     private final WalletService walletService;
     private final RoleRepository roleRepository;
     private final SendEmailServiceImpl sendEmailService;
+    private final AuthenticatedUserCache authenticatedUserCache;
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository, ConfirmationTokenRepository confirmationTokenRepository, InvitationTokenRepository invitationTokenRepository, WalletService walletService, RoleRepository roleRepository, SendEmailServiceImpl sendEmailService) {
+    public UserServiceImpl(UserRepository userRepository, ConfirmationTokenRepository confirmationTokenRepository, InvitationTokenRepository invitationTokenRepository, WalletService walletService, RoleRepository roleRepository, SendEmailServiceImpl sendEmailService, AuthenticatedUserCache authenticatedUserCache) {
         this.repository = userRepository;
         this.confirmationTokenRepository = confirmationTokenRepository;
         this.invitationTokenRepository = invitationTokenRepository;
         this.walletService = walletService;
         this.roleRepository = roleRepository;
         this.sendEmailService = sendEmailService;
+        this.authenticatedUserCache = authenticatedUserCache;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Pages<User> getAll(User user, Pageable pageable) {
         if (!user.isEmployee()) {
             throw new UnauthorizedOperationException(String.format(UNAUTHORIZED_ACTION, "employees", "view all", "users"));
@@ -56,6 +62,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Pages<User> getAllUnverified(User user, Pageable pageable) {
         if (!user.isEmployee()) {
             throw new UnauthorizedOperationException(String.format(UNAUTHORIZED_ACTION, "employees", "view all", "users"));
@@ -64,6 +71,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public User getById(User user, int id) {
         if (!user.isEmployee() && user.getId() != id) {
             throw new UnauthorizedOperationException(String.format(UNAUTHORIZED_ACTION, "employees", "view", "user"));
@@ -72,56 +80,70 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public User getByUsername(String username) {
         return repository.getByField("username", username);
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public User getReference(int id) {
+        return repository.getReference(id);
+    }
+
+    @Override
+    @Transactional
     public void create(User user, Optional<String> invitationTokenUUID) {
         verifyNotDuplicate(user);
-        repository.create(user);
-        Wallet wallet = walletService.createDefaultWallet(user);
-        user.setDefaultWallet(wallet);
-        repository.update(user);
+        repository.createWithDefaultWallet(user, walletService.buildDefaultWallet(user));
         sendEmailService.sendEmailConfirmation(user, invitationTokenUUID);
     }
 
     @Override
+    @Transactional
     public void update(User userExecuting, User user, int id) {
         if (!userExecuting.isEmployee() && userExecuting.getId() != id) {
             throw new UnauthorizedOperationException("Users can only modify their own credentials!");
         }
 
         verifyNotDuplicate(user);
-        repository.update(user);
+        save(user);
     }
 
 
     @Override
+    @Transactional
     public void updateProfilePhoto(User user, MultipartFile multipartFile) {
         repository.updateProfilePhoto(user, multipartFile);
+        authenticatedUserCache.invalidate(user.getUsername());
     }
 
     @Override
+    @Transactional
     public void updateIdAndSelfiePhoto(User user, MultipartFile idPhoto, MultipartFile selfiePhoto) {
         if (user.isIdVerified()) {
             throw new IllegalArgumentException("You have already been verified!");
         }
         repository.updateIdAndSelfiePhoto(user, idPhoto, selfiePhoto);
+        authenticatedUserCache.invalidate(user.getUsername());
     }
 
     @Override
+    @Transactional
     public void removeProfilePhoto(User user) {
         user.setUserPhoto(null);
-        repository.update(user);
+        save(user);
     }
 
     @Override
+    @Transactional
     public void delete(User user) {
         repository.delete(user);
+        authenticatedUserCache.invalidate(user.getUsername());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Pages<User> filter(User user,
                               Optional<String> userName,
                               Optional<String> phoneNumber,
@@ -137,6 +159,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public User getByField(User user, String fieldName, String searchTerm) {
 
         if (searchTerm.isEmpty()) {
@@ -146,6 +169,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public void addContact(User userExecuting, int contactId) {
         if (userExecuting.getId() == contactId) {
             throw new IllegalArgumentException("You cannot add yourself to contacts!");
@@ -155,17 +179,18 @@ public class UserServiceImpl implements UserService {
         verifyContactNotAdded(userExecuting, contactToAdd);
         userExecuting.addContact(contactToAdd);
 
-        repository.update(userExecuting);
+        save(userExecuting);
     }
 
     @Override
+    @Transactional
     public void removeContact(User userExecuting, int contactId) {
 
         User contactToDelete = repository.getById(contactId);
         verifyContactExists(userExecuting, contactToDelete);
         userExecuting.removeContact(contactToDelete.getUsername());
 
-        repository.update(userExecuting);
+        save(userExecuting);
     }
 
     @Override
@@ -174,6 +199,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public void confirmUser(String confirmationTokenUUID, Optional<String> invitationTokenUUID) {
         ConfirmationToken token = confirmationTokenRepository.getByField("confirmationToken", confirmationTokenUUID);
         User user = token.getUser();
@@ -182,7 +208,7 @@ public class UserServiceImpl implements UserService {
             throw new IllegalArgumentException("You have already verified your Email!");
         } else {
             user.setEmailVerified(true);
-            repository.update(user);
+            save(user);
             if (invitationTokenUUID.isPresent()) {
                 InvitationToken invitationToken = invitationTokenRepository.getByField("invitationToken", invitationTokenUUID.get());
                 if (!invitationToken.isUsed() && Timestamp.valueOf(LocalDateTime.now()).before(invitationToken.getExpirationDate())) {
@@ -190,7 +216,7 @@ public class UserServiceImpl implements UserService {
                     invitationTokenRepository.update(invitationToken);
                     User invitingUser = invitationToken.getInvitingUser();
                     invitingUser.setInvitedUsers(user.getInvitedUsers() + 1);
-                    repository.update(invitingUser);
+                    save(invitingUser);
                     if (invitingUser.getInvitedUsers() < MAX_ALLOWED_REFERRALS) {
                         walletService.depositBalance(invitingUser.getDefaultWallet(), BigDecimal.valueOf(FREE_BONUS_AMOUNT));
                         walletService.depositBalance(user.getDefaultWallet(), BigDecimal.valueOf(FREE_BONUS_AMOUNT));
@@ -202,36 +228,40 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public void verifyUser(User userExecuting, int userId) {
         if (!userExecuting.isEmployee()) {
             throw new UnauthorizedOperationException(String.format(UNAUTHORIZED_ACTION, "employees", "verify", "users"));
         }
         User user = repository.getById(userId);
         user.setIdVerified(true);
-        repository.update(user);
+        save(user);
     }
 
     @Override
+    @Transactional
     public void makeEmployee(User userExecuting, int userId) {
         if (!userExecuting.isEmployee()) {
             throw new UnauthorizedOperationException(String.format(UNAUTHORIZED_ACTION, "employees", "make", "employee"));
         }
         User user = repository.getById(userId);
         user.addRole(roleRepository.getById(2));
-        repository.update(user);
+        save(user);
     }
 
     @Override
+    @Transactional
     public void removeEmployee(User userExecuting, int userId) {
         if (!userExecuting.isEmployee()) {
             throw new UnauthorizedOperationException(String.format(UNAUTHORIZED_ACTION, "employees", "remove", "employee"));
         }
         User user = repository.getById(userId);
         user.removeRole(roleRepository.getById(2));
-        repository.update(user);
+        save(user);
     }
 
     @Override
+    @Transactional
     public void blockUser(User userExecuting, int id) {
         if (!userExecuting.isEmployee()) {
             throw new UnauthorizedOperationException(String.format(UNAUTHORIZED_ACTION, "employees", "block", "users"));
@@ -240,10 +270,11 @@ public class UserServiceImpl implements UserService {
         User user = repository.getById(id);
         user.setBlocked(true);
 
-        repository.update(user);
+        save(user);
     }
 
     @Override
+    @Transactional
     public void unblockUser(User userExecuting, int id) {
         if (!userExecuting.isEmployee()) {
             throw new UnauthorizedOperationException(String.format(UNAUTHORIZED_ACTION, "employees", "unblock", "users"));
@@ -252,15 +283,21 @@ public class UserServiceImpl implements UserService {
         User user = repository.getById(id);
         user.setBlocked(false);
 
-        repository.update(user);
+        save(user);
     }
 
     @Override
+    @Transactional
     public void inviteFriend(User user, String email) {
         verifyEmailNotRegistered(email);
         sendEmailService.sendEmailInvitation(user, email);
     }
 
+    private void save(User user) {
+        repository.update(user);
+        authenticatedUserCache.invalidate(user.getUsername());
+    }
+
     private Optional<String> verifyOptionalNotEmpty(Optional<String> optional) {
         if (optional.isPresent() && !optional.get().isEmpty()) {
             return optional;
@@ -274,13 +311,14 @@ public class UserServiceImpl implements UserService {
         List<User> usersByEmail = repository.getByFieldList("email", user.getEmail());
         List<User> usersByPhoneNumber = repository.getByFieldList("phoneNumber", user.getPhoneNumber());
 
-        if (!usersByUserName.isEmpty() && usersByUserName.get(0).getId() != user.getId()) {
+        // Inside a transaction the edited user is flushed before these queries run, so it may match itself.
+        if (usersByUserName.stream().anyMatch(existing -> existing.getId() != user.getId())) {
             throw new DuplicateEntityException("User", "username", user.getUsername());
         }
-        if (!usersByEmail.isEmpty() && usersByEmail.get(0).getId() != user.getId()) {
+        if (usersByEmail.stream().anyMatch(existing -> existing.getId() != user.getId())) {
             throw new DuplicateEntityException("User", "email", user.getEmail());
         }
-        if (!usersByPhoneNumber.isEmpty() && usersByPhoneNumber.get(0).getId() != user.getId()) {
+        if (usersByPhoneNumber.stream().anyMatch(existing -> existing.getId() != user.getId())) {
             throw new DuplicateEntityException("User", "phone number", user.getPhoneNumber());
         }
     }
@@ -11,14 +11,27 @@ import com.team9.virtualwallet.models.enums.Type;
 import com.team9.virtualwallet.repositories.contracts.PaymentMethodRepository;
 import com.team9.virtualwallet.repositories.contracts.UserRepository;
 import com.team9.virtualwallet.repositories.contracts.WalletRepository;
+import com.team9.virtualwallet.services.cache.AuthenticatedUserCache;
 import com.team9.virtualwallet.services.contracts.WalletService;
+import com.team9.virtualwallet.services.metrics.WalletContentionMonitor;
+import org.hibernate.StaleStateException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.OptimisticLockException;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static com.team9.virtualwallet.configs.ApplicationConstants.WALLET_UPDATE_BACKOFF_MILLIS;
+import static com.team9.virtualwallet.configs.ApplicationConstants.WALLET_UPDATE_MAX_ATTEMPTS;
+import static com.team9.virtualwallet.services.metrics.WalletContentionMonitor.DEPOSIT_OPERATION;
+import static com.team9.virtualwallet.services.metrics.WalletContentionMonitor.WITHDRAW_OPERATION;
+import static com.team9.virtualwallet.services.utils.Helpers.backOff;
 import static com.team9.virtualwallet.services.utils.MessageConstants.DUPLICATE_WALLET_NAME_MESSAGE;
+import static com.team9.virtualwallet.services.utils.MessageConstants.INSUFFICIENT_BALANCE_MESSAGE;
 
 @Service
 public class WalletServiceImpl implements WalletService {
@@ -26,34 +39,47 @@ public class WalletServiceImpl implements WalletService {
     private final WalletRepository repository;
     private final UserRepository userRepository;
     private final PaymentMethodRepository paymentMethodRepository;
+    private final WalletContentionMonitor contentionMonitor;
+    private final AuthenticatedUserCache authenticatedUserCache;
 
     @Autowired
-    public WalletServiceImpl(WalletRepository repository, UserRepository userRepository, PaymentMethodRepository paymentMethodRepository) {
+    public WalletServiceImpl(WalletRepository repository,
+                             UserRepository userRepository,
+                             PaymentMethodRepository paymentMethodRepository,
+                             WalletContentionMonitor contentionMonitor,
+                             AuthenticatedUserCache authenticatedUserCache) {
         this.repository = repository;
         this.userRepository = userRepository;
         this.paymentMethodRepository = paymentMethodRepository;
+        this.contentionMonitor = contentionMonitor;
+        this.authenticatedUserCache = authenticatedUserCache;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Wallet> getAll(User user) {
         return repository.getAll(user);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Wallet getById(User user, int id) {
-        if (repository.getById(id).getUser().getId() != user.getId()) {
+        Wallet wallet = repository.getById(id);
+        if (wallet.getUser().getId() != user.getId()) {
             throw new UnauthorizedOperationException("You can only view your own wallets!");
         }
 
-        return repository.getById(id);
+        return wallet;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Object getTotalBalanceByUser(User user) {
         return repository.getTotalBalanceByUser(user);
     }
 
     @Override
+    @Transactional
     public void create(User user, Wallet wallet) {
         verifyNotDuplicate(user, wallet);
 
@@ -65,16 +91,19 @@ public class WalletServiceImpl implements WalletService {
 
         repository.create(wallet);
         userRepository.update(user);
+        authenticatedUserCache.invalidate(user.getUsername());
     }
 
     @Override
+    @Transactional
     public void update(User user, Wallet wallet) {
         verifyOwnership(user, wallet, "You can only edit your own wallets!");
-        verifyNotDuplicateUpdate(user, wallet);
+        verifyNotDuplicate(user, wallet);
         repository.update(wallet);
     }
 
     @Override
+    @Transactional
     public void delete(User user, int id) {
         Wallet wallet = repository.getById(id);
         verifyOwnership(user, wallet, "You can only delete your own wallets!");
@@ -89,28 +118,30 @@ public class WalletServiceImpl implements WalletService {
 
     @Override
     public void depositBalance(Wallet wallet, BigDecimal funds) {
-        wallet.depositBalance(funds);
-        repository.update(wallet);
+        updateWithRetry(wallet, funds, DEPOSIT_OPERATION, current -> current.depositBalance(funds));
     }
 
     @Override
     public void withdrawBalance(Wallet wallet, BigDecimal funds) {
-        verifyEnoughBalance(wallet, funds);
-        wallet.withdrawBalance(funds);
-        repository.update(wallet);
+        updateWithRetry(wallet, funds.negate(), WITHDRAW_OPERATION, current -> {
+            verifyEnoughBalance(current, funds);
+            current.withdrawBalance(funds);
+        });
     }
 
     @Override
     public void verifyEnoughBalance(Wallet wallet, BigDecimal funds) {
         if (wallet.getBalance().compareTo(funds) < 0) {
-            throw new InsufficientBalanceException("You do not have enough money in the selected wallet!");
+            throw new InsufficientBalanceException(INSUFFICIENT_BALANCE_MESSAGE);
         }
     }
 
     @Override
+    @Transactional
     public void setDefaultWallet(User user, Wallet wallet) {
         user.setDefaultWallet(wallet);
         userRepository.update(user);
+        authenticatedUserCache.invalidate(user.getUsername());
     }
 
     @Override
@@ -128,25 +159,43 @@ public class WalletServiceImpl implements WalletService {
     }
 
     @Override
-    public Wallet createDefaultWallet(User user) {
+    public Wallet buildDefaultWallet(User user) {
         Wallet defaultWallet = new Wallet();
         defaultWallet.setName("Default Wallet");
         defaultWallet.setBalance(BigDecimal.valueOf(0));
         defaultWallet.setUser(user);
-        create(user, defaultWallet);
         return defaultWallet;
     }
 
-    private void verifyNotDuplicate(User user, Wallet wallet) {
-        if (repository.isDuplicate(user, wallet)) {
-            throw new DuplicateEntityException(DUPLICATE_WALLET_NAME_MESSAGE);
+    private void updateWithRetry(Wallet wallet, BigDecimal amount, String operation, Consumer<Wallet> change) {
+        BigDecimal originalBalance = wallet.getBalance();
+        Wallet current = wallet;
+        for (int attempt = 1; ; attempt++) {
+            change.accept(current);
+            try {
+                repository.updateBalance(current, amount);
+                break;
+            } catch (OptimisticLockingFailureException | OptimisticLockException | StaleStateException e) {
+                // The change was never stored, so the caller must not keep seeing it.
+                wallet.setBalance(originalBalance);
+                contentionMonitor.recordConflict(operation);
+                if (attempt >= WALLET_UPDATE_MAX_ATTEMPTS) {
+                    throw e;
+                }
+            }
+            contentionMonitor.recordRetry(operation);
+            backOff(WALLET_UPDATE_BACKOFF_MILLIS, attempt);
+            current = repository.getById(wallet.getId());
         }
-    }
 
-    private void verifyNotDuplicateUpdate(User user, Wallet wallet) {
-        Wallet walletToEdit = repository.getById(wallet.getId());
+        if (current != wallet) {
+            wallet.setBalance(current.getBalance());
+        }
+        wallet.setVersion(current.getVersion());
+    }
 
-        if (repository.isDuplicate(user, wallet) && !wallet.getName().equals(walletToEdit.getName())) {
+    private void verifyNotDuplicate(User user, Wallet wallet) {
+        if (repository.isDuplicate(user, wallet)) {
             throw new DuplicateEntityException(DUPLICATE_WALLET_NAME_MESSAGE);
         }
     }
@@ -0,0 +1,85 @@
+package com.team9.virtualwallet.services.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.team9.virtualwallet.models.SessionUser;
+import com.team9.virtualwallet.models.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Optional;
+
+@Component
+public class AuthenticatedUserCache {
+
+    public static final String CACHE_NAME = "authenticated-users";
+
+    private final Cache<String, CachedUser> cache;
+
+    @Autowired
+    public AuthenticatedUserCache(Environment env, MeterRegistry meterRegistry) {
+        cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(env.getProperty("authentication.cache.ttl-seconds", Long.class, 30L)))
+                .maximumSize(env.getProperty("authentication.cache.maximum-size", Long.class, 10000L))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    // Entries hold no Hibernate state, so concurrent requests can share them safely.
+    public Optional<SessionUser> get(String username, String password) {
+        CachedUser cachedUser = cache.getIfPresent(username);
+        if (cachedUser == null || !MessageDigest.isEqual(cachedUser.credentialHash, hash(password))) {
+            return Optional.empty();
+        }
+        return Optional.of(cachedUser.user);
+    }
+
+    public void put(String username, String password, User user) {
+        cache.put(username, new CachedUser(hash(password), SessionUser.of(user)));
+    }
+
+    public void invalidate(String username) {
+        if (username == null) {
+            return;
+        }
+        cache.invalidate(username);
+        // A concurrent login could cache the old row again before the surrounding transaction commits.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(username);
+                }
+            });
+        }
+    }
+
+    private static byte[] hash(String password) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(password.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class CachedUser {
+
+        private final byte[] credentialHash;
+        private final SessionUser user;
+
+        private CachedUser(byte[] credentialHash, SessionUser user) {
+            this.credentialHash = credentialHash;
+            this.user = user;
+        }
+    }
+}
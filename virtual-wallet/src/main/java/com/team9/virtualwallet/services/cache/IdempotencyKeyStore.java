@@ -0,0 +1,102 @@
+package com.team9.virtualwallet.services.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team9.virtualwallet.configs.RetryingTransactionTemplate;
+import com.team9.virtualwallet.models.IdempotencyKey;
+import com.team9.virtualwallet.models.Transaction;
+import com.team9.virtualwallet.models.User;
+import com.team9.virtualwallet.repositories.contracts.IdempotencyKeyRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Optional;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import static com.team9.virtualwallet.configs.ApplicationConstants.MAX_IDEMPOTENCY_KEY_LENGTH;
+import static com.team9.virtualwallet.services.utils.Helpers.sha256Hex;
+import static com.team9.virtualwallet.services.utils.MessageConstants.IDEMPOTENCY_KEY_REUSED_MESSAGE;
+import static com.team9.virtualwallet.services.utils.MessageConstants.INVALID_IDEMPOTENCY_KEY_MESSAGE;
+
+@Component
+public class IdempotencyKeyStore {
+
+    public static final String REPLAYS_METRIC = "transactions.idempotency.replays";
+
+    private final IdempotencyKeyRepository repository;
+    private final RetryingTransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final long ttlMillis;
+
+    @Autowired
+    public IdempotencyKeyStore(IdempotencyKeyRepository repository, RetryingTransactionTemplate transactionTemplate,
+                               Environment env, MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        ttlMillis = env.getProperty("idempotency.keys.ttl-seconds", Long.class, 86400L) * 1000;
+    }
+
+    public Transaction execute(User user, Optional<String> idempotencyKey, String operation, Object request,
+                               Supplier<Transaction> create, IntFunction<Transaction> replay) {
+        if (idempotencyKey.isEmpty()) {
+            return create.get();
+        }
+        String key = idempotencyKey.get();
+        if (key.isBlank() || key.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new IllegalArgumentException(INVALID_IDEMPOTENCY_KEY_MESSAGE);
+        }
+
+        String fingerprint = fingerprint(operation, request);
+        try {
+            // The key row commits or rolls back together with the transfer, so a failed request can be sent again.
+            return transactionTemplate.execute(status -> repository.get(user.getId(), key)
+                    .map(existing -> replay(existing, fingerprint, operation, replay))
+                    .orElseGet(() -> create(user, key, fingerprint, create)));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request with the same key committed first; answer with its transaction.
+            return transactionTemplate.execute(status -> repository.get(user.getId(), key)
+                    .map(existing -> replay(existing, fingerprint, operation, replay))
+                    .orElseThrow(() -> e));
+        }
+    }
+
+    @Scheduled(initialDelayString = "${idempotency.keys.purge-interval}", fixedDelayString = "${idempotency.keys.purge-interval}")
+    public int purgeExpired() {
+        return transactionTemplate.execute(status -> repository.deleteExpired());
+    }
+
+    private Transaction create(User user, String key, String fingerprint, Supplier<Transaction> create) {
+        IdempotencyKey idempotencyKey = new IdempotencyKey(user.getId(), key, fingerprint,
+                new Timestamp(System.currentTimeMillis() + ttlMillis));
+        repository.create(idempotencyKey);
+        Transaction transaction = create.get();
+        repository.complete(idempotencyKey, transaction.getId());
+        return transaction;
+    }
+
+    private Transaction replay(IdempotencyKey existing, String fingerprint, String operation, IntFunction<Transaction> replay) {
+        if (!existing.getFingerprint().equals(fingerprint)) {
+            throw new IllegalArgumentException(IDEMPOTENCY_KEY_REUSED_MESSAGE);
+        }
+        meterRegistry.counter(REPLAYS_METRIC, "operation", operation).increment();
+        return replay.apply(existing.getTransactionId());
+    }
+
+    private String fingerprint(String operation, Object request) {
+        try {
+            return sha256Hex(operation.getBytes(StandardCharsets.UTF_8), objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.team9.virtualwallet.services.contracts;
+
+import com.team9.virtualwallet.models.CardSettlement;
+
+public interface CardSettlementService {
+
+    void verifyCapacity();
+
+    int dispatch();
+
+    void settle(CardSettlement settlement);
+}
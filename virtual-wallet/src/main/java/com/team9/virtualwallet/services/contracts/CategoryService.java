@@ -1,6 +1,7 @@
 package com.team9.virtualwallet.services.contracts;
 
 import com.team9.virtualwallet.models.Category;
+import com.team9.virtualwallet.models.Transaction;
 import com.team9.virtualwallet.models.User;
 
 import java.util.Date;
@@ -19,4 +20,6 @@ public interface CategoryService {
     void delete(User user, int id);
 
     Object calculateSpendings(User user, Category category, Optional<Date> startDate, Optional<Date> endDate);
+
+    void addToSpendings(Transaction transaction);
 }
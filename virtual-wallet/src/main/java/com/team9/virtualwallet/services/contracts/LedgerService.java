@@ -0,0 +1,10 @@
+package com.team9.virtualwallet.services.contracts;
+
+import java.util.List;
+
+public interface LedgerService {
+
+    int snapshotBalances();
+
+    List<Integer> reconcile();
+}
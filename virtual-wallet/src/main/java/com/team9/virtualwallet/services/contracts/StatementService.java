@@ -0,0 +1,18 @@
+package com.team9.virtualwallet.services.contracts;
+
+import com.team9.virtualwallet.models.MonthlyStatement;
+import com.team9.virtualwallet.models.User;
+
+import java.time.YearMonth;
+import java.util.List;
+
+public interface StatementService {
+
+    int materializeClosedMonth();
+
+    int materialize(YearMonth month);
+
+    List<MonthlyStatement> getAll(User user);
+
+    MonthlyStatement getByMonth(User user, YearMonth month);
+}
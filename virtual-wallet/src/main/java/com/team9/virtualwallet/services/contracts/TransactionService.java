@@ -1,8 +1,11 @@
 package com.team9.virtualwallet.services.contracts;
 
+import com.team9.virtualwallet.models.CursorPage;
 import com.team9.virtualwallet.models.Pages;
+import com.team9.virtualwallet.models.PayoutBatch;
 import com.team9.virtualwallet.models.Transaction;
 import com.team9.virtualwallet.models.User;
+import com.team9.virtualwallet.models.dtos.TransactionHistoryDto;
 import com.team9.virtualwallet.models.enums.Direction;
 import com.team9.virtualwallet.models.enums.Sort;
 import org.springframework.data.domain.Pageable;
@@ -10,10 +13,13 @@ import org.springframework.data.domain.Pageable;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface TransactionService {
 
-    Pages<Transaction> getAll(User user, Pageable pageable);
+    Pages<TransactionHistoryDto> getHistory(User user, Pageable pageable);
+
+    CursorPage<TransactionHistoryDto> getHistory(User user, Optional<String> pageToken, int size, boolean withTotal);
 
     List<Transaction> getLastTransactions(User user, int count);
 
@@ -27,16 +33,28 @@ public interface TransactionService {
 
     void createExternalWithdraw(Transaction transaction);
 
+    PayoutBatch createPayoutBatch(User sender, PayoutBatch batch);
+
     void confirmLargeTransaction(User user, String transactionVerificationToken);
 
-    Pages<Transaction> filter(User user,
-                              Optional<Direction> direction,
-                              Optional<Date> startDate,
-                              Optional<Date> endDate,
-                              Optional<String> counterparty,
-                              Optional<Sort> amount,
-                              Optional<Sort> date,
-                              Pageable pageable);
+    Pages<TransactionHistoryDto> filterHistory(User user,
+                                               Optional<Direction> direction,
+                                               Optional<Date> startDate,
+                                               Optional<Date> endDate,
+                                               Optional<String> counterparty,
+                                               Optional<Sort> amount,
+                                               Optional<Sort> date,
+                                               Pageable pageable);
+
+    CursorPage<TransactionHistoryDto> filterHistory(User user,
+                                                    Optional<Direction> direction,
+                                                    Optional<Date> startDate,
+                                                    Optional<Date> endDate,
+                                                    Optional<String> counterparty,
+                                                    Optional<Sort> date,
+                                                    Optional<String> pageToken,
+                                                    int size,
+                                                    boolean withTotal);
 
     Pages<Transaction> employeeFilter(User userExecuting,
                                       String username,
@@ -47,4 +65,13 @@ public interface TransactionService {
                                       Optional<Sort> amount,
                                       Optional<Sort> date,
                                       Pageable pageable);
+
+    void exportHistory(User user,
+                       Optional<Direction> direction,
+                       Optional<Date> startDate,
+                       Optional<Date> endDate,
+                       Optional<String> counterparty,
+                       Optional<Sort> amount,
+                       Optional<Sort> date,
+                       Consumer<List<TransactionHistoryDto>> consumer);
 }
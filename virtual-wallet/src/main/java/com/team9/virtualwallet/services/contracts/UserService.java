@@ -17,6 +17,8 @@ public interface UserService {
 
     User getByUsername(String username);
 
+    User getReference(int id);
+
     User getByField(User user, String fieldName, String searchTerm);
 
     void create(User user, Optional<String> invitationTokenUUID);
@@ -0,0 +1,12 @@
+package com.team9.virtualwallet.services.emails;
+
+import com.team9.virtualwallet.models.OutboxEmail;
+
+import java.util.List;
+
+public interface EmailOutboxService {
+
+    int dispatch();
+
+    void send(List<OutboxEmail> batch);
+}
@@ -0,0 +1,156 @@
+package com.team9.virtualwallet.services.emails;
+
+import com.team9.virtualwallet.configs.MonitoredTaskExecutor;
+import com.team9.virtualwallet.models.OutboxEmail;
+import com.team9.virtualwallet.repositories.contracts.EmailOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.core.env.Environment;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
+
+import static com.team9.virtualwallet.configs.ApplicationConstants.EMAIL_EXECUTOR;
+
+@Service
+@PropertySource("classpath:messages.properties")
+public class EmailOutboxServiceImpl implements EmailOutboxService {
+
+    public static final String OUTCOMES_METRIC = "email.outbox.outcomes";
+    public static final String PENDING_METRIC = "email.outbox.pending";
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxServiceImpl.class);
+
+    private final EmailOutboxRepository repository;
+    private final JavaMailSender javaMailSender;
+    private final MeterRegistry meterRegistry;
+    private final MonitoredTaskExecutor executor;
+    private final String sender;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long leaseMillis;
+    private final long retryBackoffMillis;
+
+    @Autowired
+    public EmailOutboxServiceImpl(EmailOutboxRepository repository, JavaMailSender javaMailSender,
+                                  Environment env, MeterRegistry meterRegistry,
+                                  @Qualifier(EMAIL_EXECUTOR) MonitoredTaskExecutor executor) {
+        this.repository = repository;
+        this.javaMailSender = javaMailSender;
+        this.meterRegistry = meterRegistry;
+        this.executor = executor;
+        sender = env.getProperty("mail.sender");
+        batchSize = env.getProperty("email.outbox.batch-size", Integer.class, 20);
+        maxAttempts = env.getProperty("email.outbox.max-attempts", Integer.class, 8);
+        leaseMillis = env.getProperty("email.outbox.lease-millis", Long.class, 120000L);
+        retryBackoffMillis = env.getProperty("email.outbox.retry-backoff-millis", Long.class, 5000L);
+
+        meterRegistry.gauge(PENDING_METRIC, repository, EmailOutboxRepository::countPending);
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${email.outbox.poll-interval}", fixedDelayString = "${email.outbox.poll-interval}")
+    public int dispatch() {
+        int free = executor.remainingCapacity();
+        if (free <= 0) {
+            return 0;
+        }
+
+        List<OutboxEmail> emails = repository.claim(free * batchSize,
+                new Timestamp(System.currentTimeMillis() + leaseMillis));
+        for (int from = 0; from < emails.size(); from += batchSize) {
+            List<OutboxEmail> batch = emails.subList(from, Math.min(from + batchSize, emails.size()));
+            try {
+                executor.execute(() -> send(batch));
+            } catch (RejectedExecutionException e) {
+                // Hand the lease back so the next poll can claim the rest instead of waiting for it to expire.
+                List<Long> undispatched = new ArrayList<>();
+                emails.subList(from, emails.size()).forEach(email -> undispatched.add(email.getId()));
+                logger.warn("{} claimed emails could not be dispatched.", undispatched.size(), e);
+                repository.release(undispatched);
+                return from;
+            }
+        }
+        return emails.size();
+    }
+
+    @Override
+    public void send(List<OutboxEmail> batch) {
+        Map<MimeMessage, OutboxEmail> messages = new LinkedHashMap<>();
+        for (OutboxEmail email : batch) {
+            try {
+                messages.put(toMimeMessage(email), email);
+            } catch (MessagingException e) {
+                deadLetter(email, e.getMessage());
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        // A single send call delivers the whole batch over one SMTP connection.
+        Map<Object, Exception> failures = Collections.emptyMap();
+        try {
+            javaMailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+        } catch (MailException e) {
+            logger.warn("Email batch of {} could not be sent.", messages.size(), e);
+            Map<Object, Exception> all = new HashMap<>();
+            messages.keySet().forEach(message -> all.put(message, e));
+            failures = all;
+        }
+
+        List<Long> sent = new ArrayList<>();
+        for (Map.Entry<MimeMessage, OutboxEmail> entry : messages.entrySet()) {
+            Exception failure = failures.get(entry.getKey());
+            if (failure == null) {
+                sent.add(entry.getValue().getId());
+            } else {
+                fail(entry.getValue(), failure.getMessage());
+            }
+        }
+        repository.markSent(sent);
+        meterRegistry.counter(OUTCOMES_METRIC, "outcome", "SENT").increment(sent.size());
+    }
+
+    private MimeMessage toMimeMessage(OutboxEmail email) throws MessagingException {
+        MimeMessage message = javaMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
+        helper.setFrom(sender);
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getBody(), true);
+        return message;
+    }
+
+    private void fail(OutboxEmail email, String error) {
+        if (email.getAttempts() + 1 >= maxAttempts) {
+            deadLetter(email, error);
+            return;
+        }
+        long delay = retryBackoffMillis * (1L << Math.min(email.getAttempts(), 10));
+        repository.retry(email, new Timestamp(System.currentTimeMillis() + delay), error);
+        meterRegistry.counter(OUTCOMES_METRIC, "outcome", "RETRY").increment();
+    }
+
+    private void deadLetter(OutboxEmail email, String error) {
+        logger.error("Email {} to {} was dead-lettered: {}", email.getId(), email.getRecipient(), error);
+        repository.markDead(email, error);
+        meterRegistry.counter(OUTCOMES_METRIC, "outcome", "DEAD").increment();
+    }
+}
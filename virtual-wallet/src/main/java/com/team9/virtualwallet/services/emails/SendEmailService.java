@@ -2,8 +2,6 @@ package com.team9.virtualwallet.services.emails;
 
 import com.team9.virtualwallet.models.Transaction;
 import com.team9.virtualwallet.models.User;
-import org.springframework.mail.javamail.MimeMessagePreparator;
-import org.springframework.scheduling.annotation.Async;
 
 import java.util.Optional;
 
@@ -13,7 +11,4 @@ public interface SendEmailService {
     void sendEmailInvitation(User invitingUser, String recipientEmail);
 
     void sendEmailTransactionVerification(Transaction transaction);
-
-    @Async
-    void sendMail(MimeMessagePreparator email);
 }
@@ -1,20 +1,11 @@
 package com.team9.virtualwallet.services.emails;
 
 import com.team9.virtualwallet.models.*;
-import com.team9.virtualwallet.services.contracts.ConfirmationTokenService;
-import com.team9.virtualwallet.services.contracts.InvitationTokenService;
-import com.team9.virtualwallet.services.contracts.TransactionVerificationTokenService;
+import com.team9.virtualwallet.repositories.contracts.EmailOutboxRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.PropertySource;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessagePreparator;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.util.ResourceUtils;
 
-import javax.mail.Message;
-import javax.mail.internet.InternetAddress;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.sql.Timestamp;
@@ -25,26 +16,16 @@ import static com.team9.virtualwallet.configs.ApplicationConstants.FREE_BONUS_AM
 import static com.team9.virtualwallet.configs.ApplicationConstants.LARGE_TRANSACTION_AMOUNT;
 
 @Service
-@PropertySource("classpath:messages.properties")
 public class SendEmailServiceImpl implements SendEmailService {
 
-    @Value("${mail.sender}")
-    private String sender;
-
-    private final JavaMailSender javaMailSender;
+    private final EmailOutboxRepository outboxRepository;
     private final String confirmationMailTemplate;
     private final String invitationMailTemplate;
     private final String transactionVerificationMailTemplate;
-    private final ConfirmationTokenService confirmationTokenService;
-    private final InvitationTokenService invitationTokenService;
-    private final TransactionVerificationTokenService transactionVerificationTokenService;
 
     @Autowired
-    public SendEmailServiceImpl(JavaMailSender javaMailSender, ConfirmationTokenService confirmationTokenService, InvitationTokenService invitationTokenService, TransactionVerificationTokenService transactionVerificationTokenService) throws IOException {
-        this.javaMailSender = javaMailSender;
-        this.confirmationTokenService = confirmationTokenService;
-        this.invitationTokenService = invitationTokenService;
-        this.transactionVerificationTokenService = transactionVerificationTokenService;
+    public SendEmailServiceImpl(EmailOutboxRepository outboxRepository) throws IOException {
+        this.outboxRepository = outboxRepository;
         this.confirmationMailTemplate = Files.readString(ResourceUtils.getFile("classpath:templates/email-templates/verify-email-template.html").toPath());
         this.invitationMailTemplate = Files.readString(ResourceUtils.getFile("classpath:templates/email-templates/invitation-email-template.html").toPath());
         this.transactionVerificationMailTemplate = Files.readString(ResourceUtils.getFile("classpath:templates/email-templates/transaction-verification-email-template.html").toPath());
@@ -55,20 +36,14 @@ public class SendEmailServiceImpl implements SendEmailService {
         LocalDateTime localDateTime = LocalDateTime.now();
         Timestamp timestamp = Timestamp.valueOf(localDateTime);
         String time = timestamp.toString();
-        ConfirmationToken confirmationToken = confirmationTokenService.create(user);
+        ConfirmationToken confirmationToken = new ConfirmationToken(user);
         String url = confirmationToken.getConfirmationToken();
         if (invitationTokenUUID.isPresent()) {
             url += String.format("&invitation-token=%s", invitationTokenUUID.get());
         }
         String html = String.format(confirmationMailTemplate, user.getFirstName(), user.getLastName(), url, time);
 
-        MimeMessagePreparator messagePreparator = mimeMessage -> {
-            mimeMessage.setRecipient(Message.RecipientType.TO, new InternetAddress(user.getEmail()));
-            mimeMessage.setFrom(new InternetAddress(sender));
-            mimeMessage.setSubject("Confirm your Registration!");
-            mimeMessage.setContent(html, "text/html; charset=utf-8");
-        };
-        sendMail(messagePreparator);
+        outboxRepository.create(confirmationToken, new OutboxEmail(user.getEmail(), "Confirm your Registration!", html));
     }
 
     @Override
@@ -76,16 +51,10 @@ public class SendEmailServiceImpl implements SendEmailService {
         LocalDateTime localDateTime = LocalDateTime.now();
         Timestamp timestamp = Timestamp.valueOf(localDateTime);
         String time = timestamp.toString();
-        InvitationToken invitationToken = invitationTokenService.create(invitingUser, recipientEmail);
+        InvitationToken invitationToken = new InvitationToken(invitingUser, recipientEmail);
         String html = String.format(invitationMailTemplate, FREE_BONUS_AMOUNT, invitationToken.getInvitationToken(), time);
 
-        MimeMessagePreparator messagePreparator = mimeMessage -> {
-            mimeMessage.setRecipient(Message.RecipientType.TO, new InternetAddress(recipientEmail));
-            mimeMessage.setFrom(new InternetAddress(sender));
-            mimeMessage.setSubject(String.format("A Friend Invited To Join Virtual Wallet - Get %s BGN Free Bonus!", FREE_BONUS_AMOUNT));
-            mimeMessage.setContent(html, "text/html; charset=utf-8");
-        };
-        sendMail(messagePreparator);
+        outboxRepository.create(invitationToken, new OutboxEmail(recipientEmail, String.format("A Friend Invited To Join Virtual Wallet - Get %s BGN Free Bonus!", FREE_BONUS_AMOUNT), html));
     }
 
     @Override
@@ -93,22 +62,10 @@ public class SendEmailServiceImpl implements SendEmailService {
         LocalDateTime localDateTime = LocalDateTime.now();
         Timestamp timestamp = Timestamp.valueOf(localDateTime);
         String time = timestamp.toString();
-        TransactionVerificationToken transactionVerificationToken = transactionVerificationTokenService.create(transaction);
+        TransactionVerificationToken transactionVerificationToken = new TransactionVerificationToken(transaction);
         String html = String.format(transactionVerificationMailTemplate, LARGE_TRANSACTION_AMOUNT, transaction.getAmount(), transaction.getRecipient().getFirstName(), transaction.getRecipient().getLastName(), transactionVerificationToken.getVerificationToken(), time);
 
-        MimeMessagePreparator messagePreparator = mimeMessage -> {
-            mimeMessage.setRecipient(Message.RecipientType.TO, new InternetAddress(transaction.getSender().getEmail()));
-            mimeMessage.setFrom(new InternetAddress(sender));
-            mimeMessage.setSubject("Large Transaction Verification - Virtual Wallet");
-            mimeMessage.setContent(html, "text/html; charset=utf-8");
-        };
-        sendMail(messagePreparator);
-    }
-
-    @Async
-    @Override
-    public void sendMail(MimeMessagePreparator email) {
-        javaMailSender.send(email);
+        outboxRepository.create(transactionVerificationToken, new OutboxEmail(transaction.getSender().getEmail(), "Large Transaction Verification - Virtual Wallet", html));
     }
 
 }
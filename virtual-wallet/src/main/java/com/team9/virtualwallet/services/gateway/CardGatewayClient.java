@@ -0,0 +1,6 @@
+package com.team9.virtualwallet.services.gateway;
+
+public interface CardGatewayClient {
+
+    void verifyTransfer(int transactionId);
+}
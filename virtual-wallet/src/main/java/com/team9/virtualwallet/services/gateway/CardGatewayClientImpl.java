@@ -0,0 +1,138 @@
+package com.team9.virtualwallet.services.gateway;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team9.virtualwallet.exceptions.CardGatewayRejectedException;
+import com.team9.virtualwallet.exceptions.CardGatewayUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.team9.virtualwallet.configs.ApplicationConstants.IDEMPOTENCY_KEY_HEADER;
+import static com.team9.virtualwallet.services.utils.Helpers.backOff;
+import static com.team9.virtualwallet.services.utils.MessageConstants.CARD_GATEWAY_UNAVAILABLE_MESSAGE;
+import static com.team9.virtualwallet.services.utils.MessageConstants.CARD_TRANSFER_REJECTED_MESSAGE;
+
+@Component
+public class CardGatewayClientImpl implements CardGatewayClient {
+
+    public static final String REQUESTS_METRIC = "card.gateway.requests";
+    public static final String SHORT_CIRCUITED_METRIC = "card.gateway.short.circuited";
+    public static final String CIRCUIT_OPEN_METRIC = "card.gateway.circuit.open";
+
+    private final HttpClient httpClient;
+    private final URI uri;
+    private final Duration readTimeout;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final CircuitBreaker circuitBreaker;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public CardGatewayClientImpl(Environment env, MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(env.getProperty("card-gateway.connect-timeout-millis", Long.class, 500L)))
+                .build();
+        uri = URI.create(env.getProperty("card-gateway.url", "http://localhost/api/dummy"));
+        readTimeout = Duration.ofMillis(env.getProperty("card-gateway.read-timeout-millis", Long.class, 2000L));
+        maxAttempts = env.getProperty("card-gateway.max-attempts", Integer.class, 3);
+        retryBackoffMillis = env.getProperty("card-gateway.retry-backoff-millis", Long.class, 50L);
+        circuitBreaker = new CircuitBreaker(
+                env.getProperty("card-gateway.circuit-breaker.failure-threshold", Integer.class, 5),
+                Duration.ofMillis(env.getProperty("card-gateway.circuit-breaker.open-millis", Long.class, 30000L)));
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder(CIRCUIT_OPEN_METRIC, circuitBreaker, breaker -> breaker.isOpen() ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void verifyTransfer(int transactionId) {
+        if (!circuitBreaker.tryAcquire()) {
+            meterRegistry.counter(SHORT_CIRCUITED_METRIC).increment();
+            throw new CardGatewayUnavailableException(CARD_GATEWAY_UNAVAILABLE_MESSAGE);
+        }
+
+        HttpStatus status;
+        try {
+            status = requestStatus(transactionId);
+        } catch (RuntimeException e) {
+            circuitBreaker.onFailure();
+            throw e;
+        }
+        circuitBreaker.onSuccess();
+
+        if (status.isError()) {
+            throw new CardGatewayRejectedException(CARD_TRANSFER_REJECTED_MESSAGE);
+        }
+    }
+
+    private HttpStatus requestStatus(int transactionId) {
+        // The same key on every attempt lets the gateway recognise a retried transfer instead of charging it again.
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(readTimeout)
+                .header(IDEMPOTENCY_KEY_HEADER, String.valueOf(transactionId))
+                .GET()
+                .build();
+        for (int attempt = 1; ; attempt++) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                HttpResponse<String> response = await(httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+                if (response.statusCode() != HttpStatus.OK.value()) {
+                    throw new IOException("Card gateway responded with " + response.statusCode());
+                }
+                HttpStatus status = objectMapper.readValue(response.body(), HttpStatus.class);
+                sample.stop(timer("success"));
+                return status;
+            } catch (IOException e) {
+                sample.stop(timer("failure"));
+                if (attempt >= maxAttempts) {
+                    throw new CardGatewayUnavailableException(CARD_GATEWAY_UNAVAILABLE_MESSAGE, e);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CardGatewayUnavailableException(CARD_GATEWAY_UNAVAILABLE_MESSAGE, e);
+            }
+            backOff(retryBackoffMillis, attempt);
+        }
+    }
+
+    // The request timeout only covers the response headers; this deadline also bounds reading the body.
+    private HttpResponse<String> await(CompletableFuture<HttpResponse<String>> response) throws IOException, InterruptedException {
+        try {
+            return response.get(readTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+        } catch (TimeoutException e) {
+            response.cancel(true);
+            throw new HttpTimeoutException("Card gateway did not respond within " + readTimeout.toMillis() + "ms");
+        } catch (InterruptedException e) {
+            response.cancel(true);
+            throw e;
+        }
+    }
+
+    private Timer timer(String outcome) {
+        return Timer.builder(REQUESTS_METRIC)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -1,9 +1,12 @@
 package com.team9.virtualwallet.services.mappers;
 
+import com.team9.virtualwallet.models.PayoutBatch;
+import com.team9.virtualwallet.models.PayoutItem;
 import com.team9.virtualwallet.models.Transaction;
 import com.team9.virtualwallet.models.User;
 import com.team9.virtualwallet.models.dtos.ExternalTransactionDto;
 import com.team9.virtualwallet.models.dtos.MoveToWalletTransactionDto;
+import com.team9.virtualwallet.models.dtos.PayoutBatchDto;
 import com.team9.virtualwallet.models.dtos.TransactionDto;
 import com.team9.virtualwallet.models.enums.TransactionType;
 import com.team9.virtualwallet.repositories.contracts.PaymentMethodRepository;
@@ -13,6 +16,7 @@ import org.springframework.stereotype.Component;
 
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.stream.Collectors;
 
 @Component
 public class TransactionModelMapper {
@@ -90,4 +94,19 @@ public class TransactionModelMapper {
         return transaction;
     }
 
+    public PayoutBatch fromPayoutDto(User user, PayoutBatchDto payoutBatchDto) {
+        PayoutBatch batch = new PayoutBatch();
+
+        batch.setSenderId(user.getId());
+        batch.setWalletId(payoutBatchDto.getSelectedWalletId());
+        batch.setReference(payoutBatchDto.getReference());
+        batch.setDescription(payoutBatchDto.getDescription());
+        batch.setCreatedAt(Timestamp.valueOf(LocalDateTime.now()));
+        batch.setItems(payoutBatchDto.getItems().stream()
+                .map(item -> new PayoutItem(item.getRecipientId(), item.getAmount()))
+                .collect(Collectors.toList()));
+
+        return batch;
+    }
+
 }
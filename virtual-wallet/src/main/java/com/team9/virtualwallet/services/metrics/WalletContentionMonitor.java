@@ -0,0 +1,30 @@
+package com.team9.virtualwallet.services.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class WalletContentionMonitor {
+
+    public static final String CONFLICTS_METRIC = "wallet.optimistic.conflicts";
+    public static final String RETRIES_METRIC = "wallet.optimistic.retries";
+    public static final String DEPOSIT_OPERATION = "deposit";
+    public static final String WITHDRAW_OPERATION = "withdraw";
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public WalletContentionMonitor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Tagged by operation only; a tag per wallet id would register a new time series for every wallet.
+    public void recordConflict(String operation) {
+        meterRegistry.counter(CONFLICTS_METRIC, "operation", operation).increment();
+    }
+
+    public void recordRetry(String operation) {
+        meterRegistry.counter(RETRIES_METRIC, "operation", operation).increment();
+    }
+}
@@ -3,7 +3,11 @@ package com.team9.virtualwallet.services.utils;
 import com.team9.virtualwallet.exceptions.CardExpiredException;
 import com.team9.virtualwallet.models.Card;
 
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class Helpers {
 
@@ -12,4 +16,26 @@ public class Helpers {
             throw new CardExpiredException();
         }
     }
+
+    public static void backOff(long baseMillis, int attempt) {
+        long delay = baseMillis * (1L << Math.min(attempt - 1, 6));
+        try {
+            Thread.sleep(delay + ThreadLocalRandom.current().nextLong(baseMillis + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry.", e);
+        }
+    }
+
+    public static String sha256Hex(byte[]... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (byte[] part : parts) {
+                digest.update(part);
+            }
+            return String.format("%064x", new BigInteger(1, digest.digest()));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
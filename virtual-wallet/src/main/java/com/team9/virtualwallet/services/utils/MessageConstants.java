@@ -9,4 +9,32 @@ public class MessageConstants {
     public static final String UNAUTHORISED_VIEW_OF_CATEGORY_MESSAGE = "You can only view your own categories!";
 
     public static final String DUPLICATE_CARD_NUMBER_MESSAGE = "Card with same card number already exists!";
+
+    public static final String INSUFFICIENT_BALANCE_MESSAGE = "You do not have enough money in the selected wallet!";
+
+    public static final String INVALID_PAGE_TOKEN_MESSAGE = "The page token is invalid!";
+
+    public static final String DUPLICATE_PAYOUT_RECIPIENT_MESSAGE = "Each recipient can appear only once in a payout batch!";
+
+    public static final String EMPTY_PAYOUT_MESSAGE = "The payout batch has no recipients that can be paid!";
+
+    public static final String PAYOUT_TO_SELF_MESSAGE = "You can't send money to yourself!";
+
+    public static final String PAYOUT_RECIPIENT_UNAVAILABLE_MESSAGE = "The recipient does not have an active wallet!";
+
+    public static final String PAYOUT_AMOUNT_TOO_LARGE_MESSAGE = "Large transactions must be sent and verified individually!";
+
+    public static final String PAYOUT_REFERENCE_REUSED_MESSAGE = "The payout reference was already used for a different batch!";
+
+    public static final String INVALID_IDEMPOTENCY_KEY_MESSAGE = "The idempotency key must be between 1 and 255 characters!";
+
+    public static final String IDEMPOTENCY_KEY_REUSED_MESSAGE = "The idempotency key was already used for a different request!";
+
+    public static final String PAGE_TOKEN_WITH_AMOUNT_SORT_MESSAGE = "A pageToken cannot be combined with sorting by amount!";
+
+    public static final String CARD_TRANSFER_REJECTED_MESSAGE = "Sorry your transfer is rejected";
+
+    public static final String CARD_GATEWAY_UNAVAILABLE_MESSAGE = "The card gateway is currently unavailable, please try again later!";
+
+    public static final String SETTLEMENT_BACKLOG_FULL_MESSAGE = "Too many card transfers are waiting to be settled, please try again later!";
 }
@@ -0,0 +1,27 @@
+create table monthly_statements
+(
+    statement_id    bigint auto_increment
+        primary key,
+    user_id         int                                   not null,
+    statement_month date                                  not null,
+    opening_balance decimal(19, 2)                        not null,
+    incoming        decimal(19, 2)                        not null,
+    outgoing        decimal(19, 2)                        not null,
+    closing_balance decimal(19, 2)                        not null,
+    created_at      timestamp default current_timestamp() not null,
+    constraint monthly_statements_user_month_uk
+        unique (user_id, statement_month),
+    constraint monthly_statements_users_fk
+        foreign key (user_id) references users (user_id)
+);
+
+create table monthly_statement_categories
+(
+    statement_id  bigint         not null,
+    category_id   int            not null,
+    category_name varchar(20)    not null,
+    total         decimal(19, 2) not null,
+    primary key (statement_id, category_id),
+    constraint monthly_statement_categories_statements_fk
+        foreign key (statement_id) references monthly_statements (statement_id)
+);
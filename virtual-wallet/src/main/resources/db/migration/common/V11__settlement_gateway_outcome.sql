@@ -0,0 +1,2 @@
+alter table card_settlements
+    add gateway_outcome varchar(20) null;
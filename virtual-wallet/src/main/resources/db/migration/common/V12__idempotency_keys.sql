@@ -0,0 +1,19 @@
+create table idempotency_keys
+(
+    idempotency_key_id bigint auto_increment
+        primary key,
+    user_id            int          not null,
+    idempotency_key    varchar(255) not null,
+    fingerprint        char(64)     not null,
+    transaction_id     int          null,
+    expires_at         timestamp    not null,
+    constraint idempotency_keys_user_key_uindex
+        unique (user_id, idempotency_key),
+    constraint idempotency_keys_users_fk
+        foreign key (user_id) references users (user_id),
+    constraint idempotency_keys_transactions_fk
+        foreign key (transaction_id) references transactions (transaction_id)
+);
+
+create index idempotency_keys_expires_at_idx
+    on idempotency_keys (expires_at);
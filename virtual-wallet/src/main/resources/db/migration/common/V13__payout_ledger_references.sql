@@ -0,0 +1,12 @@
+alter table ledger_entries
+    add payout_batch_id int null;
+
+alter table ledger_entries
+    add payout_recipient_id int null;
+
+alter table ledger_entries
+    add constraint ledger_entries_payout_batches_fk
+        foreign key (payout_batch_id) references payout_batches (batch_id);
+
+alter table payout_batches
+    add fingerprint char(64) null;
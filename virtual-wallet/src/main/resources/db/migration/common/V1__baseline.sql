@@ -66,7 +66,7 @@ create table confirmation_tokens
     token_id           bigint auto_increment
         primary key,
     confirmation_token varchar(255)                          not null,
-    created_date       timestamp default current_timestamp() not null on update current_timestamp(),
+    created_date       timestamp default current_timestamp() on update current_timestamp() not null,
     user_id            int                                   not null,
     constraint confirmation_tokens_users_fk
         foreign key (user_id) references users (user_id)
@@ -87,7 +87,7 @@ create table invitation_tokens
     token_id         int auto_increment
         primary key,
     invitation_token varchar(255)                           not null,
-    expiration_date  timestamp  default current_timestamp() not null on update current_timestamp(),
+    expiration_date  timestamp  default current_timestamp() on update current_timestamp() not null,
     inviting_user_id int                                    not null,
     invited_email    varchar(50)                            not null,
     used             tinyint(1) default 0                   not null,
@@ -99,7 +99,7 @@ create table transactions
 (
     transaction_id              int auto_increment
         primary key,
-    timestamp                   timestamp default current_timestamp()                                                                                       not null on update current_timestamp(),
+    timestamp                   timestamp default current_timestamp() on update current_timestamp() not null,
     sender_id                   int                                                                                                                         not null,
     recipient_id                int                                                                                                                         not null,
     amount                      decimal(19, 2)                                                                                                              not null,
@@ -132,7 +132,7 @@ create table transaction_verification_tokens
     token_id           int auto_increment
         primary key,
     verification_token varchar(500)                          not null,
-    expiration_date    timestamp default current_timestamp() not null on update current_timestamp(),
+    expiration_date    timestamp default current_timestamp() on update current_timestamp() not null,
     transaction_id     int                                   not null,
     constraint transaction_verification_tokens_transactions_fk
         foreign key (transaction_id) references transactions (transaction_id)
@@ -0,0 +1,2 @@
+alter table wallets
+    add version int default 0 not null;
@@ -0,0 +1,35 @@
+create table ledger_entries
+(
+    entry_id       bigint auto_increment
+        primary key,
+    wallet_id      int                                   not null,
+    transaction_id int                                   null,
+    amount         decimal(19, 2)                        not null,
+    created_at     timestamp default current_timestamp() not null,
+    constraint ledger_entries_wallets_fk
+        foreign key (wallet_id) references wallets (wallet_id),
+    constraint ledger_entries_transactions_fk
+        foreign key (transaction_id) references transactions (transaction_id)
+);
+
+create index ledger_entries_wallet_entry_idx
+    on ledger_entries (wallet_id, entry_id);
+
+create table wallet_snapshots
+(
+    snapshot_id   bigint auto_increment
+        primary key,
+    wallet_id     int                                   not null,
+    balance       decimal(19, 2)                        not null,
+    last_entry_id bigint                                not null,
+    created_at    timestamp default current_timestamp() not null,
+    constraint wallet_snapshots_wallets_fk
+        foreign key (wallet_id) references wallets (wallet_id)
+);
+
+create index wallet_snapshots_wallet_snapshot_idx
+    on wallet_snapshots (wallet_id, snapshot_id);
+
+insert into wallet_snapshots (wallet_id, balance, last_entry_id)
+select wallet_id, balance, 0
+from wallets;
@@ -0,0 +1,2 @@
+alter table users
+    add version int default 0 not null;
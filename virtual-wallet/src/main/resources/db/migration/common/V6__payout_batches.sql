@@ -0,0 +1,35 @@
+create table payout_batches
+(
+    batch_id    int auto_increment
+        primary key,
+    sender_id   int                                   not null,
+    wallet_id   int                                   not null,
+    reference   varchar(64)                           not null,
+    description varchar(50)                           not null,
+    total       decimal(19, 2)                        not null,
+    created_at  timestamp default current_timestamp() not null,
+    constraint payout_batches_sender_reference_uindex
+        unique (sender_id, reference),
+    constraint payout_batches_users_fk
+        foreign key (sender_id) references users (user_id),
+    constraint payout_batches_wallets_fk
+        foreign key (wallet_id) references wallets (wallet_id)
+);
+
+create table payout_items
+(
+    batch_id       int            not null,
+    recipient_id   int            not null,
+    amount         decimal(19, 2) not null,
+    status         varchar(20)    not null,
+    failure_reason varchar(100)   null,
+    transaction_id int            null,
+    primary key (batch_id, recipient_id),
+    constraint payout_items_batches_fk
+        foreign key (batch_id) references payout_batches (batch_id),
+    constraint payout_items_transactions_fk
+        foreign key (transaction_id) references transactions (transaction_id)
+);
+
+create index payout_items_batch_status_idx
+    on payout_items (batch_id, status);
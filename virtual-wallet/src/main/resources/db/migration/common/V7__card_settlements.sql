@@ -0,0 +1,23 @@
+alter table transactions
+    add status varchar(20) default 'SETTLED' not null;
+
+create table card_settlements
+(
+    transaction_id   int                                   not null
+        primary key,
+    wallet_id        int                                   not null,
+    amount           decimal(19, 2)                        not null,
+    transaction_type varchar(20)                           not null,
+    status           varchar(20)                           not null,
+    attempts         int       default 0                   not null,
+    available_at     timestamp default current_timestamp() not null,
+    locked_until     timestamp                             null,
+    failure_reason   varchar(100)                          null,
+    constraint card_settlements_transactions_fk
+        foreign key (transaction_id) references transactions (transaction_id),
+    constraint card_settlements_wallets_fk
+        foreign key (wallet_id) references wallets (wallet_id)
+);
+
+create index card_settlements_status_available_idx
+    on card_settlements (status, available_at);
@@ -0,0 +1,18 @@
+create table email_outbox
+(
+    email_id     bigint auto_increment
+        primary key,
+    recipient    varchar(100)                          not null,
+    subject      varchar(200)                          not null,
+    body         text                                  not null,
+    status       varchar(20)                           not null,
+    attempts     int       default 0                   not null,
+    available_at timestamp default current_timestamp() not null,
+    locked_until timestamp                             null,
+    last_error   varchar(255)                          null,
+    created_at   timestamp default current_timestamp() not null,
+    sent_at      timestamp                             null
+);
+
+create index email_outbox_status_available_idx
+    on email_outbox (status, available_at);
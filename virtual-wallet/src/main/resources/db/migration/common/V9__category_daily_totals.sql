@@ -0,0 +1,15 @@
+create table category_daily_totals
+(
+    category_id int            not null,
+    spent_on    date           not null,
+    total       decimal(19, 2) not null,
+    primary key (category_id, spent_on),
+    constraint category_daily_totals_categories_fk
+        foreign key (category_id) references categories (category_id)
+);
+
+insert into category_daily_totals (category_id, spent_on, total)
+select ct.category_id, cast(t.timestamp as date), sum(t.amount)
+from category_transactions ct
+         join transactions t on t.transaction_id = ct.transaction_id
+group by ct.category_id, cast(t.timestamp as date);
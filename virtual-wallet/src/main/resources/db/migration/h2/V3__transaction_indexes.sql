@@ -0,0 +1,11 @@
+create index category_transactions_category_transaction_idx
+    on category_transactions (category_id, transaction_id);
+
+create index transactions_sender_timestamp_idx
+    on transactions (sender_id, timestamp, transaction_id);
+
+create index transactions_recipient_timestamp_idx
+    on transactions (recipient_id, timestamp, transaction_id);
+
+create index transactions_recipient_type_timestamp_idx
+    on transactions (recipient_id, transaction_type, timestamp);
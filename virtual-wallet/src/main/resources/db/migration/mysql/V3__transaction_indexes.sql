@@ -0,0 +1,9 @@
+alter table category_transactions
+    add index category_transactions_category_transaction_idx (category_id, transaction_id),
+    algorithm = inplace, lock = none;
+
+alter table transactions
+    add index transactions_sender_timestamp_idx (sender_id, timestamp, transaction_id),
+    add index transactions_recipient_timestamp_idx (recipient_id, timestamp, transaction_id),
+    add index transactions_recipient_type_timestamp_idx (recipient_id, transaction_type, timestamp),
+    algorithm = inplace, lock = none;
@@ -1,9 +1,13 @@
 package com.team9.virtualwallet;
 
+import com.team9.virtualwallet.configs.RetryingTransactionTemplate;
 import com.team9.virtualwallet.models.*;
 import com.team9.virtualwallet.models.enums.TransactionType;
 import com.team9.virtualwallet.models.enums.Type;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
@@ -172,5 +176,25 @@ public class Helpers {
         return role;
     }
 
+    public static RetryingTransactionTemplate createTransactionTemplate() {
+        return new RetryingTransactionTemplate(Mockito.mock(PlatformTransactionManager.class), 3, 0);
+    }
+
+    public static int insertUser(JdbcTemplate jdbcTemplate, String username) {
+        jdbcTemplate.update("insert into users (username, password, email, phone_number, first_name, last_name, " +
+                        "email_verified, id_verified, invited_users) values (?, 'password', ?, '0888888888', 'First', 'Last', true, true, 0)",
+                username, username + "@mail.com");
+        int userId = jdbcTemplate.queryForObject("select user_id from users where username = ?", Integer.class, username);
+        jdbcTemplate.update("insert into users_roles (user_id, role_id) select ?, role_id from roles", userId);
+        return userId;
+    }
 
+    // Makes the wallet the user's default, so the last one inserted for a user wins.
+    public static int insertWallet(JdbcTemplate jdbcTemplate, int userId, int balance) {
+        jdbcTemplate.update("insert into payment_methods (type) values ('WALLET')");
+        int walletId = jdbcTemplate.queryForObject("select max(id) from payment_methods", Integer.class);
+        jdbcTemplate.update("insert into wallets (wallet_id, name, balance, user_id) values (?, 'Default', ?, ?)", walletId, balance, userId);
+        jdbcTemplate.update("update users set default_wallet_id = ? where user_id = ?", walletId, userId);
+        return walletId;
+    }
 }
@@ -1,13 +1,27 @@
 package com.team9.virtualwallet;
 
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
 @SpringBootTest
+@ActiveProfiles("test")
 class VirtualWalletApplicationTests {
 
+    @Autowired
+    Flyway flyway;
+
     @Test
     void contextLoads() {
     }
 
+    @Test
+    void migrations_Should_BeApplied_When_ContextStarts() {
+        Assertions.assertEquals(0, flyway.info().pending().length);
+        Assertions.assertNotNull(flyway.info().current());
+    }
+
 }
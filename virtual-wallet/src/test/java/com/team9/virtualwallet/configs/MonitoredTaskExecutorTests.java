@@ -0,0 +1,91 @@
+package com.team9.virtualwallet.configs;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.team9.virtualwallet.configs.MonitoredTaskExecutor.*;
+
+public class MonitoredTaskExecutorTests {
+
+    private static final String NAME = "test";
+
+    SimpleMeterRegistry meterRegistry;
+
+    MonitoredTaskExecutor executor;
+
+    CountDownLatch release;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new MonitoredTaskExecutor(NAME, 1, 1, 5, meterRegistry);
+        executor.initialize();
+        release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    public void execute_Should_RecordTaskWaitAndDuration() {
+        executor.execute(() -> {
+        });
+        executor.shutdown();
+
+        Assertions.assertEquals(1, meterRegistry.get(TASK_WAIT_METRIC).tag("name", NAME).timer().count());
+        Assertions.assertEquals(1, meterRegistry.get(TASK_DURATION_METRIC).tag("name", NAME).timer().count());
+    }
+
+    @Test
+    public void execute_Should_CountRejection_When_Saturated() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        started.await(5, TimeUnit.SECONDS);
+        executor.execute(() -> {
+        });
+
+        Assertions.assertEquals(0, executor.remainingCapacity());
+        Assertions.assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {
+        }));
+        Assertions.assertEquals(1, meterRegistry.get(REJECTED_METRIC).tag("name", NAME).counter().count());
+        Assertions.assertEquals(1, meterRegistry.get("executor.queued").tag("name", NAME).gauge().value());
+        Assertions.assertEquals(1, meterRegistry.get("executor.active").tag("name", NAME).gauge().value());
+    }
+
+    @Test
+    public void shutdown_Should_DrainQueuedTasks() {
+        AtomicInteger completed = new AtomicInteger();
+        executor.execute(() -> {
+            await(release);
+            completed.incrementAndGet();
+        });
+        executor.execute(completed::incrementAndGet);
+
+        release.countDown();
+        executor.shutdown();
+
+        Assertions.assertEquals(2, completed.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.team9.virtualwallet.controllers;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import javax.sql.DataSource;
+
+import static com.team9.virtualwallet.Helpers.insertUser;
+import static com.team9.virtualwallet.Helpers.insertWallet;
+import static com.team9.virtualwallet.controllers.AuthenticationHelper.AUTHORIZATION_HEADER_PASSWORD;
+import static com.team9.virtualwallet.controllers.AuthenticationHelper.AUTHORIZATION_HEADER_USERNAME;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class SessionPerRequestTests {
+
+    private static final String SENDER = "request_sender";
+    private static final String RECIPIENT = "request_recipient";
+    private static final String POOL_ACQUIRE_METRIC = "hikaricp.connections.acquire";
+    // Each transaction borrows a pool connection of its own; the counts below are what one request costs.
+    private static final int CREATE_CONNECTIONS = 4;
+    private static final int CREATE_STATEMENTS = 8;
+    private static final int GET_TRANSACTION_CONNECTIONS = 1;
+    private static final int GET_TRANSACTION_STATEMENTS = 2;
+    private static final int GET_WALLETS_CONNECTIONS = 1;
+    private static final int GET_WALLETS_STATEMENTS = 1;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    SessionFactory sessionFactory;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    private static int recipientId, senderWalletId, transactionId;
+
+    private Statistics statistics;
+
+    private long acquiredBefore;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        statistics = sessionFactory.getStatistics();
+        if (transactionId == 0) {
+            seed(new JdbcTemplate(dataSource));
+        }
+        // Authenticate once so the cached login does not count against the endpoint under test.
+        mockMvc.perform(authenticated(get("/api/users/wallets"))).andExpect(status().isOk());
+    }
+
+    @Test
+    public void createTransaction_Should_UseOneSession() throws Exception {
+        String body = String.format("{\"recipientId\": %d, \"selectedWalletId\": %d, \"amount\": 1, \"description\": \"Per request\"}",
+                recipientId, senderWalletId);
+        startCounting();
+
+        mockMvc.perform(authenticated(post("/api/transactions"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk());
+
+        assertRequestCost(CREATE_CONNECTIONS, CREATE_STATEMENTS);
+    }
+
+    @Test
+    public void getTransaction_Should_FetchTransactionOnce() throws Exception {
+        startCounting();
+
+        mockMvc.perform(authenticated(get("/api/transactions/" + transactionId))).andExpect(status().isOk());
+
+        assertRequestCost(GET_TRANSACTION_CONNECTIONS, GET_TRANSACTION_STATEMENTS);
+        Assertions.assertEquals(1, statistics.getEntityStatistics("com.team9.virtualwallet.models.Transaction").getLoadCount());
+    }
+
+    @Test
+    public void getWallets_Should_UseOneSessionAndConnection() throws Exception {
+        startCounting();
+
+        mockMvc.perform(authenticated(get("/api/users/wallets"))).andExpect(status().isOk());
+
+        assertRequestCost(GET_WALLETS_CONNECTIONS, GET_WALLETS_STATEMENTS);
+    }
+
+    private void startCounting() {
+        statistics.clear();
+        acquiredBefore = acquiredConnections();
+    }
+
+    private void assertRequestCost(long connections, long statements) {
+        Assertions.assertEquals(1, statistics.getSessionOpenCount());
+        Assertions.assertEquals(connections, acquiredConnections() - acquiredBefore);
+        Assertions.assertEquals(statements, statistics.getPrepareStatementCount());
+    }
+
+    private long acquiredConnections() {
+        return meterRegistry.get(POOL_ACQUIRE_METRIC).timer().count();
+    }
+
+    private static MockHttpServletRequestBuilder authenticated(MockHttpServletRequestBuilder request) {
+        return request.header(AUTHORIZATION_HEADER_USERNAME, SENDER)
+                .header(AUTHORIZATION_HEADER_PASSWORD, "password");
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        int senderId = insertUser(jdbcTemplate, SENDER);
+        senderWalletId = insertWallet(jdbcTemplate, senderId, 100);
+        recipientId = insertUser(jdbcTemplate, RECIPIENT);
+        int recipientWalletId = insertWallet(jdbcTemplate, recipientId, 100);
+
+        jdbcTemplate.update("insert into transactions (sender_id, recipient_id, amount, sender_payment_method_id, " +
+                        "recipient_payment_method_id, description, transaction_type) values (?, ?, 1, ?, ?, 'Seeded', 'SMALL_TRANSACTION')",
+                senderId, recipientId, senderWalletId, recipientWalletId);
+        transactionId = jdbcTemplate.queryForObject("select max(transaction_id) from transactions", Integer.class);
+    }
+}
@@ -0,0 +1,152 @@
+package com.team9.virtualwallet.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.team9.virtualwallet.Helpers.insertUser;
+import static com.team9.virtualwallet.Helpers.insertWallet;
+import static com.team9.virtualwallet.controllers.AuthenticationHelper.AUTHORIZATION_HEADER_PASSWORD;
+import static com.team9.virtualwallet.controllers.AuthenticationHelper.AUTHORIZATION_HEADER_USERNAME;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class TransactionExportTests {
+
+    private static final String OWNER = "export_owner";
+    private static final String COUNTERPARTY = "export_counterparty";
+    private static final int INCOMING = 700;
+    private static final int OUTGOING = 500;
+    private static final String FORMULA_DESCRIPTION = "=1+1, \"quoted\"";
+    private static final int MAX_EXPORT_STATEMENTS = 10;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    SessionFactory sessionFactory;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    private static boolean seeded;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        statistics = sessionFactory.getStatistics();
+        if (!seeded) {
+            seed(new JdbcTemplate(dataSource));
+            seeded = true;
+        }
+        mockMvc.perform(authenticated(get("/api/users/wallets"))).andExpect(status().isOk());
+    }
+
+    @Test
+    public void exportCsv_Should_StreamAllRowsNewestFirst() throws Exception {
+        statistics.clear();
+
+        String[] lines = export("/api/transactions/export")
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions.csv\""))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+
+        Assertions.assertEquals(1 + INCOMING + OUTGOING, lines.length);
+        Assertions.assertTrue(lines[0].startsWith("id,timestamp,amount,description,type,status"));
+        for (int i = 2; i < lines.length; i++) {
+            Assertions.assertTrue(id(lines[i]) < id(lines[i - 1]));
+        }
+        Assertions.assertTrue(lines[1].contains("\"'=1+1, \"\"quoted\"\"\""));
+
+        long executed = statistics.getPrepareStatementCount();
+        Assertions.assertTrue(executed <= MAX_EXPORT_STATEMENTS,
+                String.format("Expected at most %d statements but %d were executed", MAX_EXPORT_STATEMENTS, executed));
+        Assertions.assertEquals(0, statistics.getEntityStatistics("com.team9.virtualwallet.models.Transaction").getLoadCount());
+    }
+
+    @Test
+    public void exportNdjson_Should_ApplyFilters() throws Exception {
+        String[] lines = export("/api/transactions/export?format=NDJSON&direction=INCOMING&username=" + COUNTERPARTY)
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-ndjson;charset=UTF-8"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+
+        Assertions.assertEquals(INCOMING, lines.length);
+        for (String line : lines) {
+            JsonNode transaction = objectMapper.readTree(line);
+            Assertions.assertEquals(COUNTERPARTY, transaction.get("senderUsername").asText());
+            Assertions.assertEquals("SETTLED", transaction.get("status").asText());
+        }
+    }
+
+    @Test
+    public void export_Should_ReturnNotFound_When_CounterpartyUnknown() throws Exception {
+        mockMvc.perform(authenticated(get("/api/transactions/export?username=export_nobody")))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void filter_Should_ReturnBadRequest_When_PageTokenCombinedWithAmountSort() throws Exception {
+        mockMvc.perform(authenticated(get("/api/transactions/filter?amount=ASC&pageToken=abc")))
+                .andExpect(status().isBadRequest());
+    }
+
+    private ResultActions export(String url) throws Exception {
+        return mockMvc.perform(authenticated(get(url))).andExpect(status().isOk());
+    }
+
+    private static int id(String csvLine) {
+        return Integer.parseInt(csvLine.substring(0, csvLine.indexOf(',')));
+    }
+
+    private static MockHttpServletRequestBuilder authenticated(MockHttpServletRequestBuilder request) {
+        return request.header(AUTHORIZATION_HEADER_USERNAME, OWNER)
+                .header(AUTHORIZATION_HEADER_PASSWORD, "password");
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        int ownerId = insertUser(jdbcTemplate, OWNER);
+        int ownerWallet = insertWallet(jdbcTemplate, ownerId, 100);
+        int counterpartyId = insertUser(jdbcTemplate, COUNTERPARTY);
+        int counterpartyWallet = insertWallet(jdbcTemplate, counterpartyId, 100);
+
+        // Later rows get later timestamps, so newest-first also means descending ids.
+        LocalDateTime start = LocalDateTime.of(2021, 1, 1, 0, 0);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < INCOMING + OUTGOING; i++) {
+            boolean incoming = i % 12 < 7;
+            String description = i == INCOMING + OUTGOING - 1 ? FORMULA_DESCRIPTION : "Export " + i;
+            rows.add(new Object[]{Timestamp.valueOf(start.plusMinutes(i)),
+                    incoming ? counterpartyId : ownerId, incoming ? ownerId : counterpartyId,
+                    incoming ? counterpartyWallet : ownerWallet, incoming ? ownerWallet : counterpartyWallet, description});
+        }
+        jdbcTemplate.batchUpdate("insert into transactions (timestamp, sender_id, recipient_id, amount, sender_payment_method_id, " +
+                "recipient_payment_method_id, description, transaction_type) values (?, ?, ?, 1, ?, ?, ?, 'SMALL_TRANSACTION')", rows);
+    }
+}
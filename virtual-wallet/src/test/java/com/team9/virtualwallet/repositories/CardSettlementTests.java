@@ -0,0 +1,141 @@
+package com.team9.virtualwallet.repositories;
+
+import com.team9.virtualwallet.models.CardSettlement;
+import com.team9.virtualwallet.models.PaymentMethod;
+import com.team9.virtualwallet.models.Transaction;
+import com.team9.virtualwallet.models.User;
+import com.team9.virtualwallet.models.enums.TransactionStatus;
+import com.team9.virtualwallet.models.enums.TransactionType;
+import com.team9.virtualwallet.repositories.contracts.CardSettlementRepository;
+import com.team9.virtualwallet.repositories.contracts.TransactionRepository;
+import com.team9.virtualwallet.repositories.contracts.UserRepository;
+import com.team9.virtualwallet.repositories.contracts.WalletRepository;
+import com.team9.virtualwallet.services.contracts.WalletService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CardSettlementTests {
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    WalletRepository walletRepository;
+
+    @Autowired
+    TransactionRepository transactionRepository;
+
+    @Autowired
+    CardSettlementRepository cardSettlementRepository;
+
+    @Autowired
+    WalletService walletService;
+
+    @Test
+    public void deposit_Should_CreditWalletOnlyOnceSettled() {
+        User user = register("settle_deposit");
+        Transaction transaction = createTransaction(user, TransactionType.CARD_TO_WALLET, BigDecimal.TEN);
+
+        transactionRepository.createExternalDeposit(transaction, user.getDefaultWallet());
+        Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(balanceOf(user)));
+
+        CardSettlement settlement = claim(transaction);
+        Assertions.assertNotNull(settlement);
+        Assertions.assertNull(claim(transaction));
+
+        cardSettlementRepository.complete(settlement, TransactionStatus.SETTLED, null);
+        cardSettlementRepository.complete(settlement, TransactionStatus.SETTLED, null);
+
+        Assertions.assertEquals(0, BigDecimal.TEN.compareTo(balanceOf(user)));
+        Assertions.assertEquals(TransactionStatus.SETTLED, transactionRepository.getById(transaction.getId()).getStatus());
+    }
+
+    @Test
+    public void withdraw_Should_HoldFundsAndRefundWhenRejected() {
+        User user = register("settle_withdraw");
+        walletService.depositBalance(user.getDefaultWallet(), BigDecimal.TEN);
+        Transaction transaction = createTransaction(user, TransactionType.WALLET_TO_CARD, BigDecimal.valueOf(4));
+
+        transactionRepository.createExternalWithdraw(transaction, user.getDefaultWallet());
+        Assertions.assertEquals(0, BigDecimal.valueOf(6).compareTo(balanceOf(user)));
+
+        cardSettlementRepository.complete(claim(transaction), TransactionStatus.REJECTED, "rejected");
+
+        Assertions.assertEquals(0, BigDecimal.TEN.compareTo(balanceOf(user)));
+        Assertions.assertEquals(TransactionStatus.REJECTED, transactionRepository.getById(transaction.getId()).getStatus());
+    }
+
+    @Test
+    public void completedSettlement_Should_KeepTransactionTimestamp() {
+        User user = register("settle_timestamp");
+        Transaction transaction = createTransaction(user, TransactionType.CARD_TO_WALLET, BigDecimal.ONE);
+        Timestamp initiated = Timestamp.valueOf("2021-01-01 10:00:00");
+        transaction.setTimestamp(initiated);
+        transactionRepository.createExternalDeposit(transaction, user.getDefaultWallet());
+
+        cardSettlementRepository.complete(claim(transaction), TransactionStatus.SETTLED, null);
+
+        Assertions.assertEquals(initiated, transactionRepository.getById(transaction.getId()).getTimestampValue());
+    }
+
+    @Test
+    public void retriedSettlement_Should_NotBeClaimedBeforeItIsDue() {
+        User user = register("settle_retry");
+        Transaction transaction = createTransaction(user, TransactionType.CARD_TO_WALLET, BigDecimal.ONE);
+        transactionRepository.createExternalDeposit(transaction, user.getDefaultWallet());
+
+        cardSettlementRepository.retry(claim(transaction),
+                new Timestamp(System.currentTimeMillis() + 60000), "unavailable");
+
+        Assertions.assertNull(claim(transaction));
+    }
+
+    private CardSettlement claim(Transaction transaction) {
+        return cardSettlementRepository.claim(100, new Timestamp(System.currentTimeMillis() + 60000))
+                .stream()
+                .filter(settlement -> settlement.getTransactionId() == transaction.getId())
+                .findFirst()
+                .orElse(null);
+    }
+
+    private BigDecimal balanceOf(User user) {
+        return walletRepository.getById(user.getDefaultWallet().getId()).getBalance();
+    }
+
+    private static Transaction createTransaction(User user, TransactionType type, BigDecimal amount) {
+        PaymentMethod paymentMethod = new PaymentMethod();
+        paymentMethod.setId(user.getDefaultWallet().getId());
+
+        Transaction transaction = new Transaction();
+        transaction.setSender(user);
+        transaction.setRecipient(user);
+        transaction.setSenderPaymentMethod(paymentMethod);
+        transaction.setRecipientPaymentMethod(paymentMethod);
+        transaction.setAmount(amount);
+        transaction.setDescription("Card settlement");
+        transaction.setTimestamp(new Timestamp(System.currentTimeMillis()));
+        transaction.setTransactionType(type);
+        transaction.setStatus(TransactionStatus.PENDING);
+        return transaction;
+    }
+
+    private User register(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("password");
+        user.setEmail(username + "@mail.com");
+        user.setPhoneNumber(String.format("08%08d", Math.floorMod(username.hashCode(), 100000000)));
+        user.setFirstName("First");
+        user.setLastName("Last");
+        userRepository.createWithDefaultWallet(user, walletService.buildDefaultWallet(user));
+        return user;
+    }
+}
@@ -0,0 +1,114 @@
+package com.team9.virtualwallet.repositories;
+
+import com.team9.virtualwallet.models.Category;
+import com.team9.virtualwallet.repositories.contracts.CategoryRepository;
+import com.team9.virtualwallet.services.contracts.CategoryTotalsService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.Optional;
+
+import static com.team9.virtualwallet.Helpers.insertUser;
+import static com.team9.virtualwallet.Helpers.insertWallet;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CategoryTotalsTests {
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    @Autowired
+    CategoryTotalsService categoryTotalsService;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private static int ownerId, ownerWallet, counterpartyId, counterpartyWallet;
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        if (ownerId == 0) {
+            ownerId = insertUser(jdbcTemplate, "totals_owner");
+            ownerWallet = insertWallet(jdbcTemplate, ownerId, 100);
+            counterpartyId = insertUser(jdbcTemplate, "totals_counterparty");
+            counterpartyWallet = insertWallet(jdbcTemplate, counterpartyId, 100);
+        }
+    }
+
+    @Test
+    public void reconcile_Should_BackfillTotals_When_TransactionsWereNotRolledUp() {
+        int categoryId = insertCategory("backfilled");
+        insertTransaction(categoryId, "2021-06-01 10:00:00", 5);
+        insertTransaction(categoryId, "2021-06-03 10:00:00", 7);
+
+        Assertions.assertTrue(categoryTotalsService.reconcile().contains(categoryId));
+
+        Assertions.assertFalse(categoryRepository.getInconsistentCategoryIds().contains(categoryId));
+        Assertions.assertEquals(0, BigDecimal.valueOf(12).compareTo(spendings(categoryId, Optional.empty(), Optional.empty())));
+    }
+
+    @Test
+    public void calculateSpendings_Should_CountWholeDaysInRange() {
+        int categoryId = insertCategory("ranged");
+        insertTransaction(categoryId, "2021-06-01 00:30:00", 1);
+        insertTransaction(categoryId, "2021-06-01 23:30:00", 2);
+        insertTransaction(categoryId, "2021-06-02 12:00:00", 4);
+        categoryRepository.rebuildDailyTotals(categoryId);
+
+        BigDecimal firstDay = spendings(categoryId, Optional.of(day("2021-06-01")), Optional.of(day("2021-06-02")));
+        BigDecimal fromSecondDay = spendings(categoryId, Optional.of(day("2021-06-02")), Optional.empty());
+
+        Assertions.assertEquals(0, BigDecimal.valueOf(3).compareTo(firstDay));
+        Assertions.assertEquals(0, BigDecimal.valueOf(4).compareTo(fromSecondDay));
+    }
+
+    @Test
+    public void addToDailyTotal_Should_AccumulateWithinDay() {
+        int categoryId = insertCategory("accumulated");
+        insertTransaction(categoryId, "2021-06-01 10:00:00", 5);
+        insertTransaction(categoryId, "2021-06-01 11:00:00", 6);
+
+        categoryRepository.addToDailyTotal(categoryId, LocalDate.of(2021, 6, 1), BigDecimal.valueOf(5));
+        categoryRepository.addToDailyTotal(categoryId, LocalDate.of(2021, 6, 1), BigDecimal.valueOf(6));
+
+        Assertions.assertEquals(0, BigDecimal.valueOf(11).compareTo(spendings(categoryId, Optional.empty(), Optional.empty())));
+        Assertions.assertFalse(categoryRepository.getInconsistentCategoryIds().contains(categoryId));
+    }
+
+    private BigDecimal spendings(int categoryId, Optional<Date> startDate, Optional<Date> endDate) {
+        Category category = new Category();
+        category.setId(categoryId);
+        return (BigDecimal) categoryRepository.calculateSpendings(category, startDate, endDate);
+    }
+
+    private static Date day(String date) {
+        return java.sql.Date.valueOf(date);
+    }
+
+    private int insertCategory(String name) {
+        jdbcTemplate.update("insert into categories (name, user_id) values (?, ?)", name, ownerId);
+        return jdbcTemplate.queryForObject("select max(category_id) from categories", Integer.class);
+    }
+
+    private void insertTransaction(int categoryId, String timestamp, int amount) {
+        jdbcTemplate.update("insert into transactions (timestamp, sender_id, recipient_id, amount, sender_payment_method_id, " +
+                        "recipient_payment_method_id, description, transaction_type) values (?, ?, ?, ?, ?, ?, 'Totals', 'SMALL_TRANSACTION')",
+                Timestamp.valueOf(timestamp), ownerId, counterpartyId, amount, ownerWallet, counterpartyWallet);
+        int transactionId = jdbcTemplate.queryForObject("select max(transaction_id) from transactions", Integer.class);
+        jdbcTemplate.update("insert into category_transactions (category_id, transaction_id) values (?, ?)", categoryId, transactionId);
+    }
+}
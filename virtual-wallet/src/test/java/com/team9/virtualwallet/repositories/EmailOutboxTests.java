@@ -0,0 +1,118 @@
+package com.team9.virtualwallet.repositories;
+
+import com.team9.virtualwallet.models.ConfirmationToken;
+import com.team9.virtualwallet.models.OutboxEmail;
+import com.team9.virtualwallet.models.User;
+import com.team9.virtualwallet.models.enums.EmailStatus;
+import com.team9.virtualwallet.repositories.contracts.EmailOutboxRepository;
+import com.team9.virtualwallet.repositories.contracts.UserRepository;
+import com.team9.virtualwallet.services.contracts.WalletService;
+import com.team9.virtualwallet.services.emails.SendEmailService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class EmailOutboxTests {
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    WalletService walletService;
+
+    @Autowired
+    EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    SendEmailService sendEmailService;
+
+    @Test
+    public void sendEmailConfirmation_Should_StoreTokenAndEmailTogether() {
+        User user = register("outbox_confirm");
+
+        sendEmailService.sendEmailConfirmation(user, Optional.empty());
+
+        Assertions.assertEquals(1, countTokens(user));
+        Assertions.assertEquals(1, countEmails(user.getEmail(), EmailStatus.PENDING));
+    }
+
+    @Test
+    public void create_Should_NotStoreToken_When_EmailCannotBeStored() {
+        User user = register("outbox_rollback");
+
+        Assertions.assertThrows(RuntimeException.class,
+                () -> emailOutboxRepository.create(new ConfirmationToken(user), new OutboxEmail(null, "Subject", "Body")));
+
+        Assertions.assertEquals(0, countTokens(user));
+    }
+
+    @Test
+    public void claimedEmails_Should_NotBeClaimedAgainUntilDue() {
+        OutboxEmail first = enqueue("outbox_first@mail.com");
+        OutboxEmail second = enqueue("outbox_second@mail.com");
+        OutboxEmail third = enqueue("outbox_third@mail.com");
+
+        List<Long> claimed = claim();
+        Assertions.assertTrue(claimed.containsAll(List.of(first.getId(), second.getId(), third.getId())));
+        Assertions.assertFalse(claim().contains(first.getId()));
+
+        emailOutboxRepository.markSent(List.of(first.getId()));
+        emailOutboxRepository.retry(second, new Timestamp(System.currentTimeMillis() + 60000), "unavailable");
+        emailOutboxRepository.markDead(third, "rejected");
+
+        Assertions.assertFalse(claim().contains(second.getId()));
+        Assertions.assertEquals(1, countEmails(first.getRecipient(), EmailStatus.SENT));
+        Assertions.assertEquals(1, countEmails(second.getRecipient(), EmailStatus.PENDING));
+        Assertions.assertEquals(1, countEmails(third.getRecipient(), EmailStatus.DEAD));
+    }
+
+    private OutboxEmail enqueue(String recipient) {
+        User user = register(recipient.substring(0, recipient.indexOf('@')));
+        OutboxEmail email = new OutboxEmail(recipient, "Subject", "Body");
+        emailOutboxRepository.create(new ConfirmationToken(user), email);
+        return email;
+    }
+
+    private List<Long> claim() {
+        return emailOutboxRepository.claim(100, new Timestamp(System.currentTimeMillis() + 60000))
+                .stream()
+                .map(OutboxEmail::getId)
+                .collect(Collectors.toList());
+    }
+
+    private int countTokens(User user) {
+        return new JdbcTemplate(dataSource).queryForObject(
+                "select count(*) from confirmation_tokens where user_id = ?", Integer.class, user.getId());
+    }
+
+    private int countEmails(String recipient, EmailStatus status) {
+        return new JdbcTemplate(dataSource).queryForObject(
+                "select count(*) from email_outbox where recipient = ? and status = ?", Integer.class, recipient, status.name());
+    }
+
+    private User register(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("password");
+        user.setEmail(username + "@mail.com");
+        user.setPhoneNumber(String.format("08%08d", Math.floorMod(username.hashCode(), 100000000)));
+        user.setFirstName("First");
+        user.setLastName("Last");
+        userRepository.createWithDefaultWallet(user, walletService.buildDefaultWallet(user));
+        return user;
+    }
+}
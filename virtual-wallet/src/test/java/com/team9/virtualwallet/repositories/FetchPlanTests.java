@@ -0,0 +1,195 @@
+package com.team9.virtualwallet.repositories;
+
+import com.team9.virtualwallet.models.Category;
+import com.team9.virtualwallet.models.Transaction;
+import com.team9.virtualwallet.models.User;
+import com.team9.virtualwallet.models.dtos.TransactionHistoryDto;
+import com.team9.virtualwallet.models.enums.Direction;
+import com.team9.virtualwallet.models.enums.FetchPlan;
+import com.team9.virtualwallet.repositories.contracts.CategoryRepository;
+import com.team9.virtualwallet.repositories.contracts.TransactionRepository;
+import com.team9.virtualwallet.repositories.contracts.UserRepository;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Optional;
+
+import static com.team9.virtualwallet.Helpers.insertUser;
+import static com.team9.virtualwallet.Helpers.insertWallet;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class FetchPlanTests {
+
+    private static final int COUNTERPARTIES = 6;
+    private static final int CATEGORIES = 3;
+    private static final int PAGE_SIZE = 20;
+    private static final int HISTORY_STATEMENTS = 6;
+    private static final int FILTER_STATEMENTS = 4;
+    private static final int ENTITY_HISTORY_STATEMENTS = 2;
+
+    @Autowired
+    SessionFactory sessionFactory;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    TransactionRepository transactionRepository;
+
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    private static User owner;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = sessionFactory.getStatistics();
+        if (owner == null) {
+            owner = userRepository.getById(seed(new JdbcTemplate(dataSource)));
+        }
+    }
+
+    @Test
+    public void historyPage_Should_NotQueryPerTransaction() {
+        statistics.clear();
+
+        var page = transactionRepository.getHistory(owner, Optional.empty(), PAGE_SIZE, true);
+
+        Assertions.assertEquals(PAGE_SIZE, page.getContent().size());
+        page.getContent().forEach(this::assertOwnPaymentMethodDescribed);
+        assertStatementsAtMost(HISTORY_STATEMENTS);
+    }
+
+    @Test
+    public void lastTransactions_Should_NotQueryPerTransaction() {
+        statistics.clear();
+
+        List<Transaction> transactions = transactionRepository.getLastTransactions(owner, PAGE_SIZE);
+        transactions.forEach(this::render);
+
+        Assertions.assertEquals(PAGE_SIZE, transactions.size());
+        assertStatementsAtMost(ENTITY_HISTORY_STATEMENTS);
+    }
+
+    @Test
+    public void filteredHistoryPage_Should_NotQueryPerTransaction() {
+        statistics.clear();
+
+        var page = transactionRepository.filterHistory(owner.getId(), Optional.of(Direction.INCOMING), Optional.empty(),
+                Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), PageRequest.of(1, PAGE_SIZE));
+
+        Assertions.assertEquals(PAGE_SIZE, page.getContent().size());
+        page.getContent().forEach(this::assertOwnPaymentMethodDescribed);
+        assertStatementsAtMost(FILTER_STATEMENTS);
+    }
+
+    @Test
+    public void categoriesPage_Should_NotLoadCategoryTransactions() {
+        statistics.clear();
+
+        List<Category> categories = categoryRepository.getAll(owner);
+        categories.forEach(category -> category.getUser().getUsername());
+
+        Assertions.assertEquals(CATEGORIES, categories.size());
+        Assertions.assertTrue(categories.stream().noneMatch(category -> Hibernate.isInitialized(category.getTransactions())));
+        assertStatementsAtMost(1);
+    }
+
+    @Test
+    public void categoryWithTransactionsPlan_Should_FetchTransactionsInOneQuery() {
+        int categoryId = categoryRepository.getAll(owner).get(0).getId();
+        statistics.clear();
+
+        Category category = categoryRepository.getById(categoryId, FetchPlan.CATEGORY_TRANSACTIONS);
+
+        Assertions.assertFalse(category.getTransactions().isEmpty());
+        assertStatementsAtMost(1);
+    }
+
+    @Test
+    public void accountPlan_Should_FetchContactsAndRoles() {
+        statistics.clear();
+
+        User user = userRepository.getByField("username", "fetch_owner");
+
+        Assertions.assertEquals(COUNTERPARTIES, user.getContacts().size());
+        Assertions.assertTrue(Hibernate.isInitialized(user.getRoles()));
+        assertStatementsAtMost(1);
+    }
+
+    private void render(Transaction transaction) {
+        transaction.getSender().getDefaultWallet().getName();
+        transaction.getRecipient().getDefaultWallet().getName();
+        transaction.getSenderPaymentMethod().getType();
+        transaction.getRecipientPaymentMethod().getType();
+        transaction.getCategory().getName();
+        Assertions.assertFalse(Hibernate.isInitialized(transaction.getSender().getContacts()));
+        Assertions.assertFalse(Hibernate.isInitialized(transaction.getRecipient().getContacts()));
+    }
+
+    private void assertOwnPaymentMethodDescribed(TransactionHistoryDto transaction) {
+        if (transaction.getSenderId() == owner.getId()) {
+            Assertions.assertEquals("Default", transaction.getSenderPaymentMethodName());
+            Assertions.assertNull(transaction.getRecipientPaymentMethodName());
+        } else {
+            Assertions.assertEquals("Default", transaction.getRecipientPaymentMethodName());
+            Assertions.assertNull(transaction.getSenderPaymentMethodName());
+        }
+    }
+
+    private void assertStatementsAtMost(long expected) {
+        long executed = statistics.getPrepareStatementCount();
+        Assertions.assertTrue(executed <= expected,
+                String.format("Expected at most %d statements but %d were executed", expected, executed));
+    }
+
+    private static int seed(JdbcTemplate jdbcTemplate) {
+        int ownerId = insertUser(jdbcTemplate, "fetch_owner");
+        int ownerWallet = insertWallet(jdbcTemplate, ownerId, 100);
+
+        int[] categoryIds = new int[CATEGORIES];
+        for (int i = 0; i < CATEGORIES; i++) {
+            jdbcTemplate.update("insert into categories (name, user_id) values (?, ?)", "category" + i, ownerId);
+            categoryIds[i] = jdbcTemplate.queryForObject("select max(category_id) from categories", Integer.class);
+        }
+
+        for (int i = 0; i < COUNTERPARTIES; i++) {
+            int counterpartyId = insertUser(jdbcTemplate, "fetch_user" + i);
+            int counterpartyWallet = insertWallet(jdbcTemplate, counterpartyId, 100);
+            jdbcTemplate.update("insert into contact_list (user_id, contact_id) values (?, ?)", ownerId, counterpartyId);
+            jdbcTemplate.update("insert into contact_list (user_id, contact_id) values (?, ?)", counterpartyId, ownerId);
+
+            for (int j = 0; j < PAGE_SIZE / COUNTERPARTIES + 1; j++) {
+                insertTransaction(jdbcTemplate, counterpartyId, ownerId, counterpartyWallet, ownerWallet, categoryIds[j % CATEGORIES]);
+                insertTransaction(jdbcTemplate, ownerId, counterpartyId, ownerWallet, counterpartyWallet, categoryIds[j % CATEGORIES]);
+            }
+        }
+        return ownerId;
+    }
+
+    private static void insertTransaction(JdbcTemplate jdbcTemplate, int senderId, int recipientId,
+                                          int senderWallet, int recipientWallet, int categoryId) {
+        jdbcTemplate.update("insert into transactions (sender_id, recipient_id, amount, sender_payment_method_id, " +
+                        "recipient_payment_method_id, description, transaction_type) values (?, ?, 1, ?, ?, 'Fetch plan', 'SMALL_TRANSACTION')",
+                senderId, recipientId, senderWallet, recipientWallet);
+        int transactionId = jdbcTemplate.queryForObject("select max(transaction_id) from transactions", Integer.class);
+        jdbcTemplate.update("insert into category_transactions (transaction_id, category_id) values (?, ?)", transactionId, categoryId);
+    }
+}
@@ -0,0 +1,152 @@
+package com.team9.virtualwallet.repositories;
+
+import com.team9.virtualwallet.models.dtos.TransactionHistoryDto;
+import com.team9.virtualwallet.models.enums.Direction;
+import com.team9.virtualwallet.models.enums.Sort;
+import com.team9.virtualwallet.repositories.contracts.TransactionRepository;
+import com.team9.virtualwallet.repositories.contracts.UserRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static com.team9.virtualwallet.Helpers.insertUser;
+import static com.team9.virtualwallet.Helpers.insertWallet;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class FilterQueryTests {
+
+    private static final int PAGE_SIZE = 10;
+    private static final Date START = Timestamp.valueOf("2021-01-01 00:00:00");
+    private static final Date END = Timestamp.valueOf("2021-12-31 00:00:00");
+
+    @Autowired
+    SessionFactory sessionFactory;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    TransactionRepository transactionRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    private static int ownerId, counterpartyId;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = sessionFactory.getStatistics();
+        if (ownerId == 0) {
+            seed(new JdbcTemplate(dataSource));
+        }
+    }
+
+    @Test
+    public void transactionFilter_Should_ReusePlans_When_OnlyValuesChange() {
+        filterAllShapes(Optional.empty(), Optional.empty(), Optional.of(counterpartyId));
+        statistics.clear();
+
+        filterAllShapes(Optional.of(START), Optional.of(END), Optional.of(counterpartyId + 1));
+        filterAllShapes(Optional.empty(), Optional.of(END), Optional.of(counterpartyId));
+
+        Assertions.assertEquals(0, statistics.getQueryPlanCacheMissCount());
+        Assertions.assertTrue(statistics.getQueryPlanCacheHitCount() > 0);
+    }
+
+    @Test
+    public void transactionFilter_Should_ApplyDateBounds() {
+        List<TransactionHistoryDto> inPeriod = filter(Optional.empty(), Optional.of(START), Optional.of(END), Optional.empty());
+        List<TransactionHistoryDto> unbounded = filter(Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty());
+
+        Assertions.assertEquals(1, inPeriod.size());
+        Assertions.assertEquals(3, unbounded.size());
+    }
+
+    @Test
+    public void transactionFilter_Should_FilterByCounterparty() {
+        List<TransactionHistoryDto> incoming = filter(Optional.of(Direction.INCOMING), Optional.empty(), Optional.empty(),
+                Optional.of(counterpartyId));
+
+        Assertions.assertEquals(2, incoming.size());
+        Assertions.assertTrue(incoming.stream().allMatch(transaction -> transaction.getSenderId() == counterpartyId));
+    }
+
+    @Test
+    public void transactionFilter_Should_KeepOrderAcrossBranches_When_Paging() {
+        List<String> timestamps = new ArrayList<>();
+        for (int page = 1; page <= 4; page++) {
+            var result = transactionRepository.filterHistory(ownerId, Optional.empty(), Optional.empty(), Optional.empty(),
+                    Optional.empty(), Optional.empty(), Optional.empty(), PageRequest.of(page, 1));
+            Assertions.assertEquals(3, result.getTotal());
+            result.getContent().forEach(transaction -> timestamps.add(transaction.getTimestamp()));
+        }
+
+        Assertions.assertEquals(List.of("00:00:00 01.06.2022", "00:00:00 01.06.2021", "00:00:00 01.06.2020"), timestamps);
+    }
+
+    @Test
+    public void userFilter_Should_ReusePlans_When_OnlyValuesChange() {
+        userRepository.filter(Optional.of("filter"), Optional.empty(), Optional.of("mail"), PageRequest.of(1, PAGE_SIZE));
+        statistics.clear();
+
+        var page = userRepository.filter(Optional.of("filter_own"), Optional.empty(), Optional.of("@mail"),
+                PageRequest.of(1, PAGE_SIZE));
+
+        Assertions.assertEquals(1, page.getContent().size());
+        Assertions.assertEquals(0, statistics.getQueryPlanCacheMissCount());
+    }
+
+    private void filterAllShapes(Optional<Date> startDate, Optional<Date> endDate, Optional<Integer> searchedPersonId) {
+        filter(Optional.empty(), startDate, endDate, searchedPersonId);
+        for (Direction direction : Direction.values()) {
+            filter(Optional.of(direction), startDate, endDate, searchedPersonId);
+            for (Sort amount : Sort.values()) {
+                transactionRepository.filterHistory(ownerId, Optional.of(direction), startDate, endDate, searchedPersonId,
+                        Optional.of(amount), Optional.of(Sort.ASC), PageRequest.of(1, PAGE_SIZE));
+            }
+        }
+    }
+
+    private List<TransactionHistoryDto> filter(Optional<Direction> direction,
+                                               Optional<Date> startDate,
+                                               Optional<Date> endDate,
+                                               Optional<Integer> searchedPersonId) {
+        return transactionRepository.filterHistory(ownerId, direction, startDate, endDate, searchedPersonId,
+                Optional.empty(), Optional.empty(), PageRequest.of(1, PAGE_SIZE)).getContent();
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        ownerId = insertUser(jdbcTemplate, "filter_owner");
+        int ownerWallet = insertWallet(jdbcTemplate, ownerId, 100);
+        counterpartyId = insertUser(jdbcTemplate, "filter_counterparty");
+        int counterpartyWallet = insertWallet(jdbcTemplate, counterpartyId, 100);
+
+        insertTransaction(jdbcTemplate, counterpartyId, ownerId, counterpartyWallet, ownerWallet, "2020-06-01 00:00:00");
+        insertTransaction(jdbcTemplate, counterpartyId, ownerId, counterpartyWallet, ownerWallet, "2021-06-01 00:00:00");
+        insertTransaction(jdbcTemplate, ownerId, counterpartyId, ownerWallet, counterpartyWallet, "2022-06-01 00:00:00");
+    }
+
+    private static void insertTransaction(JdbcTemplate jdbcTemplate, int senderId, int recipientId,
+                                          int senderWallet, int recipientWallet, String timestamp) {
+        jdbcTemplate.update("insert into transactions (timestamp, sender_id, recipient_id, amount, sender_payment_method_id, " +
+                        "recipient_payment_method_id, description, transaction_type) values (?, ?, ?, 1, ?, ?, 'Filter', 'SMALL_TRANSACTION')",
+                Timestamp.valueOf(timestamp), senderId, recipientId, senderWallet, recipientWallet);
+    }
+}
@@ -0,0 +1,73 @@
+package com.team9.virtualwallet.repositories;
+
+import com.team9.virtualwallet.models.IdempotencyKey;
+import com.team9.virtualwallet.repositories.contracts.IdempotencyKeyRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+
+import static com.team9.virtualwallet.Helpers.insertUser;
+import static com.team9.virtualwallet.Helpers.insertWallet;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class IdempotencyKeyTests {
+
+    private static final String FINGERPRINT = "0".repeat(64);
+
+    @Autowired
+    IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    DataSource dataSource;
+
+    private static int userId;
+
+    @BeforeEach
+    public void setUp() {
+        if (userId == 0) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            userId = insertUser(jdbcTemplate, "idempotent_user");
+            insertWallet(jdbcTemplate, userId, 0);
+        }
+    }
+
+    @Test
+    public void create_Should_Throw_When_KeyAlreadyClaimed() {
+        idempotencyKeyRepository.create(new IdempotencyKey(userId, "claimed", FINGERPRINT, expiresIn(60000)));
+
+        Assertions.assertTrue(idempotencyKeyRepository.get(userId, "claimed").isPresent());
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> idempotencyKeyRepository.create(
+                new IdempotencyKey(userId, "claimed", FINGERPRINT, expiresIn(60000))));
+    }
+
+    @Test
+    public void create_Should_ReplaceKey_When_Expired() {
+        idempotencyKeyRepository.create(new IdempotencyKey(userId, "expired", FINGERPRINT, expiresIn(-1000)));
+
+        Assertions.assertTrue(idempotencyKeyRepository.get(userId, "expired").isEmpty());
+        idempotencyKeyRepository.create(new IdempotencyKey(userId, "expired", FINGERPRINT, expiresIn(60000)));
+        Assertions.assertTrue(idempotencyKeyRepository.get(userId, "expired").isPresent());
+    }
+
+    @Test
+    public void deleteExpired_Should_KeepLiveKeys() {
+        idempotencyKeyRepository.create(new IdempotencyKey(userId, "purged", FINGERPRINT, expiresIn(-1000)));
+        idempotencyKeyRepository.create(new IdempotencyKey(userId, "live", FINGERPRINT, expiresIn(60000)));
+
+        Assertions.assertTrue(idempotencyKeyRepository.deleteExpired() >= 1);
+        Assertions.assertTrue(idempotencyKeyRepository.get(userId, "live").isPresent());
+    }
+
+    private static Timestamp expiresIn(long millis) {
+        return new Timestamp(System.currentTimeMillis() + millis);
+    }
+}
@@ -0,0 +1,109 @@
+package com.team9.virtualwallet.repositories;
+
+import com.team9.virtualwallet.models.PayoutBatch;
+import com.team9.virtualwallet.models.PayoutItem;
+import com.team9.virtualwallet.models.User;
+import com.team9.virtualwallet.models.enums.PayoutStatus;
+import com.team9.virtualwallet.repositories.contracts.PayoutRepository;
+import com.team9.virtualwallet.repositories.contracts.UserRepository;
+import com.team9.virtualwallet.repositories.contracts.WalletRepository;
+import com.team9.virtualwallet.services.contracts.WalletService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.List;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class PayoutBatchTests {
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    WalletRepository walletRepository;
+
+    @Autowired
+    PayoutRepository payoutRepository;
+
+    @Autowired
+    WalletService walletService;
+
+    @Test
+    public void payout_Should_DebitOnceAndCreditEachRecipientOnce() {
+        User sender = register("payout_sender");
+        User first = register("payout_first");
+        User second = register("payout_second");
+        User leaving = register("payout_leaving");
+        walletService.depositBalance(sender.getDefaultWallet(), BigDecimal.valueOf(100));
+
+        PayoutBatch batch = createBatch(sender, "payout-1",
+                new PayoutItem(first.getId(), BigDecimal.TEN),
+                new PayoutItem(second.getId(), BigDecimal.valueOf(5)),
+                new PayoutItem(leaving.getId(), BigDecimal.ONE));
+        payoutRepository.createBatch(batch);
+        Assertions.assertEquals(0, BigDecimal.valueOf(84).compareTo(balanceOf(sender)));
+
+        new JdbcTemplate(dataSource).update("update users set deleted = true where user_id = ?", leaving.getId());
+        payoutRepository.creditItems(batch, batch.getItems());
+        payoutRepository.creditItems(batch, List.of(new PayoutItem(first.getId(), BigDecimal.TEN)));
+
+        Assertions.assertEquals(0, BigDecimal.valueOf(85).compareTo(balanceOf(sender)));
+        Assertions.assertEquals(0, BigDecimal.TEN.compareTo(balanceOf(first)));
+        Assertions.assertEquals(0, BigDecimal.valueOf(5).compareTo(balanceOf(second)));
+        Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(balanceOf(leaving)));
+
+        List<PayoutItem> stored = payoutRepository.getBatch(sender.getId(), "payout-1").orElseThrow().getItems();
+        Assertions.assertEquals(PayoutStatus.COMPLETED, stored.get(0).getStatus());
+        Assertions.assertNotNull(stored.get(0).getTransactionId());
+        Assertions.assertEquals(PayoutStatus.COMPLETED, stored.get(1).getStatus());
+        Assertions.assertEquals(PayoutStatus.REJECTED, stored.get(2).getStatus());
+        Assertions.assertEquals(PayoutStatus.REJECTED, batch.getItems().get(2).getStatus());
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        Assertions.assertEquals(0, BigDecimal.valueOf(-15).compareTo(jdbcTemplate.queryForObject(
+                "select sum(amount) from ledger_entries where payout_batch_id = ? and wallet_id = ?",
+                BigDecimal.class, batch.getId(), sender.getDefaultWallet().getId())));
+        Assertions.assertEquals(leaving.getId(), jdbcTemplate.queryForObject(
+                "select payout_recipient_id from ledger_entries where payout_batch_id = ? and wallet_id = ? and amount > 0",
+                Integer.class, batch.getId(), sender.getDefaultWallet().getId()));
+    }
+
+    private PayoutBatch createBatch(User sender, String reference, PayoutItem... items) {
+        PayoutBatch batch = new PayoutBatch();
+        batch.setSenderId(sender.getId());
+        batch.setWalletId(sender.getDefaultWallet().getId());
+        batch.setReference(reference);
+        batch.setDescription("Payroll");
+        batch.setCreatedAt(new Timestamp(System.currentTimeMillis()));
+        batch.setItems(List.of(items));
+        batch.setTotal(batch.getItems().stream().map(PayoutItem::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add));
+        return batch;
+    }
+
+    private BigDecimal balanceOf(User user) {
+        return walletRepository.getById(user.getDefaultWallet().getId()).getBalance();
+    }
+
+    private User register(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("password");
+        user.setEmail(username + "@mail.com");
+        user.setPhoneNumber(String.format("08%08d", Math.floorMod(username.hashCode(), 100000000)));
+        user.setFirstName("First");
+        user.setLastName("Last");
+        userRepository.createWithDefaultWallet(user, walletService.buildDefaultWallet(user));
+        return user;
+    }
+}
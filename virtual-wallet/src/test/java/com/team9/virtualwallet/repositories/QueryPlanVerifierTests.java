@@ -0,0 +1,53 @@
+package com.team9.virtualwallet.repositories;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class QueryPlanVerifierTests {
+
+    @Autowired
+    QueryPlanVerifier queryPlanVerifier;
+
+    @Test
+    public void findFullScans_Should_FindNone_When_HistoryQueriesAreChecked() throws Exception {
+        Map<String, String> queries = TransactionRepositoryImpl.plannedQueries();
+
+        Assertions.assertTrue(queries.keySet().stream().anyMatch(name -> name.startsWith("incoming")));
+        Assertions.assertTrue(queries.keySet().stream().anyMatch(name -> name.startsWith("period")));
+        Assertions.assertEquals(List.of(), queryPlanVerifier.findFullScans(queries));
+    }
+
+    @Test
+    public void findNativeFullScans_Should_FindNone_When_SpendingsQueriesAreChecked() throws Exception {
+        Map<String, String> queries = CategoryRepositoryImpl.plannedQueries();
+
+        Assertions.assertTrue(queries.containsKey("spendings in period"));
+        Assertions.assertEquals(List.of(), queryPlanVerifier.findNativeFullScans(queries));
+    }
+
+    @Test
+    public void findNativeFullScans_Should_ReportQuery_When_NoIndexMatches() throws Exception {
+        List<String> fullScans = queryPlanVerifier.findNativeFullScans(
+                Map.of("by total", "select sum(total) from category_daily_totals where total > :categoryId"));
+
+        Assertions.assertEquals(1, fullScans.size());
+        Assertions.assertTrue(fullScans.get(0).startsWith("by total"));
+    }
+
+    @Test
+    public void findFullScans_Should_ReportQuery_When_NoIndexMatches() throws Exception {
+        List<String> fullScans = queryPlanVerifier.findFullScans(
+                Map.of("by description", "from Transaction where description = 'unindexed'"));
+
+        Assertions.assertEquals(1, fullScans.size());
+        Assertions.assertTrue(fullScans.get(0).startsWith("by description"));
+    }
+}
@@ -0,0 +1,133 @@
+package com.team9.virtualwallet.repositories;
+
+import com.team9.virtualwallet.models.Category;
+import com.team9.virtualwallet.models.Role;
+import com.team9.virtualwallet.models.User;
+import com.team9.virtualwallet.models.Wallet;
+import com.team9.virtualwallet.repositories.contracts.CategoryRepository;
+import com.team9.virtualwallet.repositories.contracts.RoleRepository;
+import com.team9.virtualwallet.repositories.contracts.UserRepository;
+import com.team9.virtualwallet.repositories.contracts.WalletRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static com.team9.virtualwallet.Helpers.insertUser;
+import static com.team9.virtualwallet.Helpers.insertWallet;
+import static com.team9.virtualwallet.configs.ApplicationConstants.WALLET_CACHE_REGION;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class SecondLevelCacheTests {
+
+    @Autowired
+    SessionFactory sessionFactory;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    WalletRepository walletRepository;
+
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    @Autowired
+    RoleRepository roleRepository;
+
+    private static User owner;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = sessionFactory.getStatistics();
+        if (owner == null) {
+            owner = userRepository.getById(seed(new JdbcTemplate(dataSource)));
+        }
+    }
+
+    @Test
+    public void userWallets_Should_BeServedFromQueryCache_When_ReadAgain() {
+        walletRepository.getAll(owner);
+        statistics.clear();
+
+        List<Wallet> wallets = walletRepository.getAll(owner);
+
+        Assertions.assertEquals(1, wallets.size());
+        Assertions.assertEquals(1, statistics.getQueryCacheHitCount());
+        Assertions.assertEquals(0, statistics.getQueryCacheMissCount());
+    }
+
+    @Test
+    public void create_Should_InvalidateCachedUserQuery() {
+        int categories = categoryRepository.getAll(owner).size();
+
+        Category category = new Category();
+        category.setName("cached" + categories);
+        category.setUser(owner);
+        categoryRepository.create(category);
+
+        Assertions.assertEquals(categories + 1, categoryRepository.getAll(owner).size());
+    }
+
+    @Test
+    public void update_Should_RefreshCachedEntity() {
+        Wallet wallet = walletRepository.getById(owner.getDefaultWallet().getId());
+        wallet.setName("Renamed");
+        walletRepository.update(wallet);
+        statistics.clear();
+
+        Wallet cached = walletRepository.getById(wallet.getId());
+
+        Assertions.assertEquals("Renamed", cached.getName());
+        Assertions.assertEquals(1, statistics.getDomainDataRegionStatistics(WALLET_CACHE_REGION).getHitCount());
+    }
+
+    @Test
+    public void roles_Should_BeServedFromEntityCache() {
+        Role role = new Role();
+        role.setName("cached_role");
+        roleRepository.create(role);
+        roleRepository.getById(role.getId());
+        statistics.clear();
+
+        Assertions.assertEquals("cached_role", roleRepository.getById(role.getId()).getName());
+        Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void regionHits_Should_BeExposedAsMetrics() {
+        walletRepository.getById(owner.getDefaultWallet().getId());
+        walletRepository.getById(owner.getDefaultWallet().getId());
+
+        double hits = meterRegistry.get("cache.gets")
+                .tags("cache", WALLET_CACHE_REGION, "result", "hit")
+                .functionCounter()
+                .count();
+
+        Assertions.assertTrue(hits > 0);
+    }
+
+    private static int seed(JdbcTemplate jdbcTemplate) {
+        int userId = insertUser(jdbcTemplate, "cache_owner");
+        insertWallet(jdbcTemplate, userId, 100);
+        return userId;
+    }
+}
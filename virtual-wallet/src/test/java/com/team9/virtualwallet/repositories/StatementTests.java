@@ -0,0 +1,160 @@
+package com.team9.virtualwallet.repositories;
+
+import com.team9.virtualwallet.models.MonthlyStatement;
+import com.team9.virtualwallet.models.StatementCategoryTotal;
+import com.team9.virtualwallet.repositories.contracts.StatementRepository;
+import com.team9.virtualwallet.services.contracts.StatementService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.List;
+
+import static com.team9.virtualwallet.Helpers.insertUser;
+import static com.team9.virtualwallet.Helpers.insertWallet;
+import static com.team9.virtualwallet.controllers.AuthenticationHelper.AUTHORIZATION_HEADER_PASSWORD;
+import static com.team9.virtualwallet.controllers.AuthenticationHelper.AUTHORIZATION_HEADER_USERNAME;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class StatementTests {
+
+    private static final String OWNER = "statement_owner";
+    private static final YearMonth MONTH = YearMonth.of(2021, 6);
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    StatementService statementService;
+
+    @Autowired
+    StatementRepository statementRepository;
+
+    private static int ownerId, categoryId;
+
+    @BeforeEach
+    public void setUp() {
+        if (ownerId == 0) {
+            seed(new JdbcTemplate(dataSource));
+            statementService.materialize(MONTH);
+        }
+    }
+
+    @Test
+    public void materialize_Should_ComputeBalancesAndTotals() {
+        MonthlyStatement statement = statementRepository.getByMonth(ownerId, MONTH);
+
+        assertAmount(70, statement.getOpeningBalance());
+        assertAmount(30, statement.getIncoming());
+        assertAmount(20, statement.getOutgoing());
+        assertAmount(80, statement.getClosingBalance());
+
+        List<StatementCategoryTotal> categoryTotals = statement.getCategoryTotals();
+        Assertions.assertEquals(1, categoryTotals.size());
+        Assertions.assertEquals(categoryId, categoryTotals.get(0).getCategoryId());
+        Assertions.assertEquals("Statement", categoryTotals.get(0).getCategoryName());
+        assertAmount(10, categoryTotals.get(0).getTotal());
+    }
+
+    @Test
+    public void materialize_Should_NotRecreateExistingStatements() {
+        statementService.materialize(MONTH);
+
+        Assertions.assertFalse(statementRepository.getUsersWithoutStatement(MONTH, 1000).contains(ownerId));
+        Assertions.assertEquals(1, statementRepository.getAll(ownerId).size());
+    }
+
+    @Test
+    public void getStatement_Should_ReturnClosedMonth() throws Exception {
+        mockMvc.perform(get("/api/transactions/statements/2021-06")
+                        .header(AUTHORIZATION_HEADER_USERNAME, OWNER)
+                        .header(AUTHORIZATION_HEADER_PASSWORD, "password"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.month").value("2021-06"))
+                .andExpect(jsonPath("$.closingBalance").value(80.0));
+
+        mockMvc.perform(get("/api/transactions/statements/2021-07")
+                        .header(AUTHORIZATION_HEADER_USERNAME, OWNER)
+                        .header(AUTHORIZATION_HEADER_PASSWORD, "password"))
+                .andExpect(status().isNotFound());
+    }
+
+    private static void assertAmount(int expected, BigDecimal actual) {
+        Assertions.assertEquals(0, BigDecimal.valueOf(expected).compareTo(actual));
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        ownerId = insertUser(jdbcTemplate, OWNER);
+        int mainWallet = insertWallet(jdbcTemplate, ownerId, 0);
+        int savingsWallet = insertWallet(jdbcTemplate, ownerId, 0);
+        int counterpartyId = insertUser(jdbcTemplate, "statement_other");
+        int counterpartyWallet = insertWallet(jdbcTemplate, counterpartyId, 0);
+
+        // 50 carried over from before the ledger, 20 more in May.
+        jdbcTemplate.update("insert into wallet_snapshots (wallet_id, balance, last_entry_id, created_at) values (?, 50, 0, ?)",
+                mainWallet, Timestamp.valueOf("2021-01-01 00:00:00"));
+        int deposit = insertTransaction(jdbcTemplate, counterpartyId, ownerId, counterpartyWallet, mainWallet, "SMALL_TRANSACTION", 20, "2021-05-20 12:00:00");
+        insertEntry(jdbcTemplate, mainWallet, deposit, 20, "2021-05-20 12:00:00");
+
+        int incoming = insertTransaction(jdbcTemplate, counterpartyId, ownerId, counterpartyWallet, mainWallet, "SMALL_TRANSACTION", 30, "2021-06-05 12:00:00");
+        insertEntry(jdbcTemplate, mainWallet, incoming, 30, "2021-06-05 12:00:00");
+        int outgoing = insertTransaction(jdbcTemplate, ownerId, counterpartyId, mainWallet, counterpartyWallet, "SMALL_TRANSACTION", 10, "2021-06-10 12:00:00");
+        insertEntry(jdbcTemplate, mainWallet, outgoing, -10, "2021-06-10 12:00:00");
+        int move = insertTransaction(jdbcTemplate, ownerId, ownerId, mainWallet, savingsWallet, "WALLET_TO_WALLET", 5, "2021-06-15 12:00:00");
+        insertEntry(jdbcTemplate, mainWallet, move, -5, "2021-06-15 12:00:00");
+        insertEntry(jdbcTemplate, savingsWallet, move, 5, "2021-06-15 12:00:00");
+        // A payout of 12 where 2 came back to the sender counts as 10 paid out, not as 12 out and 2 in.
+        jdbcTemplate.update("insert into payout_batches (sender_id, wallet_id, reference, description, total) " +
+                "values (?, ?, 'statement-payout', 'Statement', 12)", ownerId, mainWallet);
+        int batchId = jdbcTemplate.queryForObject("select max(batch_id) from payout_batches", Integer.class);
+        insertPayoutEntry(jdbcTemplate, mainWallet, batchId, null, -12, "2021-06-20 12:00:00");
+        insertPayoutEntry(jdbcTemplate, mainWallet, batchId, counterpartyId, 2, "2021-06-20 12:00:01");
+        int later = insertTransaction(jdbcTemplate, counterpartyId, ownerId, counterpartyWallet, mainWallet, "SMALL_TRANSACTION", 40, "2021-07-01 00:00:00");
+        insertEntry(jdbcTemplate, mainWallet, later, 40, "2021-07-01 00:00:00");
+        // Keep wallet balances in line with the ledger so reconciliation elsewhere sees no drift.
+        jdbcTemplate.update("update wallets set balance = 115 where wallet_id = ?", mainWallet);
+        jdbcTemplate.update("update wallets set balance = 5 where wallet_id = ?", savingsWallet);
+
+        jdbcTemplate.update("insert into categories (name, user_id) values ('Statement', ?)", ownerId);
+        categoryId = jdbcTemplate.queryForObject("select max(category_id) from categories", Integer.class);
+        jdbcTemplate.update("insert into category_daily_totals (category_id, spent_on, total) values (?, '2021-06-10', 10)", categoryId);
+        jdbcTemplate.update("insert into category_daily_totals (category_id, spent_on, total) values (?, '2021-07-02', 99)", categoryId);
+    }
+
+    private static int insertTransaction(JdbcTemplate jdbcTemplate, int senderId, int recipientId, int senderWallet,
+                                         int recipientWallet, String type, int amount, String timestamp) {
+        jdbcTemplate.update("insert into transactions (timestamp, sender_id, recipient_id, amount, sender_payment_method_id, " +
+                        "recipient_payment_method_id, description, transaction_type) values (?, ?, ?, ?, ?, ?, 'Statement', ?)",
+                Timestamp.valueOf(timestamp), senderId, recipientId, amount, senderWallet, recipientWallet, type);
+        return jdbcTemplate.queryForObject("select max(transaction_id) from transactions", Integer.class);
+    }
+
+    private static void insertEntry(JdbcTemplate jdbcTemplate, int walletId, int transactionId, int amount, String createdAt) {
+        jdbcTemplate.update("insert into ledger_entries (wallet_id, transaction_id, amount, created_at) values (?, ?, ?, ?)",
+                walletId, transactionId, amount, Timestamp.valueOf(createdAt));
+    }
+
+    private static void insertPayoutEntry(JdbcTemplate jdbcTemplate, int walletId, int batchId, Integer recipientId,
+                                          int amount, String createdAt) {
+        jdbcTemplate.update("insert into ledger_entries (wallet_id, payout_batch_id, payout_recipient_id, amount, created_at) " +
+                "values (?, ?, ?, ?, ?)", walletId, batchId, recipientId, amount, Timestamp.valueOf(createdAt));
+    }
+}
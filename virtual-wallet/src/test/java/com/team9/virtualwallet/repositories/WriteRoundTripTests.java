@@ -0,0 +1,150 @@
+package com.team9.virtualwallet.repositories;
+
+import com.team9.virtualwallet.configs.RetryingTransactionTemplate;
+import com.team9.virtualwallet.models.PaymentMethod;
+import com.team9.virtualwallet.models.Transaction;
+import com.team9.virtualwallet.models.User;
+import com.team9.virtualwallet.models.Wallet;
+import com.team9.virtualwallet.models.enums.TransactionType;
+import com.team9.virtualwallet.repositories.contracts.TransactionRepository;
+import com.team9.virtualwallet.repositories.contracts.UserRepository;
+import com.team9.virtualwallet.repositories.contracts.WalletRepository;
+import com.team9.virtualwallet.services.contracts.WalletService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class WriteRoundTripTests {
+
+    private static final int REGISTRATION_STATEMENTS = 4;
+    private static final int TRANSFER_STATEMENTS = 6;
+
+    @Autowired
+    SessionFactory sessionFactory;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    WalletRepository walletRepository;
+
+    @Autowired
+    TransactionRepository transactionRepository;
+
+    @Autowired
+    WalletService walletService;
+
+    @Autowired
+    RetryingTransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = sessionFactory.getStatistics();
+    }
+
+    @Test
+    public void registration_Should_UseOneUnitOfWork() {
+        statistics.clear();
+
+        User user = register("batch_registered");
+
+        Assertions.assertEquals(1, statistics.getTransactionCount());
+        Assertions.assertEquals(1, statistics.getConnectCount());
+        assertStatementsAtMost(REGISTRATION_STATEMENTS);
+        Assertions.assertEquals(user.getDefaultWallet().getId(),
+                userRepository.getById(user.getId()).getDefaultWallet().getId());
+    }
+
+    @Test
+    public void transfer_Should_LockWalletsTogetherAndBatchUpdates() {
+        User sender = register("batch_sender");
+        User recipient = register("batch_recipient");
+        walletService.depositBalance(sender.getDefaultWallet(), BigDecimal.TEN);
+        statistics.clear();
+
+        transactionRepository.create(createTransaction(sender, recipient), sender.getDefaultWallet(), recipient.getDefaultWallet());
+
+        assertStatementsAtMost(TRANSFER_STATEMENTS);
+        Assertions.assertEquals(0, BigDecimal.valueOf(9).compareTo(walletRepository.getById(sender.getDefaultWallet().getId()).getBalance()));
+        Assertions.assertEquals(0, BigDecimal.ONE.compareTo(walletRepository.getById(recipient.getDefaultWallet().getId()).getBalance()));
+    }
+
+    @Test
+    public void update_Should_MergeIntoManagedInstance_When_DetachedCopyIsUpdated() {
+        User user = register("merge_owner");
+        Wallet detached = user.getDefaultWallet();
+        detached.setName("Merged");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Wallet managed = walletRepository.getById(detached.getId());
+
+            walletRepository.update(detached);
+
+            Assertions.assertTrue(sessionFactory.getCurrentSession().contains(managed));
+            Assertions.assertEquals("Merged", managed.getName());
+        });
+    }
+
+    @Test
+    public void update_Should_RejectStaleDetachedCopy_When_ManagedInstanceIsNewer() {
+        User user = register("stale_owner");
+        Wallet detached = user.getDefaultWallet();
+        detached.setVersion(detached.getVersion() - 1);
+
+        Assertions.assertThrows(OptimisticLockingFailureException.class,
+                () -> transactionTemplate.executeWithoutResult(status -> {
+                    walletRepository.getById(detached.getId());
+                    walletRepository.update(detached);
+                }));
+    }
+
+    private User register(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("password");
+        user.setEmail(username + "@mail.com");
+        user.setPhoneNumber(String.valueOf(username.hashCode()));
+        user.setFirstName("First");
+        user.setLastName("Last");
+        userRepository.createWithDefaultWallet(user, walletService.buildDefaultWallet(user));
+        return user;
+    }
+
+    private static Transaction createTransaction(User sender, User recipient) {
+        Transaction transaction = new Transaction();
+        transaction.setSender(sender);
+        transaction.setRecipient(recipient);
+        transaction.setAmount(BigDecimal.ONE);
+        transaction.setDescription("Round trips");
+        transaction.setTimestamp(new Timestamp(System.currentTimeMillis()));
+        transaction.setTransactionType(TransactionType.SMALL_TRANSACTION);
+        transaction.setSenderPaymentMethod(paymentMethod(sender.getDefaultWallet()));
+        transaction.setRecipientPaymentMethod(paymentMethod(recipient.getDefaultWallet()));
+        return transaction;
+    }
+
+    private static PaymentMethod paymentMethod(Wallet wallet) {
+        PaymentMethod paymentMethod = new PaymentMethod();
+        paymentMethod.setId(wallet.getId());
+        return paymentMethod;
+    }
+
+    private void assertStatementsAtMost(long expected) {
+        long executed = statistics.getPrepareStatementCount();
+        Assertions.assertTrue(executed <= expected,
+                String.format("Expected at most %d statements but %d were executed", expected, executed));
+    }
+}
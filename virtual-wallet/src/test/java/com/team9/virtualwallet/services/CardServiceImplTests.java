@@ -140,12 +140,7 @@ public class CardServiceImplTests {
     public void Update_Should_Throw_When_DuplicateExits() {
 
         var mockCustomer = createMockCustomer();
-        var mockCard = createMockCard(mockCustomer);
         var mockCard1 = createMockCard(mockCustomer);
-        mockCard.setCardNumber("1234");
-
-        Mockito.when(mockRepository.getById(anyInt()))
-                .thenReturn(mockCard);
 
         Mockito.when(mockRepository.isDuplicate(Mockito.any(Card.class)))
                 .thenReturn(true);
@@ -175,9 +170,6 @@ public class CardServiceImplTests {
         Mockito.when(mockRepository.isDuplicate(mockCard))
                 .thenReturn(false);
 
-        Mockito.when(mockRepository.getById(anyInt()))
-                .thenReturn(mockCard);
-
         // Act
         service.update(mockUser, mockCard);
 
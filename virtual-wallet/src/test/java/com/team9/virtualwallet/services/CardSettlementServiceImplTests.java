@@ -0,0 +1,206 @@
+package com.team9.virtualwallet.services;
+
+import com.team9.virtualwallet.configs.MonitoredTaskExecutor;
+import com.team9.virtualwallet.exceptions.CardGatewayRejectedException;
+import com.team9.virtualwallet.exceptions.CardGatewayUnavailableException;
+import com.team9.virtualwallet.exceptions.SettlementBacklogFullException;
+import com.team9.virtualwallet.models.CardSettlement;
+import com.team9.virtualwallet.models.enums.TransactionStatus;
+import com.team9.virtualwallet.repositories.contracts.CardSettlementRepository;
+import com.team9.virtualwallet.services.gateway.CardGatewayClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.team9.virtualwallet.Helpers.createMockCustomer;
+import static com.team9.virtualwallet.Helpers.createMockTransaction;
+import static com.team9.virtualwallet.Helpers.createMockWallet;
+import static com.team9.virtualwallet.Helpers.createTransactionTemplate;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+
+@ExtendWith(MockitoExtension.class)
+public class CardSettlementServiceImplTests {
+
+    @Mock
+    CardSettlementRepository mockRepository;
+
+    @Mock
+    CardGatewayClient cardGatewayClient;
+
+    MonitoredTaskExecutor executor;
+
+    CardSettlementServiceImpl service;
+
+    @BeforeEach
+    public void setUp() {
+        var env = new MockEnvironment()
+                .withProperty("settlement.max-backlog", "10")
+                .withProperty("settlement.max-attempts", "2");
+        var meterRegistry = new SimpleMeterRegistry();
+        executor = new MonitoredTaskExecutor("card-settlement", 1, 1, 0, meterRegistry);
+        executor.initialize();
+        service = new CardSettlementServiceImpl(mockRepository, cardGatewayClient, createTransactionTemplate(), env, meterRegistry, executor);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void Settle_Should_MarkSettled_When_GatewayAccepts() {
+        var settlement = createMockSettlement();
+
+        service.settle(settlement);
+
+        Mockito.verify(mockRepository, Mockito.times(1))
+                .complete(settlement, TransactionStatus.SETTLED, null);
+    }
+
+    @Test
+    public void Settle_Should_MarkRejected_When_GatewayRejects() {
+        var settlement = createMockSettlement();
+        Mockito.doThrow(new CardGatewayRejectedException("rejected"))
+                .when(cardGatewayClient).verifyTransfer(anyInt());
+
+        service.settle(settlement);
+
+        Mockito.verify(mockRepository, Mockito.times(1))
+                .complete(settlement, TransactionStatus.REJECTED, "rejected");
+    }
+
+    @Test
+    public void Settle_Should_Retry_When_GatewayUnavailable() {
+        var settlement = createMockSettlement();
+        Mockito.doThrow(new CardGatewayUnavailableException("unavailable"))
+                .when(cardGatewayClient).verifyTransfer(anyInt());
+
+        service.settle(settlement);
+
+        Mockito.verify(mockRepository, Mockito.times(1)).retry(eq(settlement), any(), eq("unavailable"));
+        Mockito.verify(mockRepository, Mockito.never()).complete(any(), any(), any());
+    }
+
+    @Test
+    public void Settle_Should_MarkRejected_When_AttemptsExhausted() {
+        var settlement = createMockSettlement();
+        settlement.setAttempts(1);
+        Mockito.doThrow(new CardGatewayUnavailableException("unavailable"))
+                .when(cardGatewayClient).verifyTransfer(anyInt());
+
+        service.settle(settlement);
+
+        Mockito.verify(mockRepository, Mockito.times(1))
+                .complete(settlement, TransactionStatus.REJECTED, "unavailable");
+    }
+
+    @Test
+    public void Settle_Should_MarkRejected_When_UnexpectedFailuresExhaustAttempts() {
+        var settlement = createMockSettlement();
+        settlement.setAttempts(1);
+        Mockito.doThrow(new IllegalStateException("broken"))
+                .when(cardGatewayClient).verifyTransfer(anyInt());
+
+        service.settle(settlement);
+
+        Mockito.verify(mockRepository, Mockito.times(1))
+                .complete(settlement, TransactionStatus.REJECTED, null);
+        Mockito.verify(mockRepository, Mockito.never()).retry(any(), any(), any());
+    }
+
+    @Test
+    public void Settle_Should_RetryOnlyCompletion_When_RecordingOutcomeFails() {
+        var settlement = createMockSettlement();
+        Mockito.doThrow(new IllegalStateException("database down"))
+                .when(mockRepository).complete(settlement, TransactionStatus.SETTLED, null);
+
+        service.settle(settlement);
+
+        Assertions.assertEquals(TransactionStatus.SETTLED, settlement.getGatewayOutcome());
+        Mockito.verify(mockRepository, Mockito.times(1)).retry(eq(settlement), any(), eq(null));
+        Mockito.verify(cardGatewayClient, Mockito.times(1)).verifyTransfer(settlement.getTransactionId());
+    }
+
+    @Test
+    public void Settle_Should_NotCallGateway_When_OutcomeAlreadyKnown() {
+        var settlement = createMockSettlement();
+        settlement.setGatewayOutcome(TransactionStatus.SETTLED);
+
+        service.settle(settlement);
+
+        Mockito.verifyNoInteractions(cardGatewayClient);
+        Mockito.verify(mockRepository, Mockito.times(1))
+                .complete(settlement, TransactionStatus.SETTLED, null);
+    }
+
+    @Test
+    public void Settle_Should_DeadLetter_When_CompletionAttemptsExhausted() {
+        var settlement = createMockSettlement();
+        settlement.setAttempts(1);
+        settlement.setGatewayOutcome(TransactionStatus.SETTLED);
+        Mockito.doThrow(new IllegalStateException("database down"))
+                .when(mockRepository).complete(settlement, TransactionStatus.SETTLED, null);
+
+        service.settle(settlement);
+
+        Mockito.verify(mockRepository, Mockito.times(1)).markDead(settlement, null);
+        Mockito.verify(mockRepository, Mockito.never()).retry(any(), any(), any());
+    }
+
+    @Test
+    public void Dispatch_Should_ClaimOnlyFreeCapacity() {
+        Mockito.when(mockRepository.claim(anyInt(), any())).thenReturn(List.of());
+
+        service.dispatch();
+
+        Mockito.verify(mockRepository, Mockito.times(1)).claim(eq(2), any());
+    }
+
+    @Test
+    public void Dispatch_Should_ReleaseUndispatchedSettlements_When_ExecutorRejects() throws Exception {
+        List<CardSettlement> settlements = new ArrayList<>();
+        for (int id = 1; id <= 4; id++) {
+            var settlement = createMockSettlement();
+            settlement.setTransactionId(id);
+            settlements.add(settlement);
+        }
+        CountDownLatch verifying = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> verifying.await(5, TimeUnit.SECONDS)).when(cardGatewayClient).verifyTransfer(anyInt());
+        Mockito.when(mockRepository.claim(anyInt(), any())).thenReturn(settlements);
+
+        try {
+            Assertions.assertEquals(2, service.dispatch());
+
+            Mockito.verify(mockRepository, Mockito.times(1)).release(List.of(3, 4));
+            Mockito.verify(cardGatewayClient, Mockito.timeout(5000)).verifyTransfer(1);
+        } finally {
+            verifying.countDown();
+        }
+    }
+
+    @Test
+    public void VerifyCapacity_Should_Throw_When_BacklogFull() {
+        Mockito.when(mockRepository.countPending()).thenReturn(10L);
+
+        Assertions.assertThrows(SettlementBacklogFullException.class, () -> service.verifyCapacity());
+    }
+
+    private static CardSettlement createMockSettlement() {
+        var mockUser = createMockCustomer();
+        return new CardSettlement(createMockTransaction(), createMockWallet(mockUser));
+    }
+}
@@ -4,6 +4,7 @@ import com.team9.virtualwallet.exceptions.DuplicateEntityException;
 import com.team9.virtualwallet.exceptions.UnauthorizedOperationException;
 import com.team9.virtualwallet.models.Category;
 import com.team9.virtualwallet.models.User;
+import com.team9.virtualwallet.models.enums.FetchPlan;
 import com.team9.virtualwallet.repositories.contracts.CategoryRepository;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -13,6 +14,9 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -20,6 +24,7 @@ import java.util.Optional;
 import static com.team9.virtualwallet.Helpers.*;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 
 @ExtendWith(MockitoExtension.class)
 public class CategoryServiceImplTests {
@@ -81,7 +86,7 @@ public class CategoryServiceImplTests {
         var mockCategory = createMockCategory(mockUser);
 
 
-        Mockito.when(mockRepository.isDuplicate(Mockito.any(User.class), anyString()))
+        Mockito.when(mockRepository.isDuplicate(Mockito.any(User.class), Mockito.any(Category.class)))
                 .thenReturn(true);
 
         Assertions.assertThrows(DuplicateEntityException.class,
@@ -94,7 +99,7 @@ public class CategoryServiceImplTests {
         var mockUser = createMockEmployee();
         var mockCategory = createMockCategory(mockUser);
 
-        Mockito.when(mockRepository.isDuplicate(Mockito.any(User.class), anyString()))
+        Mockito.when(mockRepository.isDuplicate(Mockito.any(User.class), Mockito.any(Category.class)))
                 .thenReturn(false);
 
         // Act
@@ -121,14 +126,9 @@ public class CategoryServiceImplTests {
     public void Update_Should_Throw_When_DuplicateExits() {
 
         var mockCustomer = createMockCustomer();
-        var mockCategory = createMockCategory(mockCustomer);
         var mockCategory1 = createMockCategory(mockCustomer);
-        mockCategory.setName("Food");
-
-        Mockito.when(mockRepository.getById(anyInt()))
-                .thenReturn(mockCategory);
 
-        Mockito.when(mockRepository.isDuplicate(Mockito.any(User.class), anyString()))
+        Mockito.when(mockRepository.isDuplicate(Mockito.any(User.class), Mockito.any(Category.class)))
                 .thenReturn(true);
 
         Assertions.assertThrows(DuplicateEntityException.class,
@@ -141,12 +141,9 @@ public class CategoryServiceImplTests {
         var mockCustomer = createMockCustomer();
         var mockCategory = createMockCategory(mockCustomer);
 
-        Mockito.when(mockRepository.isDuplicate(Mockito.any(User.class), anyString()))
+        Mockito.when(mockRepository.isDuplicate(Mockito.any(User.class), Mockito.any(Category.class)))
                 .thenReturn(false);
 
-        Mockito.when(mockRepository.getById(anyInt()))
-                .thenReturn(mockCategory);
-
         // Act
         service.update(mockCustomer, mockCategory);
 
@@ -163,7 +160,7 @@ public class CategoryServiceImplTests {
         mockUser1.setId(4);
         var mockCategory = createMockCategory(mockUser);
 
-        Mockito.when(mockRepository.getById(anyInt()))
+        Mockito.when(mockRepository.getById(anyInt(), eq(FetchPlan.CATEGORY_TRANSACTIONS)))
                 .thenReturn(mockCategory);
 
         Assertions.assertThrows(UnauthorizedOperationException.class,
@@ -176,12 +173,14 @@ public class CategoryServiceImplTests {
         var mockUser = createMockEmployee();
         var mockCategory = createMockCategory(mockUser);
 
-        Mockito.when(mockRepository.getById(anyInt()))
+        Mockito.when(mockRepository.getById(anyInt(), eq(FetchPlan.CATEGORY_TRANSACTIONS)))
                 .thenReturn(mockCategory);
 
         service.delete(mockUser, 1);
 
         // Assert
+        Mockito.verify(mockRepository, Mockito.times(1))
+                .deleteDailyTotals(mockCategory.getId());
         Mockito.verify(mockRepository, Mockito.times(1))
                 .delete(Mockito.any(Category.class));
 
@@ -201,4 +200,17 @@ public class CategoryServiceImplTests {
                 .calculateSpendings(mockCategory, Optional.empty(), Optional.empty());
 
     }
+
+    @Test
+    public void AddToSpendings_Should_AddToDailyTotal() {
+        var mockTransaction = createMockTransaction();
+        mockTransaction.setCategory(createMockCategory(createMockCustomer()));
+        mockTransaction.setTimestamp(Timestamp.valueOf("2021-06-01 18:30:00"));
+        mockTransaction.setAmount(BigDecimal.TEN);
+
+        service.addToSpendings(mockTransaction);
+
+        Mockito.verify(mockRepository, Mockito.times(1))
+                .addToDailyTotal(1, LocalDate.of(2021, 6, 1), BigDecimal.TEN);
+    }
 }
@@ -0,0 +1,65 @@
+package com.team9.virtualwallet.services;
+
+import com.team9.virtualwallet.repositories.contracts.CategoryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static com.team9.virtualwallet.services.CategoryTotalsServiceImpl.INCONSISTENT_CATEGORIES_METRIC;
+
+@ExtendWith(MockitoExtension.class)
+public class CategoryTotalsServiceImplTests {
+
+    @Mock
+    CategoryRepository mockRepository;
+
+    SimpleMeterRegistry meterRegistry;
+
+    CategoryTotalsServiceImpl service;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new CategoryTotalsServiceImpl(mockRepository, meterRegistry);
+    }
+
+    @Test
+    public void Backfill_Should_RebuildEveryCategory() {
+        service.backfill(List.of(2, 3));
+
+        Mockito.verify(mockRepository).rebuildDailyTotals(2);
+        Mockito.verify(mockRepository).rebuildDailyTotals(3);
+    }
+
+    @Test
+    public void Reconcile_Should_RebuildInconsistentCategories() {
+        Mockito.when(mockRepository.getInconsistentCategoryIds())
+                .thenReturn(List.of(4, 7));
+
+        var result = service.reconcile();
+
+        Assertions.assertEquals(List.of(4, 7), result);
+        Assertions.assertEquals(2, meterRegistry.get(INCONSISTENT_CATEGORIES_METRIC).gauge().value());
+        Mockito.verify(mockRepository).rebuildDailyTotals(4);
+        Mockito.verify(mockRepository).rebuildDailyTotals(7);
+    }
+
+    @Test
+    public void Reconcile_Should_ClearGauge_When_AllCategoriesMatch() {
+        Mockito.when(mockRepository.getInconsistentCategoryIds())
+                .thenReturn(List.of());
+
+        var result = service.reconcile();
+
+        Assertions.assertTrue(result.isEmpty());
+        Assertions.assertEquals(0, meterRegistry.get(INCONSISTENT_CATEGORIES_METRIC).gauge().value());
+        Mockito.verify(mockRepository, Mockito.never()).rebuildDailyTotals(Mockito.anyInt());
+    }
+}
@@ -0,0 +1,70 @@
+package com.team9.virtualwallet.services;
+
+import com.team9.virtualwallet.repositories.contracts.LedgerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.List;
+
+import static com.team9.virtualwallet.services.LedgerServiceImpl.UNRECONCILED_WALLETS_METRIC;
+
+@ExtendWith(MockitoExtension.class)
+public class LedgerServiceImplTests {
+
+    @Mock
+    LedgerRepository mockRepository;
+
+    SimpleMeterRegistry meterRegistry;
+
+    LedgerServiceImpl service;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new LedgerServiceImpl(mockRepository, meterRegistry);
+    }
+
+    @Test
+    public void SnapshotBalances_Should_OnlyIncludeSettledEntries() {
+        Mockito.when(mockRepository.snapshotBalances(Mockito.any(Timestamp.class)))
+                .thenReturn(3);
+
+        var result = service.snapshotBalances();
+
+        Assertions.assertEquals(3, result);
+        Mockito.verify(mockRepository).snapshotBalances(Mockito.argThat(settledBefore ->
+                settledBefore.before(new Timestamp(System.currentTimeMillis()))));
+    }
+
+    @Test
+    public void Reconcile_Should_ReportUnreconciledWallets() {
+        Mockito.when(mockRepository.getUnreconciledWalletIds())
+                .thenReturn(List.of(4, 7));
+        Mockito.when(mockRepository.calculateBalance(Mockito.anyInt()))
+                .thenReturn(BigDecimal.TEN);
+
+        var result = service.reconcile();
+
+        Assertions.assertEquals(List.of(4, 7), result);
+        Assertions.assertEquals(2, meterRegistry.get(UNRECONCILED_WALLETS_METRIC).gauge().value());
+    }
+
+    @Test
+    public void Reconcile_Should_ClearGauge_When_AllWalletsMatch() {
+        Mockito.when(mockRepository.getUnreconciledWalletIds())
+                .thenReturn(List.of());
+
+        var result = service.reconcile();
+
+        Assertions.assertTrue(result.isEmpty());
+        Assertions.assertEquals(0, meterRegistry.get(UNRECONCILED_WALLETS_METRIC).gauge().value());
+    }
+}
@@ -0,0 +1,98 @@
+package com.team9.virtualwallet.services;
+
+import com.team9.virtualwallet.configs.MonitoredTaskExecutor;
+import com.team9.virtualwallet.repositories.contracts.StatementRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.team9.virtualwallet.Helpers.createMockCustomer;
+import static com.team9.virtualwallet.Helpers.createTransactionTemplate;
+import static com.team9.virtualwallet.configs.ApplicationConstants.STATEMENT_BATCH_SIZE;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+
+@ExtendWith(MockitoExtension.class)
+public class StatementServiceImplTests {
+
+    private static final YearMonth MONTH = YearMonth.of(2021, 6);
+
+    @Mock
+    StatementRepository mockRepository;
+
+    MonitoredTaskExecutor executor;
+
+    StatementServiceImpl service;
+
+    @BeforeEach
+    public void setUp() {
+        executor = new MonitoredTaskExecutor("reporting", 2, 2, 0, new SimpleMeterRegistry());
+        executor.initialize();
+        service = new StatementServiceImpl(mockRepository, createTransactionTemplate(), executor);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void Materialize_Should_SplitUsersIntoBatches() {
+        List<Integer> userIds = IntStream.rangeClosed(1, STATEMENT_BATCH_SIZE + 1).boxed().collect(Collectors.toList());
+        Mockito.when(mockRepository.getUsersWithoutStatement(MONTH, 4 * STATEMENT_BATCH_SIZE))
+                .thenReturn(userIds);
+        Mockito.when(mockRepository.createStatements(anyList(), eq(MONTH)))
+                .thenAnswer(invocation -> invocation.<List<Integer>>getArgument(0).size());
+
+        var result = service.materialize(MONTH);
+
+        Assertions.assertEquals(STATEMENT_BATCH_SIZE + 1, result);
+        Mockito.verify(mockRepository).createStatements(userIds.subList(0, STATEMENT_BATCH_SIZE), MONTH);
+        Mockito.verify(mockRepository).createStatements(List.of(STATEMENT_BATCH_SIZE + 1), MONTH);
+    }
+
+    @Test
+    public void Materialize_Should_SkipFailedBatch() {
+        Mockito.when(mockRepository.getUsersWithoutStatement(eq(MONTH), anyInt()))
+                .thenReturn(List.of(1, 2));
+        Mockito.when(mockRepository.createStatements(anyList(), eq(MONTH)))
+                .thenThrow(new IllegalStateException("duplicate"));
+
+        var result = service.materialize(MONTH);
+
+        Assertions.assertEquals(0, result);
+    }
+
+    @Test
+    public void MaterializeClosedMonth_Should_UsePreviousMonth() {
+        Mockito.when(mockRepository.getUsersWithoutStatement(any(YearMonth.class), anyInt()))
+                .thenReturn(List.of());
+
+        service.materializeClosedMonth();
+
+        Mockito.verify(mockRepository).getUsersWithoutStatement(Mockito.argThat(month ->
+                month.isBefore(YearMonth.now())), anyInt());
+    }
+
+    @Test
+    public void GetAll_Should_Call_Repository() {
+        var user = createMockCustomer();
+
+        service.getAll(user);
+
+        Mockito.verify(mockRepository).getAll(user.getId());
+    }
+}
@@ -1,12 +1,22 @@
 package com.team9.virtualwallet.services;
 
+import com.team9.virtualwallet.configs.RetryingTransactionTemplate;
 import com.team9.virtualwallet.exceptions.CardExpiredException;
+import com.team9.virtualwallet.exceptions.SettlementBacklogFullException;
 import com.team9.virtualwallet.exceptions.UnauthorizedOperationException;
+import com.team9.virtualwallet.models.CursorPage;
 import com.team9.virtualwallet.models.Pages;
+import com.team9.virtualwallet.models.PayoutBatch;
+import com.team9.virtualwallet.models.PayoutItem;
 import com.team9.virtualwallet.models.Transaction;
+import com.team9.virtualwallet.models.TransactionCursor;
 import com.team9.virtualwallet.models.Wallet;
+import com.team9.virtualwallet.models.dtos.TransactionHistoryDto;
+import com.team9.virtualwallet.models.enums.PayoutStatus;
+import com.team9.virtualwallet.models.enums.TransactionStatus;
 import com.team9.virtualwallet.repositories.contracts.*;
 import com.team9.virtualwallet.services.contracts.CardService;
+import com.team9.virtualwallet.services.contracts.CardSettlementService;
 import com.team9.virtualwallet.services.contracts.CategoryService;
 import com.team9.virtualwallet.services.contracts.UserService;
 import com.team9.virtualwallet.services.contracts.WalletService;
@@ -17,6 +27,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -27,9 +38,12 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static com.team9.virtualwallet.Helpers.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 
@@ -66,6 +80,15 @@ public class TransactionServiceImplTests {
     @Mock
     SendEmailService sendEmailService;
 
+    @Mock
+    CardSettlementService cardSettlementService;
+
+    @Mock
+    PayoutRepository payoutRepository;
+
+    @Spy
+    RetryingTransactionTemplate transactionTemplate = createTransactionTemplate();
+
     @InjectMocks
     TransactionServiceImpl service;
 
@@ -103,22 +126,49 @@ public class TransactionServiceImplTests {
     }
 
     @Test
-    public void getAll_Should_ReturnEmptyList_When_RepositoryEmpty() {
+    public void getHistory_Should_ReturnEmptyList_When_RepositoryEmpty() {
         var mockEmployee = createMockEmployee();
         Pageable pageable = PageRequest.of(1, 1);
 
-        List<Transaction> transactions = new ArrayList<>();
-        Pages<Transaction> list = new Pages<>(transactions, 1, pageable);
+        List<TransactionHistoryDto> transactions = new ArrayList<>();
+        Pages<TransactionHistoryDto> list = new Pages<>(transactions, 1, pageable);
 
-        Mockito.when(mockRepository.getAll(mockEmployee, pageable))
+        Mockito.when(mockRepository.getHistory(mockEmployee, pageable))
                 .thenReturn(list);
         // Act
-        Pages<Transaction> result = service.getAll(mockEmployee, pageable);
+        Pages<TransactionHistoryDto> result = service.getHistory(mockEmployee, pageable);
 
         // Assert
         Assertions.assertEquals(1, result.getTotal());
     }
 
+    @Test
+    public void getHistory_Should_PassDecodedCursor_When_PageTokenPresent() {
+        var mockEmployee = createMockEmployee();
+        var timestamp = Timestamp.valueOf(LocalDateTime.of(2021, 9, 1, 12, 30, 15));
+        String token = new TransactionCursor(timestamp, 42).encode();
+
+        Mockito.when(mockRepository.getHistory(Mockito.eq(mockEmployee), Mockito.any(), Mockito.eq(10), Mockito.eq(false)))
+                .thenReturn(new CursorPage<>(new ArrayList<>(), null, null));
+        // Act
+        service.getHistory(mockEmployee, Optional.of(token), 10, false);
+
+        // Assert
+        Mockito.verify(mockRepository, Mockito.times(1)).getHistory(Mockito.eq(mockEmployee),
+                Mockito.argThat(cursor -> cursor.isPresent()
+                        && cursor.get().getId() == 42
+                        && cursor.get().getTimestamp().equals(timestamp)),
+                Mockito.eq(10), Mockito.eq(false));
+    }
+
+    @Test
+    public void getHistory_Should_Throw_When_PageTokenInvalid() {
+        var mockEmployee = createMockEmployee();
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> service.getHistory(mockEmployee, Optional.of("not-a-token"), 10, false));
+    }
+
     @Test
     public void getLastTransactions_Should_Call_Repository() {
         var transactions = new ArrayList<Transaction>();
@@ -207,6 +257,9 @@ public class TransactionServiceImplTests {
         service.create(mockTransaction, Optional.of(1));
 
         Mockito.verify(mockRepository, Mockito.times(1))
+                .create(Mockito.any(Transaction.class));
+
+        Mockito.verify(mockRepository, Mockito.never())
                 .create(Mockito.any(Transaction.class), Mockito.any(Wallet.class), Mockito.any(Wallet.class));
 
         Mockito.verify(sendEmailService, Mockito.times(1))
@@ -233,7 +286,30 @@ public class TransactionServiceImplTests {
 
         Mockito.verify(mockRepository, Mockito.times(1))
                 .create(Mockito.any(Transaction.class), Mockito.any(Wallet.class), Mockito.any(Wallet.class));
+        Mockito.verify(categoryService, Mockito.times(1))
+                .addToSpendings(mockTransaction);
+    }
 
+    @Test
+    public void Create_Should_LeaveBalanceChangesToRepository_When_TransactionSmall() {
+        var mockUser = createMockCustomer();
+        var mockRecipient = createMockCustomer();
+        var mockTransaction = createMockTransaction();
+        var mockWallet = createMockWallet(mockUser);
+        mockWallet.setBalance(BigDecimal.valueOf(500));
+        mockRecipient.setId(5);
+        mockTransaction.setSender(mockUser);
+        mockTransaction.setRecipient(mockRecipient);
+
+        Mockito.when(walletRepository.getById(anyInt()))
+                .thenReturn(mockWallet);
+
+        service.create(mockTransaction, Optional.empty());
+
+        Assertions.assertEquals(BigDecimal.valueOf(500), mockWallet.getBalance());
+        Assertions.assertEquals(BigDecimal.valueOf(0), mockRecipient.getDefaultWallet().getBalance());
+        Mockito.verify(mockRepository, Mockito.times(1))
+                .create(mockTransaction, mockWallet, mockRecipient.getDefaultWallet());
     }
 
     @Test
@@ -358,7 +434,26 @@ public class TransactionServiceImplTests {
         service.createExternalDeposit(mockTransaction);
 
         Mockito.verify(mockRepository, Mockito.times(1))
-                .createExternal(mockTransaction, mockWallet);
+                .createExternalDeposit(mockTransaction, mockWallet);
+        Assertions.assertEquals(TransactionStatus.PENDING, mockTransaction.getStatus());
+    }
+
+    @Test
+    public void CreateExternalDeposit_Should_Throw_When_SettlementBacklogFull() {
+        var mockUser = createMockCustomer();
+        var mockCard = createMockCard(mockUser);
+        var mockWallet = createMockWallet(mockUser);
+        var mockTransaction = createMockTransaction();
+
+        Mockito.when(cardRepository.getById(anyInt()))
+                .thenReturn(mockCard);
+        Mockito.when(walletRepository.getById(anyInt()))
+                .thenReturn(mockWallet);
+        Mockito.doThrow(new SettlementBacklogFullException("backlog"))
+                .when(cardSettlementService).verifyCapacity();
+
+        Assertions.assertThrows(SettlementBacklogFullException.class, () -> service.createExternalDeposit(mockTransaction));
+        Mockito.verify(mockRepository, Mockito.never()).createExternalDeposit(any(), any());
     }
 
     @Test
@@ -377,29 +472,50 @@ public class TransactionServiceImplTests {
         service.createExternalWithdraw(mockTransaction);
 
         Mockito.verify(mockRepository, Mockito.times(1))
-                .createExternal(mockTransaction, mockWallet);
+                .createExternalWithdraw(mockTransaction, mockWallet);
     }
 
     @Test
-    public void Filter_Should_Call_Repository() {
+    public void FilterHistory_Should_Call_Repository() {
         var mockEmployee = createMockEmployee();
         Pageable pageable = PageRequest.of(1, 1);
 
         Mockito.when(userRepository.getByField("username", "test"))
                 .thenReturn(mockEmployee);
         // Act
-        service.filter(mockEmployee,
+        service.filterHistory(mockEmployee,
                 Optional.empty(),
                 Optional.empty(), Optional.empty(), Optional.of("test"), Optional.empty(), Optional.empty(), pageable);
 
         // Assert
         Mockito.verify(mockRepository, Mockito.times(1))
-                .filter(mockEmployee.getId(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.of(1),
+                .filterHistory(mockEmployee.getId(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.of(1),
                         Optional.empty(),
                         Optional.empty(),
                         pageable);
     }
 
+    @Test
+    public void ExportHistory_Should_Call_Repository() {
+        var mockEmployee = createMockEmployee();
+        Consumer<List<TransactionHistoryDto>> consumer = chunk -> {
+        };
+
+        Mockito.when(userRepository.getByField("username", "test"))
+                .thenReturn(mockEmployee);
+        // Act
+        service.exportHistory(mockEmployee,
+                Optional.empty(),
+                Optional.empty(), Optional.empty(), Optional.of("test"), Optional.empty(), Optional.empty(), consumer);
+
+        // Assert
+        Mockito.verify(mockRepository, Mockito.times(1))
+                .exportHistory(mockEmployee.getId(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.of(1),
+                        Optional.empty(),
+                        Optional.empty(),
+                        consumer);
+    }
+
     @Test
     public void EmployeeFilter_Should_Call_Repository() {
         var mockEmployee = createMockEmployee();
@@ -432,4 +548,95 @@ public class TransactionServiceImplTests {
                         pageable));
 
     }
+
+    @Test
+    public void CreatePayoutBatch_Should_ResumeExistingBatch_When_ReferenceAlreadyUsed() {
+        var mockCustomer = createMockCustomer();
+        var existingBatch = createMockPayoutBatch(new PayoutItem(2, BigDecimal.TEN), new PayoutItem(3, BigDecimal.ONE));
+        existingBatch.setFingerprint(TransactionServiceImpl.fingerprint(existingBatch));
+        existingBatch.getItems().get(0).complete(1);
+
+        Mockito.when(payoutRepository.getBatch(mockCustomer.getId(), existingBatch.getReference()))
+                .thenReturn(Optional.of(existingBatch));
+
+        var result = service.createPayoutBatch(mockCustomer, createMockPayoutBatch(
+                new PayoutItem(3, BigDecimal.ONE), new PayoutItem(2, new BigDecimal("10.00"))));
+
+        Assertions.assertSame(existingBatch, result);
+        Mockito.verify(payoutRepository, Mockito.never()).createBatch(any());
+        Mockito.verify(payoutRepository, Mockito.times(1))
+                .creditItems(existingBatch, List.of(existingBatch.getItems().get(1)));
+    }
+
+    @Test
+    public void CreatePayoutBatch_Should_Throw_When_ReferenceReusedForDifferentBatch() {
+        var mockCustomer = createMockCustomer();
+        var existingBatch = createMockPayoutBatch(new PayoutItem(2, BigDecimal.TEN), new PayoutItem(3, BigDecimal.ONE));
+        existingBatch.setFingerprint(TransactionServiceImpl.fingerprint(existingBatch));
+
+        Mockito.when(payoutRepository.getBatch(mockCustomer.getId(), existingBatch.getReference()))
+                .thenReturn(Optional.of(existingBatch));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> service.createPayoutBatch(mockCustomer,
+                createMockPayoutBatch(new PayoutItem(2, BigDecimal.TEN))));
+        Mockito.verify(payoutRepository, Mockito.never()).creditItems(any(), any());
+    }
+
+    @Test
+    public void CreatePayoutBatch_Should_DebitOnlyPayableItems() {
+        var mockCustomer = createMockCustomer();
+        var mockWallet = createMockWallet(mockCustomer);
+        mockWallet.setBalance(BigDecimal.valueOf(100));
+        var batch = createMockPayoutBatch(
+                new PayoutItem(2, BigDecimal.TEN),
+                new PayoutItem(3, BigDecimal.ONE),
+                new PayoutItem(mockCustomer.getId(), BigDecimal.ONE));
+
+        Mockito.when(payoutRepository.getBatch(anyInt(), anyString())).thenReturn(Optional.empty());
+        Mockito.when(walletRepository.getById(batch.getWalletId())).thenReturn(mockWallet);
+        Mockito.when(userRepository.getDefaultWalletIds(any())).thenReturn(Map.of(2, 5, mockCustomer.getId(), 1));
+
+        service.createPayoutBatch(mockCustomer, batch);
+
+        Assertions.assertEquals(BigDecimal.TEN, batch.getTotal());
+        Assertions.assertEquals(PayoutStatus.REJECTED, batch.getItems().get(1).getStatus());
+        Assertions.assertEquals(PayoutStatus.REJECTED, batch.getItems().get(2).getStatus());
+        Mockito.verify(payoutRepository, Mockito.times(1)).createBatch(batch);
+        Mockito.verify(payoutRepository, Mockito.times(1)).creditItems(batch, List.of(batch.getItems().get(0)));
+    }
+
+    @Test
+    public void CreatePayoutBatch_Should_Throw_When_RecipientRepeated() {
+        var mockCustomer = createMockCustomer();
+        var batch = createMockPayoutBatch(new PayoutItem(2, BigDecimal.TEN), new PayoutItem(2, BigDecimal.ONE));
+
+        Mockito.when(payoutRepository.getBatch(anyInt(), anyString())).thenReturn(Optional.empty());
+        Mockito.when(walletRepository.getById(batch.getWalletId())).thenReturn(createMockWallet(mockCustomer));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> service.createPayoutBatch(mockCustomer, batch));
+        Mockito.verify(payoutRepository, Mockito.never()).createBatch(any());
+    }
+
+    @Test
+    public void CreatePayoutBatch_Should_Throw_When_NoItemIsPayable() {
+        var mockCustomer = createMockCustomer();
+        var batch = createMockPayoutBatch(new PayoutItem(2, BigDecimal.TEN));
+
+        Mockito.when(payoutRepository.getBatch(anyInt(), anyString())).thenReturn(Optional.empty());
+        Mockito.when(walletRepository.getById(batch.getWalletId())).thenReturn(createMockWallet(mockCustomer));
+        Mockito.when(userRepository.getDefaultWalletIds(any())).thenReturn(Map.of());
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> service.createPayoutBatch(mockCustomer, batch));
+        Mockito.verify(payoutRepository, Mockito.never()).createBatch(any());
+    }
+
+    private static PayoutBatch createMockPayoutBatch(PayoutItem... items) {
+        var batch = new PayoutBatch();
+        batch.setSenderId(1);
+        batch.setWalletId(1);
+        batch.setReference("payroll");
+        batch.setDescription("Payroll");
+        batch.setItems(new ArrayList<>(List.of(items)));
+        return batch;
+    }
 }
@@ -12,6 +12,7 @@ import com.team9.virtualwallet.repositories.InvitationTokenRepositoryImpl;
 import com.team9.virtualwallet.repositories.RoleRepositoryImpl;
 import com.team9.virtualwallet.repositories.contracts.UserRepository;
 import com.team9.virtualwallet.services.emails.SendEmailServiceImpl;
+import com.team9.virtualwallet.services.cache.AuthenticatedUserCache;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -53,6 +54,9 @@ public class UserServiceImplTests {
     @Mock
     RoleRepositoryImpl roleRepository;
 
+    @Mock
+    AuthenticatedUserCache authenticatedUserCache;
+
     @InjectMocks
     UserServiceImpl service;
 
@@ -146,6 +150,15 @@ public class UserServiceImplTests {
         Assertions.assertEquals(mockUser.getUsername(), result.getUsername());
     }
 
+    @Test
+    public void GetReference_Should_CallRepository() {
+        var mockUser = createMockCustomer();
+        Mockito.when(mockRepository.getReference(mockUser.getId()))
+                .thenReturn(mockUser);
+
+        Assertions.assertSame(mockUser, service.getReference(mockUser.getId()));
+    }
+
     @Test
     public void Create_Should_Throw_When_DuplicateUser() {
 
@@ -177,7 +190,7 @@ public class UserServiceImplTests {
 
         // Assert
         Mockito.verify(mockRepository, Mockito.times(1))
-                .update(Mockito.any(User.class));
+                .createWithDefaultWallet(Mockito.eq(user), Mockito.any());
     }
 
     @Test
@@ -270,6 +283,17 @@ public class UserServiceImplTests {
 
     }
 
+    @Test
+    public void Delete_Should_InvalidateCachedAuthentication() {
+
+        var user = createMockEmployee();
+
+        service.delete(user);
+
+        Mockito.verify(authenticatedUserCache, Mockito.times(1))
+                .invalidate(user.getUsername());
+    }
+
     @Test
     public void UpdateProfilePhoto_Should_Call_Repository_When_UserValid() {
 
@@ -464,6 +488,21 @@ public class UserServiceImplTests {
 
     }
 
+    @Test
+    public void BlockUser_Should_InvalidateCachedAuthentication() {
+
+        var employee = createMockEmployee();
+        var customer = createMockCustomer();
+
+        Mockito.when(mockRepository.getById(anyInt()))
+                .thenReturn(customer);
+
+        service.blockUser(employee, 1);
+
+        Mockito.verify(authenticatedUserCache, Mockito.times(1))
+                .invalidate(customer.getUsername());
+    }
+
     @Test
     public void UnblockUser_Should_Throw_When_UserNotEmployee() {
 
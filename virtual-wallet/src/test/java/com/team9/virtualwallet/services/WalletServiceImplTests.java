@@ -9,6 +9,8 @@ import com.team9.virtualwallet.models.Wallet;
 import com.team9.virtualwallet.repositories.contracts.PaymentMethodRepository;
 import com.team9.virtualwallet.repositories.contracts.UserRepository;
 import com.team9.virtualwallet.repositories.contracts.WalletRepository;
+import com.team9.virtualwallet.services.metrics.WalletContentionMonitor;
+import com.team9.virtualwallet.services.cache.AuthenticatedUserCache;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,12 +18,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 
 import static com.team9.virtualwallet.Helpers.*;
+import static com.team9.virtualwallet.services.metrics.WalletContentionMonitor.DEPOSIT_OPERATION;
+import static com.team9.virtualwallet.services.metrics.WalletContentionMonitor.WITHDRAW_OPERATION;
 import static org.mockito.ArgumentMatchers.anyInt;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,6 +41,12 @@ public class WalletServiceImplTests {
     @Mock
     UserRepository userRepository;
 
+    @Mock
+    WalletContentionMonitor contentionMonitor;
+
+    @Mock
+    AuthenticatedUserCache authenticatedUserCache;
+
     @InjectMocks
     WalletServiceImpl service;
 
@@ -133,12 +144,7 @@ public class WalletServiceImplTests {
     public void Update_Should_Throw_When_DuplicateExits() {
 
         var mockCustomer = createMockCustomer();
-        var mockWallet = createMockWallet(mockCustomer);
         var mockWallet2 = createMockWallet(mockCustomer);
-        mockWallet.setName("wallet");
-
-        Mockito.when(mockRepository.getById(anyInt()))
-                .thenReturn(mockWallet);
 
         Mockito.when(mockRepository.isDuplicate(Mockito.any(User.class), Mockito.any(Wallet.class)))
                 .thenReturn(true);
@@ -156,9 +162,6 @@ public class WalletServiceImplTests {
         Mockito.when(mockRepository.isDuplicate(mockUser, mockWallet))
                 .thenReturn(false);
 
-        Mockito.when(mockRepository.getById(anyInt()))
-                .thenReturn(mockWallet);
-
         // Act
         service.update(mockUser, mockWallet);
 
@@ -254,7 +257,7 @@ public class WalletServiceImplTests {
 
         // Assert
         Mockito.verify(mockRepository, Mockito.times(1))
-                .update(Mockito.any(Wallet.class));
+                .updateBalance(Mockito.any(Wallet.class), Mockito.any(BigDecimal.class));
 
     }
 
@@ -269,7 +272,7 @@ public class WalletServiceImplTests {
 
         // Assert
         Mockito.verify(mockRepository, Mockito.times(1))
-                .update(Mockito.any(Wallet.class));
+                .updateBalance(Mockito.any(Wallet.class), Mockito.eq(BigDecimal.valueOf(-500)));
 
     }
 
@@ -286,6 +289,57 @@ public class WalletServiceImplTests {
 
     }
 
+    @Test
+    public void Deposit_Should_RetryOnFreshWallet_When_VersionConflict() {
+
+        var mockUser = createMockEmployee();
+        var staleWallet = createMockWallet(mockUser);
+        staleWallet.setBalance(BigDecimal.valueOf(100));
+        var freshWallet = createMockWallet(mockUser);
+        freshWallet.setBalance(BigDecimal.valueOf(200));
+        freshWallet.setVersion(1);
+
+        Mockito.doThrow(new OptimisticLockingFailureException("stale"))
+                .doNothing()
+                .when(mockRepository).updateBalance(Mockito.any(Wallet.class), Mockito.any(BigDecimal.class));
+        Mockito.when(mockRepository.getById(anyInt()))
+                .thenReturn(freshWallet);
+
+        service.depositBalance(staleWallet, BigDecimal.valueOf(50));
+
+        // Assert
+        Mockito.verify(mockRepository, Mockito.times(2))
+                .updateBalance(Mockito.any(Wallet.class), Mockito.any(BigDecimal.class));
+        Mockito.verify(contentionMonitor, Mockito.times(1)).recordConflict(DEPOSIT_OPERATION);
+        Mockito.verify(contentionMonitor, Mockito.times(1)).recordRetry(DEPOSIT_OPERATION);
+        Assertions.assertEquals(BigDecimal.valueOf(250), staleWallet.getBalance());
+        Assertions.assertEquals(1, staleWallet.getVersion());
+    }
+
+    @Test
+    public void Withdraw_Should_Throw_When_ConflictPersists() {
+
+        var mockUser = createMockEmployee();
+        var defaultWallet = createMockWallet(mockUser);
+        defaultWallet.setBalance(BigDecimal.valueOf(600));
+
+        Mockito.doThrow(new OptimisticLockingFailureException("stale"))
+                .when(mockRepository).updateBalance(Mockito.any(Wallet.class), Mockito.any(BigDecimal.class));
+        Mockito.when(mockRepository.getById(anyInt()))
+                .thenAnswer(invocation -> {
+                    var wallet = createMockWallet(mockUser);
+                    wallet.setBalance(BigDecimal.valueOf(600));
+                    return wallet;
+                });
+
+        Assertions.assertThrows(OptimisticLockingFailureException.class,
+                () -> service.withdrawBalance(defaultWallet, BigDecimal.valueOf(500)));
+
+        Mockito.verify(contentionMonitor, Mockito.times(5)).recordConflict(WITHDRAW_OPERATION);
+        Mockito.verify(contentionMonitor, Mockito.times(4)).recordRetry(WITHDRAW_OPERATION);
+        Assertions.assertEquals(BigDecimal.valueOf(600), defaultWallet.getBalance());
+    }
+
     @Test
     public void SetDefaultWallet_Should_Call_Repository() {
 
@@ -328,18 +382,15 @@ public class WalletServiceImplTests {
     }
 
     @Test
-    public void CreateDefaultWallet_Should_ReturnWallet() {
+    public void BuildDefaultWallet_Should_ReturnWalletOfUser() {
 
         var mockUser = createMockEmployee();
-        var mockWallet = createMockWallet(mockUser);
-        mockWallet.setName("wallet");
-
-        Mockito.doNothing().when(mockRepository).create(Mockito.any(Wallet.class));
-        var result = service.createDefaultWallet(mockUser);
 
+        var result = service.buildDefaultWallet(mockUser);
 
         // Assert
         Assertions.assertEquals(result.getUser(), mockUser);
+        Mockito.verify(mockRepository, Mockito.never()).create(Mockito.any(Wallet.class));
 
     }
 
@@ -0,0 +1,66 @@
+package com.team9.virtualwallet.services.cache;
+
+import com.team9.virtualwallet.models.SessionUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.util.SerializationUtils;
+
+import java.util.Set;
+
+import static com.team9.virtualwallet.Helpers.createMockCustomer;
+
+public class AuthenticatedUserCacheTests {
+
+    AuthenticatedUserCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new AuthenticatedUserCache(new MockEnvironment(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void Get_Should_ReturnSnapshot_When_CredentialsMatch() {
+        var user = createMockCustomer();
+        cache.put(user.getUsername(), user.getPassword(), user);
+
+        var result = cache.get(user.getUsername(), user.getPassword());
+
+        Assertions.assertTrue(result.isPresent());
+        Assertions.assertEquals(user.getId(), result.get().getUserId());
+        Assertions.assertEquals(user.getUsername(), result.get().getUsername());
+        Assertions.assertEquals(Set.of("Customer"), result.get().getRoleNames());
+        Assertions.assertEquals(user.getVersion(), result.get().getVersion());
+    }
+
+    @Test
+    public void Get_Should_ReturnEmpty_When_PasswordDiffers() {
+        var user = createMockCustomer();
+        cache.put(user.getUsername(), user.getPassword(), user);
+
+        Assertions.assertTrue(cache.get(user.getUsername(), "wrong").isEmpty());
+    }
+
+    @Test
+    public void Get_Should_ReturnEmpty_When_Invalidated() {
+        var user = createMockCustomer();
+        cache.put(user.getUsername(), user.getPassword(), user);
+
+        cache.invalidate(user.getUsername());
+
+        Assertions.assertTrue(cache.get(user.getUsername(), user.getPassword()).isEmpty());
+    }
+
+    @Test
+    public void Snapshot_Should_SurviveSerialization() {
+        var user = createMockCustomer();
+
+        var restored = (SessionUser) SerializationUtils.deserialize(SerializationUtils.serialize(SessionUser.of(user)));
+
+        Assertions.assertEquals(user.getId(), restored.getUserId());
+        Assertions.assertEquals(user.getUsername(), restored.getUsername());
+        Assertions.assertEquals(Set.of("Customer"), restored.getRoleNames());
+    }
+}
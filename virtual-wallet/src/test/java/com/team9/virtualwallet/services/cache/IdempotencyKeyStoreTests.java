@@ -0,0 +1,137 @@
+package com.team9.virtualwallet.services.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team9.virtualwallet.exceptions.InsufficientBalanceException;
+import com.team9.virtualwallet.models.IdempotencyKey;
+import com.team9.virtualwallet.models.Transaction;
+import com.team9.virtualwallet.repositories.contracts.IdempotencyKeyRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.team9.virtualwallet.Helpers.createMockCustomer;
+import static com.team9.virtualwallet.Helpers.createMockTransaction;
+import static com.team9.virtualwallet.Helpers.createTransactionTemplate;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+
+@ExtendWith(MockitoExtension.class)
+public class IdempotencyKeyStoreTests {
+
+    private static final Optional<String> KEY = Optional.of("retry-1");
+    private static final Map<String, Integer> REQUEST = Map.of("amount", 10);
+
+    @Mock
+    IdempotencyKeyRepository mockRepository;
+
+    IdempotencyKeyStore store;
+
+    SimpleMeterRegistry meterRegistry;
+
+    AtomicInteger created;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        store = new IdempotencyKeyStore(mockRepository, createTransactionTemplate(), new MockEnvironment(),
+                meterRegistry, new ObjectMapper());
+        created = new AtomicInteger();
+    }
+
+    @Test
+    public void Execute_Should_RecordKeyWithTransaction_When_KeyIsNew() {
+        var user = createMockCustomer();
+        var transaction = createMockTransaction();
+
+        store.execute(user, KEY, "create", REQUEST, () -> create(transaction), id -> null);
+
+        var stored = storedKey();
+        Assertions.assertEquals(user.getId(), stored.getUserId());
+        Assertions.assertEquals(KEY.get(), stored.getRequestKey());
+        Mockito.verify(mockRepository, Mockito.times(1)).complete(stored, transaction.getId());
+    }
+
+    @Test
+    public void Execute_Should_ReplayOriginalTransaction_When_KeyRepeated() {
+        var user = createMockCustomer();
+        var transaction = createMockTransaction();
+        store.execute(user, KEY, "create", REQUEST, () -> create(transaction), id -> null);
+        var stored = storedKey();
+        stored.setTransactionId(transaction.getId());
+        Mockito.when(mockRepository.get(user.getId(), KEY.get())).thenReturn(Optional.of(stored));
+
+        var result = store.execute(user, KEY, "create", REQUEST, () -> create(transaction),
+                id -> id == transaction.getId() ? transaction : null);
+
+        Assertions.assertSame(transaction, result);
+        Assertions.assertEquals(1, created.get());
+        Assertions.assertEquals(1, meterRegistry.get(IdempotencyKeyStore.REPLAYS_METRIC).counter().count());
+    }
+
+    @Test
+    public void Execute_Should_Throw_When_KeyReusedForDifferentRequest() {
+        var user = createMockCustomer();
+        var transaction = createMockTransaction();
+        store.execute(user, KEY, "create", REQUEST, () -> create(transaction), id -> transaction);
+        var stored = storedKey();
+        Mockito.when(mockRepository.get(user.getId(), KEY.get())).thenReturn(Optional.of(stored));
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> store.execute(user, KEY, "create", Map.of("amount", 11), () -> create(transaction), id -> transaction));
+    }
+
+    @Test
+    public void Execute_Should_NotCompleteKey_When_OriginalFailed() {
+        var user = createMockCustomer();
+
+        Assertions.assertThrows(InsufficientBalanceException.class, () -> store.execute(user, KEY, "create", REQUEST,
+                () -> {
+                    throw new InsufficientBalanceException("failed");
+                }, id -> null));
+
+        Mockito.verify(mockRepository, Mockito.never()).complete(any(), anyInt());
+    }
+
+    @Test
+    public void Execute_Should_ReplayCommittedTransaction_When_DuplicateArrivesConcurrently() {
+        var user = createMockCustomer();
+        var transaction = createMockTransaction();
+        var committed = new IdempotencyKey[1];
+        Mockito.doAnswer(invocation -> {
+            committed[0] = invocation.getArgument(0);
+            committed[0].setTransactionId(transaction.getId());
+            throw new DataIntegrityViolationException("duplicate key");
+        }).when(mockRepository).create(any());
+        Mockito.when(mockRepository.get(user.getId(), KEY.get()))
+                .thenReturn(Optional.empty())
+                .thenAnswer(invocation -> Optional.of(committed[0]));
+
+        var result = store.execute(user, KEY, "create", REQUEST, () -> create(transaction), id -> transaction);
+
+        Assertions.assertSame(transaction, result);
+        Assertions.assertEquals(0, created.get());
+    }
+
+    private IdempotencyKey storedKey() {
+        ArgumentCaptor<IdempotencyKey> captor = ArgumentCaptor.forClass(IdempotencyKey.class);
+        Mockito.verify(mockRepository).create(captor.capture());
+        return captor.getValue();
+    }
+
+    private Transaction create(Transaction transaction) {
+        created.incrementAndGet();
+        return transaction;
+    }
+}
@@ -0,0 +1,163 @@
+package com.team9.virtualwallet.services.emails;
+
+import com.team9.virtualwallet.configs.MonitoredTaskExecutor;
+import com.team9.virtualwallet.models.OutboxEmail;
+import com.team9.virtualwallet.repositories.contracts.EmailOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+@ExtendWith(MockitoExtension.class)
+public class EmailOutboxServiceImplTests {
+
+    private static final String REJECTED_RECIPIENT = "rejected@mail.com";
+
+    @Mock
+    EmailOutboxRepository mockRepository;
+
+    FakeSmtpServer smtpServer;
+
+    MonitoredTaskExecutor executor;
+
+    EmailOutboxServiceImpl service;
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        executor.shutdown();
+        smtpServer.close();
+    }
+
+    @Test
+    public void send_Should_DeliverBatchOverOneConnection() throws IOException {
+        start();
+        List<OutboxEmail> batch = createMockEmails(3, 0);
+
+        service.send(batch);
+
+        Assertions.assertEquals(3, smtpServer.getMessages().size());
+        Assertions.assertEquals(1, smtpServer.getConnections());
+        Assertions.assertTrue(smtpServer.getMessages().get(0).contains("Subject: Subject 0"));
+        Mockito.verify(mockRepository, Mockito.times(1)).markSent(List.of(0L, 1L, 2L));
+    }
+
+    @Test
+    public void send_Should_RetryOnlyRejectedRecipients() throws IOException {
+        start();
+        List<OutboxEmail> batch = createMockEmails(2, 0);
+        OutboxEmail rejected = createMockEmail(2, REJECTED_RECIPIENT, 0);
+        batch.add(rejected);
+        long before = System.currentTimeMillis();
+
+        service.send(batch);
+
+        Mockito.verify(mockRepository, Mockito.times(1)).markSent(List.of(0L, 1L));
+        Mockito.verify(mockRepository, Mockito.times(1))
+                .retry(eq(rejected), Mockito.argThat(availableAt -> availableAt.getTime() >= before + 1000), anyString());
+        Mockito.verify(mockRepository, Mockito.never()).markDead(any(), any());
+    }
+
+    @Test
+    public void send_Should_DeadLetter_When_AttemptsExhausted() throws IOException {
+        start();
+        OutboxEmail rejected = createMockEmail(0, REJECTED_RECIPIENT, 2);
+
+        service.send(new ArrayList<>(List.of(rejected)));
+
+        Mockito.verify(mockRepository, Mockito.times(1)).markDead(eq(rejected), anyString());
+        Mockito.verify(mockRepository, Mockito.never()).retry(any(), any(), any());
+    }
+
+    @Test
+    public void send_Should_RetryWholeBatch_When_ServerUnavailable() throws IOException {
+        start();
+        smtpServer.refuseConnections();
+        List<OutboxEmail> batch = createMockEmails(2, 0);
+
+        service.send(batch);
+
+        Mockito.verify(mockRepository, Mockito.times(2)).retry(any(OutboxEmail.class), any(Timestamp.class), any());
+        Mockito.verify(mockRepository, Mockito.times(1)).markSent(List.of());
+    }
+
+    @Test
+    public void dispatch_Should_ClaimFreeCapacityInBatches() throws IOException {
+        start();
+        Mockito.when(mockRepository.claim(anyInt(), any(Timestamp.class))).thenReturn(createMockEmails(4, 0));
+
+        Assertions.assertEquals(4, service.dispatch());
+
+        Mockito.verify(mockRepository).claim(eq(4), any(Timestamp.class));
+        Mockito.verify(mockRepository, Mockito.timeout(5000).times(2)).markSent(any());
+        Assertions.assertEquals(2, smtpServer.getConnections());
+        Assertions.assertEquals(4, smtpServer.getMessages().size());
+    }
+
+    @Test
+    public void dispatch_Should_ReleaseUndispatchedEmails_When_ExecutorRejects() throws Exception {
+        start();
+        CountDownLatch sending = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> sending.await(5, TimeUnit.SECONDS)).when(mockRepository).markSent(any());
+        Mockito.when(mockRepository.claim(anyInt(), any(Timestamp.class))).thenReturn(createMockEmails(6, 0));
+
+        try {
+            Assertions.assertEquals(4, service.dispatch());
+
+            Mockito.verify(mockRepository).release(List.of(4L, 5L));
+            Mockito.verify(mockRepository, Mockito.timeout(5000)).markSent(List.of(0L, 1L));
+        } finally {
+            sending.countDown();
+        }
+    }
+
+    private void start() throws IOException {
+        smtpServer = new FakeSmtpServer(REJECTED_RECIPIENT);
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpServer.getPort());
+        mailSender.getJavaMailProperties().setProperty("mail.smtp.connectiontimeout", "5000");
+        mailSender.getJavaMailProperties().setProperty("mail.smtp.timeout", "5000");
+        var env = new MockEnvironment()
+                .withProperty("mail.sender", "wallet@mail.com")
+                .withProperty("email.outbox.batch-size", "2")
+                .withProperty("email.outbox.max-attempts", "3")
+                .withProperty("email.outbox.retry-backoff-millis", "1000");
+        var meterRegistry = new SimpleMeterRegistry();
+        executor = new MonitoredTaskExecutor("email-outbox", 1, 1, 0, meterRegistry);
+        executor.initialize();
+        service = new EmailOutboxServiceImpl(mockRepository, mailSender, env, meterRegistry, executor);
+    }
+
+    private static List<OutboxEmail> createMockEmails(int count, int attempts) {
+        List<OutboxEmail> emails = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            emails.add(createMockEmail(i, String.format("user%d@mail.com", i), attempts));
+        }
+        return emails;
+    }
+
+    private static OutboxEmail createMockEmail(long id, String recipient, int attempts) {
+        OutboxEmail email = new OutboxEmail(recipient, "Subject " + id, "<p>Body</p>");
+        email.setId(id);
+        email.setAttempts(attempts);
+        return email;
+    }
+}
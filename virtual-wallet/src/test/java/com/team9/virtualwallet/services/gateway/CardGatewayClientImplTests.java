@@ -0,0 +1,141 @@
+package com.team9.virtualwallet.services.gateway;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import com.team9.virtualwallet.exceptions.CardGatewayRejectedException;
+import com.team9.virtualwallet.exceptions.CardGatewayUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.team9.virtualwallet.configs.ApplicationConstants.IDEMPOTENCY_KEY_HEADER;
+
+public class CardGatewayClientImplTests {
+
+    private static final int TRANSACTION_ID = 42;
+
+    HttpServer server;
+
+    SimpleMeterRegistry meterRegistry;
+
+    AtomicInteger requests;
+
+    volatile int responseCode;
+
+    volatile String responseBody;
+
+    volatile long responseDelayMillis;
+
+    volatile long bodyDelayMillis;
+
+    volatile String idempotencyKey;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        meterRegistry = new SimpleMeterRegistry();
+        requests = new AtomicInteger();
+        responseCode = 200;
+        responseBody = "\"OK\"";
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/dummy", exchange -> {
+            requests.incrementAndGet();
+            idempotencyKey = exchange.getRequestHeaders().getFirst(IDEMPOTENCY_KEY_HEADER);
+            sleep(responseDelayMillis);
+            byte[] body = responseBody.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(responseCode, body.length);
+            sleep(bodyDelayMillis);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void VerifyTransfer_Should_Pass_When_GatewayAccepts() {
+        createClient().verifyTransfer(TRANSACTION_ID);
+
+        Assertions.assertEquals(1, requests.get());
+        Assertions.assertEquals(String.valueOf(TRANSACTION_ID), idempotencyKey);
+        Assertions.assertEquals(1, meterRegistry.get(CardGatewayClientImpl.REQUESTS_METRIC)
+                .tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    public void VerifyTransfer_Should_ThrowWithoutRetrying_When_GatewayRejects() {
+        responseBody = "\"I_AM_A_TEAPOT\"";
+
+        Assertions.assertThrows(CardGatewayRejectedException.class, () -> createClient().verifyTransfer(TRANSACTION_ID));
+
+        Assertions.assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void VerifyTransfer_Should_RetryAndThrow_When_GatewayFails() {
+        responseCode = 503;
+
+        Assertions.assertThrows(CardGatewayUnavailableException.class, () -> createClient().verifyTransfer(TRANSACTION_ID));
+
+        Assertions.assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void VerifyTransfer_Should_Throw_When_GatewayTimesOut() {
+        responseDelayMillis = 2000;
+
+        Assertions.assertThrows(CardGatewayUnavailableException.class, () -> createClient().verifyTransfer(TRANSACTION_ID));
+    }
+
+    @Test
+    public void VerifyTransfer_Should_Throw_When_GatewayStallsMidResponse() {
+        bodyDelayMillis = 2000;
+
+        Assertions.assertThrows(CardGatewayUnavailableException.class, () -> createClient().verifyTransfer(TRANSACTION_ID));
+    }
+
+    @Test
+    public void VerifyTransfer_Should_FailFast_When_CircuitIsOpen() {
+        responseCode = 503;
+        var client = createClient();
+        Assertions.assertThrows(CardGatewayUnavailableException.class, () -> client.verifyTransfer(TRANSACTION_ID));
+        Assertions.assertThrows(CardGatewayUnavailableException.class, () -> client.verifyTransfer(TRANSACTION_ID));
+        int requestsBeforeOpen = requests.get();
+
+        Assertions.assertThrows(CardGatewayUnavailableException.class, () -> client.verifyTransfer(TRANSACTION_ID));
+
+        Assertions.assertEquals(requestsBeforeOpen, requests.get());
+        Assertions.assertEquals(1, meterRegistry.get(CardGatewayClientImpl.SHORT_CIRCUITED_METRIC).counter().count());
+        Assertions.assertEquals(1, meterRegistry.get(CardGatewayClientImpl.CIRCUIT_OPEN_METRIC).gauge().value());
+    }
+
+    private CardGatewayClientImpl createClient() {
+        var env = new MockEnvironment()
+                .withProperty("card-gateway.url", "http://localhost:" + server.getAddress().getPort() + "/api/dummy")
+                .withProperty("card-gateway.read-timeout-millis", "1000")
+                .withProperty("card-gateway.max-attempts", "2")
+                .withProperty("card-gateway.retry-backoff-millis", "1")
+                .withProperty("card-gateway.circuit-breaker.failure-threshold", "2")
+                .withProperty("card-gateway.circuit-breaker.open-millis", "60000");
+        return new CardGatewayClientImpl(env, meterRegistry, new ObjectMapper());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}